@@ -32,6 +32,7 @@ plugins {
     alias(libs.plugins.grgit)
     alias(libs.plugins.kotlin.jvm)
     alias(libs.plugins.kotlin.lombok)
+    alias(libs.plugins.jmh)
 }
 
 val apiVersion = "1.19"
@@ -113,6 +114,11 @@ dependencies {
             slim(libs.mavenCore)
         }
     }
+
+    // Benchmarks
+    jmh(libs.mockbukkit)
+    jmhCompileOnly(libs.lombok)
+    jmhAnnotationProcessor(libs.lombok)
 }
 
 java {
@@ -129,6 +135,29 @@ kotlin {
     }
 }
 
+/**
+ * Benchmarks run against a headless engine (see src/jmh). They need a pack to generate with:
+ * ./gradlew :core:jmh -Pbenchmark.pack=<pack folder> -Pbenchmark.dimension=<dimension> [-Pbenchmark.include=<regex>]
+ */
+jmh {
+    jmhVersion = libs.versions.jmh
+    findProperty("benchmark.include")?.let { includes.add(it as String) }
+    jvmArgsAppend.addAll(
+        "-Diris.provided-libraries=true",
+        "-Diris.benchmark.pack=${findProperty("benchmark.pack") ?: ""}",
+        "-Diris.benchmark.dimension=${findProperty("benchmark.dimension") ?: "overworld"}",
+        "-Diris.benchmark.seed=${findProperty("benchmark.seed") ?: 1337}",
+    )
+}
+
+/**
+ * Dynamically loaded libraries are not on the runtime classpath of the plugin,
+ * the benchmarks run without the library loader so they need them directly
+ */
+configurations.jmhImplementation {
+    extendsFrom(configurations.slim.get())
+}
+
 sentry {
     url = "http://sentry.volmit.com:8080"
     autoInstallation.enabled = false
@@ -0,0 +1,88 @@
+/*
+ * Iris is a World Generator for Minecraft Bukkit Servers
+ * Copyright (c) 2022 Arcane Arts (Volmit Software)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.volmit.iris.benchmark;
+
+import com.volmit.iris.engine.IrisComplex;
+import com.volmit.iris.util.context.ChunkContext;
+import com.volmit.iris.util.parallel.BurstExecutor;
+import com.volmit.iris.util.parallel.MultiBurst;
+import com.volmit.iris.util.stream.ProceduralStream;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares filling a chunk context in row batches against queueing one task per
+ * column and stream, which is how the context used to be filled.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class ChunkContextBenchmark {
+    private IrisComplex complex;
+    private ProceduralStream<?>[] streams;
+    private int chunk;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        complex = HeadlessEngine.acquire().getEngine().getComplex();
+        streams = new ProceduralStream<?>[]{
+                complex.getHeightStream(),
+                complex.getTrueBiomeStream(),
+                complex.getCaveBiomeStream(),
+                complex.getRockStream(),
+                complex.getFluidStream(),
+                complex.getRegionStream()
+        };
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        HeadlessEngine.release();
+    }
+
+    @Benchmark
+    public ChunkContext rowBatches() {
+        return new ChunkContext((chunk++) << 4, 0, complex);
+    }
+
+    @Benchmark
+    public Object[][] perColumn() {
+        int x = (chunk++) << 4;
+        Object[][] data = new Object[streams.length][256];
+        BurstExecutor burst = MultiBurst.burst.burst(streams.length * 256);
+
+        for (int s = 0; s < streams.length; s++) {
+            ProceduralStream<?> stream = streams[s];
+            Object[] into = data[s];
+
+            for (int i = 0; i < 256; i++) {
+                int column = i;
+                burst.queue(() -> into[column] = stream.get(x + (column & 15), column >> 4));
+            }
+        }
+
+        burst.complete();
+        return data;
+    }
+}
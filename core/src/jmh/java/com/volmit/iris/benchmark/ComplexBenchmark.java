@@ -0,0 +1,77 @@
+/*
+ * Iris is a World Generator for Minecraft Bukkit Servers
+ * Copyright (c) 2022 Arcane Arts (Volmit Software)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.volmit.iris.benchmark;
+
+import com.volmit.iris.engine.IrisComplex;
+import com.volmit.iris.util.stream.ProceduralStream;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Samples the streams of the complex a chunk at a time. The sampled area keeps
+ * moving, so the stream caches only help as much as they would while generating.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class ComplexBenchmark {
+    @Param({"height", "biome", "cave", "region", "rock", "fluid"})
+    public String stream;
+
+    private ProceduralStream<?> sampled;
+    private int chunk;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        IrisComplex complex = HeadlessEngine.acquire().getEngine().getComplex();
+        sampled = switch (stream) {
+            case "height" -> complex.getHeightStream();
+            case "biome" -> complex.getTrueBiomeStream();
+            case "cave" -> complex.getCaveBiomeStream();
+            case "region" -> complex.getRegionStream();
+            case "rock" -> complex.getRockStream();
+            case "fluid" -> complex.getFluidStream();
+            default -> throw new IllegalArgumentException("Unknown stream " + stream);
+        };
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        HeadlessEngine.release();
+    }
+
+    @Benchmark
+    public Object sampleChunk() {
+        int x = (chunk++) << 4;
+        Object last = null;
+
+        for (int i = 0; i < 16; i++) {
+            for (int j = 0; j < 16; j++) {
+                last = sampled.get(x + i, j);
+            }
+        }
+
+        return last;
+    }
+}
@@ -0,0 +1,113 @@
+/*
+ * Iris is a World Generator for Minecraft Bukkit Servers
+ * Copyright (c) 2022 Arcane Arts (Volmit Software)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.volmit.iris.benchmark;
+
+import be.seeseemelk.mockbukkit.MockBukkit;
+import com.volmit.iris.Iris;
+import com.volmit.iris.core.loader.IrisData;
+import com.volmit.iris.engine.IrisEngine;
+import com.volmit.iris.engine.framework.Engine;
+import com.volmit.iris.engine.framework.EngineTarget;
+import com.volmit.iris.engine.object.IrisDimension;
+import com.volmit.iris.engine.object.IrisWorld;
+import com.volmit.iris.util.io.IO;
+import lombok.Getter;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+
+/**
+ * Boots an engine for a pack without a running server. MockBukkit stands in for the
+ * server and loads the plugin, the engine itself generates for an in-memory {@link IrisWorld}
+ * which only has a temporary folder for its mantle instead of a real world.
+ * <p>
+ * The pack, dimension and seed are read from the iris.benchmark.pack, iris.benchmark.dimension
+ * and iris.benchmark.seed system properties, which the jmh task fills in from gradle properties.
+ * Benchmarks of one fork share the engine, it is closed once the last of them released it.
+ */
+public class HeadlessEngine {
+    private static HeadlessEngine instance;
+    private static int users;
+
+    @Getter
+    private final Engine engine;
+    @Getter
+    private final IrisData data;
+    private final File folder;
+
+    private HeadlessEngine(File pack, String dimension, long seed) throws IOException {
+        if (!pack.isDirectory()) {
+            throw new IllegalArgumentException("Pack folder " + pack.getAbsolutePath() + " does not exist, set it with -Pbenchmark.pack=<folder>");
+        }
+
+        if (!MockBukkit.isMocked()) {
+            MockBukkit.mock();
+            MockBukkit.load(Iris.class);
+        }
+
+        data = IrisData.get(pack);
+        IrisDimension dim = data.getDimensionLoader().load(dimension);
+        if (dim == null) {
+            throw new IllegalArgumentException("Dimension " + dimension + " was not found in " + pack.getAbsolutePath());
+        }
+
+        folder = Files.createTempDirectory("iris-headless").toFile();
+        IrisWorld world = IrisWorld.builder()
+                .name("headless")
+                .worldFolder(folder)
+                .seed(seed)
+                .environment(dim.getEnvironment())
+                .minHeight(dim.getMinHeight())
+                .maxHeight(dim.getMaxHeight())
+                .build();
+        engine = new IrisEngine(new EngineTarget(world, dim, data), false);
+    }
+
+    /**
+     * Get the shared engine, booting it on first use
+     *
+     * @return the headless engine
+     */
+    public static synchronized HeadlessEngine acquire() throws IOException {
+        if (instance == null) {
+            instance = new HeadlessEngine(
+                    new File(System.getProperty("iris.benchmark.pack", "")),
+                    System.getProperty("iris.benchmark.dimension", "overworld"),
+                    Long.getLong("iris.benchmark.seed", 1337));
+        }
+
+        users++;
+        return instance;
+    }
+
+    /**
+     * Release the shared engine, the last release closes it and shuts the mock server down
+     */
+    public static synchronized void release() {
+        if (instance == null || --users > 0) {
+            return;
+        }
+
+        instance.engine.close();
+        IO.delete(instance.folder);
+        instance = null;
+        MockBukkit.unmock();
+    }
+}
@@ -0,0 +1,67 @@
+/*
+ * Iris is a World Generator for Minecraft Bukkit Servers
+ * Copyright (c) 2022 Arcane Arts (Volmit Software)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.volmit.iris.benchmark;
+
+import com.volmit.iris.engine.framework.Engine;
+import com.volmit.iris.util.context.ChunkContext;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Generates the mantle matter of a chunk. Chunks are generated in a row like a player
+ * walking in one direction, so every invocation only plans the chunks its neighbour
+ * did not already plan, which is the steady state cost during generation.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 10)
+@Measurement(iterations = 5, time = 10)
+@Fork(1)
+public class MatterBenchmark {
+    @Param({"false", "true"})
+    public boolean multicore;
+
+    private Engine engine;
+    private ChunkContext context;
+    private int chunk;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        engine = HeadlessEngine.acquire().getEngine();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        HeadlessEngine.release();
+    }
+
+    @Setup(Level.Invocation)
+    public void prepare() {
+        chunk++;
+        context = new ChunkContext(chunk << 4, 0, engine.getComplex());
+    }
+
+    @Benchmark
+    public void generateMatter() {
+        engine.getMantle().generateMatter(chunk, 0, multicore, context);
+    }
+}
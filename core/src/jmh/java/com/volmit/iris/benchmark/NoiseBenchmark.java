@@ -0,0 +1,70 @@
+/*
+ * Iris is a World Generator for Minecraft Bukkit Servers
+ * Copyright (c) 2022 Arcane Arts (Volmit Software)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.volmit.iris.benchmark;
+
+import com.volmit.iris.util.math.RNG;
+import com.volmit.iris.util.noise.CNG;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Samples a signature noise through the fixed arity paths and through an explicit
+ * dimension array. Run with -prof gc to compare the allocation rate of both.
+ * This does not need a pack or the headless engine.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class NoiseBenchmark {
+    private CNG noise;
+    private double x;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        noise = CNG.signature(new RNG(1337));
+    }
+
+    @Benchmark
+    public double noise2() {
+        x += 0.37;
+        return noise.noise(x, -x);
+    }
+
+    @Benchmark
+    public double noise3() {
+        x += 0.37;
+        return noise.noise(x, 64, -x);
+    }
+
+    @Benchmark
+    public double noiseArray2() {
+        x += 0.37;
+        return noise.noise(new double[]{x, -x});
+    }
+
+    @Benchmark
+    public double fitDouble2() {
+        x += 0.37;
+        return noise.fitDouble(0, 256, x, -x);
+    }
+}
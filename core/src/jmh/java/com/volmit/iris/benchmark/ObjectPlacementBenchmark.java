@@ -0,0 +1,101 @@
+/*
+ * Iris is a World Generator for Minecraft Bukkit Servers
+ * Copyright (c) 2022 Arcane Arts (Volmit Software)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.volmit.iris.benchmark;
+
+import com.volmit.iris.core.loader.IrisData;
+import com.volmit.iris.engine.framework.Engine;
+import com.volmit.iris.engine.mantle.MantleWriter;
+import com.volmit.iris.engine.object.IrisObject;
+import com.volmit.iris.engine.object.IrisObjectPlacement;
+import com.volmit.iris.util.collection.KList;
+import com.volmit.iris.util.math.RNG;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Places the objects of the pack into the mantle with a default placement (random rotation).
+ * Every invocation places the next object at a random position inside the writer window.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class ObjectPlacementBenchmark {
+    @Param({"32"})
+    public int objects;
+
+    private Engine engine;
+    private IrisData data;
+    private KList<IrisObject> loaded;
+    private IrisObjectPlacement placement;
+    private RNG rng;
+    private MantleWriter writer;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        HeadlessEngine headless = HeadlessEngine.acquire();
+        engine = headless.getEngine();
+        data = headless.getData();
+        loaded = new KList<>();
+
+        for (String key : data.getObjectLoader().getPossibleKeys()) {
+            if (loaded.size() >= objects) {
+                break;
+            }
+
+            IrisObject object = data.getObjectLoader().load(key);
+            if (object != null) {
+                loaded.add(object);
+            }
+        }
+
+        if (loaded.isEmpty()) {
+            throw new IllegalStateException("The pack has no objects to place");
+        }
+
+        placement = new IrisObjectPlacement();
+        rng = new RNG(Long.getLong("iris.benchmark.seed", 1337));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        HeadlessEngine.release();
+    }
+
+    @Setup(Level.Iteration)
+    public void open() {
+        writer = engine.getMantle().getMantle().write(engine.getMantle(), 0, 0, 2, false);
+    }
+
+    @TearDown(Level.Iteration)
+    public void close() {
+        writer.close();
+    }
+
+    @Benchmark
+    public int place() {
+        IrisObject object = loaded.get(next++ % loaded.size());
+        return object.place(rng.i(-16, 32), -1, rng.i(-16, 32), writer, placement, rng, data);
+    }
+}
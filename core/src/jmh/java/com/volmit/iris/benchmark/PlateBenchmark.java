@@ -0,0 +1,111 @@
+/*
+ * Iris is a World Generator for Minecraft Bukkit Servers
+ * Copyright (c) 2022 Arcane Arts (Volmit Software)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.volmit.iris.benchmark;
+
+import com.volmit.iris.util.io.IO;
+import com.volmit.iris.util.mantle.MantleChunk;
+import com.volmit.iris.util.mantle.TectonicPlate;
+import com.volmit.iris.util.mantle.io.IOWorker;
+import com.volmit.iris.util.math.RNG;
+import com.volmit.iris.util.matter.MatterCavern;
+import com.volmit.iris.util.matter.MatterSlice;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Writes and reads a Tectonic Plate with caverns carved into its chunks. Every write
+ * rewrites all chunks, reading only maps the plate and touching chunks decompresses them.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class PlateBenchmark {
+    private static final int HEIGHT = 384;
+    private static final String NAME = "ps.0.ttp";
+
+    @Param({"64", "1024"})
+    public int chunks;
+
+    private File folder;
+    private IOWorker worker;
+    private TectonicPlate plate;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        HeadlessEngine.acquire();
+        folder = Files.createTempDirectory("iris-plates").toFile();
+        worker = new IOWorker(folder, HEIGHT);
+        plate = new TectonicPlate(HEIGHT, 0, 0);
+        RNG rng = new RNG(1337);
+        MatterCavern cavern = new MatterCavern(true, "", (byte) 0);
+
+        for (int i = 0; i < chunks; i++) {
+            MantleChunk chunk = plate.getOrCreate(i & 31, i >> 5);
+            for (int j = 0; j < 256; j++) {
+                int y = rng.i(0, HEIGHT);
+                MatterSlice<MatterCavern> slice = chunk.getOrCreate(y >> 4).slice(MatterCavern.class);
+                slice.set(rng.i(16), y & 15, rng.i(16), cavern);
+            }
+        }
+
+        worker.write(NAME, plate);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        worker.close();
+        IO.delete(folder);
+        HeadlessEngine.release();
+    }
+
+    @Benchmark
+    public int write() throws IOException {
+        for (int i = 0; i < chunks; i++) {
+            plate.get(i & 31, i >> 5).markDirty();
+        }
+
+        return worker.write(NAME, plate);
+    }
+
+    @Benchmark
+    public TectonicPlate read() throws IOException {
+        return worker.read(NAME);
+    }
+
+    @Benchmark
+    public int readAll() throws IOException {
+        TectonicPlate read = worker.read(NAME);
+        int found = 0;
+
+        for (int i = 0; i < chunks; i++) {
+            if (read.get(i & 31, i >> 5) != null) {
+                found++;
+            }
+        }
+
+        return found;
+    }
+}
@@ -0,0 +1,93 @@
+/*
+ * Iris is a World Generator for Minecraft Bukkit Servers
+ * Copyright (c) 2022 Arcane Arts (Volmit Software)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.volmit.iris.benchmark;
+
+import com.volmit.iris.engine.framework.Engine;
+import com.volmit.iris.engine.framework.EngineStage;
+import com.volmit.iris.util.collection.KList;
+import com.volmit.iris.util.context.ChunkContext;
+import com.volmit.iris.util.context.IrisContext;
+import com.volmit.iris.util.hunk.Hunk;
+import org.bukkit.block.Biome;
+import org.bukkit.block.data.BlockData;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs a single stage of the engine mode (for the overworld mode: 0 matter and terrain,
+ * 1 carving and post, 2 deposits, matter insertion and decorants, 3 perfection, 4 custom).
+ * The stages before it run untimed on the same chunk, so it sees the output it would during generation.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 10)
+@Measurement(iterations = 5, time = 10)
+@Fork(1)
+public class StageBenchmark {
+    @Param({"0", "1", "2", "3", "4"})
+    public int stage;
+
+    @Param({"false"})
+    public boolean multicore;
+
+    private Engine engine;
+    private KList<EngineStage> stages;
+    private Hunk<BlockData> blocks;
+    private Hunk<Biome> biomes;
+    private ChunkContext context;
+    private int chunk;
+    private int x;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        engine = HeadlessEngine.acquire().getEngine();
+        stages = engine.getMode().getStages();
+
+        if (stage >= stages.size()) {
+            throw new IllegalStateException("The " + engine.getDimension().getMode() + " mode only has " + stages.size() + " stages");
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        HeadlessEngine.release();
+    }
+
+    @Setup(Level.Invocation)
+    public void prepare() {
+        x = (chunk++) << 4;
+        blocks = Hunk.newAtomicHunk(16, engine.getHeight(), 16);
+        biomes = Hunk.newAtomicHunk(16, engine.getHeight(), 16);
+        context = new ChunkContext(x, 0, engine.getComplex());
+        IrisContext.getOr(engine).setChunkContext(context);
+
+        for (int i = 0; i < stage; i++) {
+            stages.get(i).generate(x, 0, blocks, biomes, multicore, context);
+        }
+    }
+
+    @Benchmark
+    public Hunk<BlockData> generate() {
+        stages.get(stage).generate(x, 0, blocks, biomes, multicore, context);
+        return blocks;
+    }
+}
@@ -428,6 +428,22 @@ public class Iris extends VolmitPlugin implements Listener {
         EnginePanic.add(s, v);
     }
 
+    public static void addPanic(String s, Object v) {
+        EnginePanic.add(s, v);
+    }
+
+    public static void addPanic(String s, String format, long a) {
+        EnginePanic.add(s, format, a);
+    }
+
+    public static void addPanic(String s, String format, long a, long b) {
+        EnginePanic.add(s, format, a, b);
+    }
+
+    public static void addPanic(String s, String format, long a, long b, long c) {
+        EnginePanic.add(s, format, a, b, c);
+    }
+
     public Iris() {
         instance = this;
         SlimJar.load();
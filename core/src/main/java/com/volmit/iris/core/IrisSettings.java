@@ -20,6 +20,7 @@ package com.volmit.iris.core;
 
 import com.google.gson.Gson;
 import com.volmit.iris.Iris;
+import com.volmit.iris.util.data.BlockStates;
 import com.volmit.iris.util.io.IO;
 import com.volmit.iris.util.json.JSONException;
 import com.volmit.iris.util.json.JSONObject;
@@ -93,6 +94,9 @@ public class IrisSettings {
         synchronized (settings) {
             settings = null;
         }
+
+        // Parsed leaves depend on the decay setting
+        BlockStates.clearParsed();
     }
 
     public void forceSave() {
@@ -162,8 +166,11 @@ public class IrisSettings {
         public int noiseCacheSize = 1_024;
         public int resourceLoaderCacheSize = 1_024;
         public int objectLoaderCacheSize = 4_096;
+        public int objectVariantCacheBlocks = 2_097_152;
         public int scriptLoaderCacheSize = 512;
         public int tectonicPlateSize = -1;
+        public int mantleMemoryBudget = -1;
+        public boolean mapTectonicPlates = true;
         public int mantleCleanupDelay = 200;
 
         public int getTectonicPlateSize() {
@@ -172,6 +179,13 @@ public class IrisSettings {
 
             return (int) (getHardware.getProcessMemory() / 512L);
         }
+
+        public long getMantleMemoryBudget() {
+            if (mantleMemoryBudget > 0)
+                return mantleMemoryBudget * 1024L * 1024L;
+
+            return Runtime.getRuntime().maxMemory() / 3;
+        }
     }
 
     @Data
@@ -268,6 +282,7 @@ public class IrisSettings {
         public boolean useVirtualThreads = true;
         public boolean forceMulticoreWrite = false;
         public int priority = Thread.NORM_PRIORITY;
+        public int checkpointInterval = 300;
 
         public int getPriority() {
             return Math.max(Math.min(priority, Thread.MAX_PRIORITY), Thread.MIN_PRIORITY);
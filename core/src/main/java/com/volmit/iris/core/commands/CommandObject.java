@@ -38,6 +38,8 @@ import com.volmit.iris.util.decree.specialhandlers.ObjectHandler;
 import com.volmit.iris.util.format.C;
 import com.volmit.iris.util.math.Direction;
 import com.volmit.iris.util.math.RNG;
+import com.volmit.iris.util.plugin.VolmitSender;
+import com.volmit.iris.util.scheduling.J;
 import org.bukkit.*;
 import org.bukkit.block.Block;
 import org.bukkit.block.data.BlockData;
@@ -232,6 +234,37 @@ public class CommandObject implements DecreeExecutor {
 
     }
 
+    @Decree(description = "Rewrite all objects of this pack which are stored in an older format")
+    public void upgrade() {
+        IrisData data = data();
+        if (data == null) {
+            sender().sendMessage(C.RED + "You need to be in a studio world to upgrade objects.");
+            return;
+        }
+
+        VolmitSender sender = sender();
+        J.a(() -> {
+            int upgraded = 0;
+
+            for (String i : data.getObjectLoader().getPossibleKeys()) {
+                IrisObject o = data.getObjectLoader().load(i);
+                if (o == null || o.getFormat() >= 3) {
+                    continue;
+                }
+
+                try {
+                    o.write(o.getLoadFile());
+                    upgraded++;
+                } catch (IOException e) {
+                    Iris.reportError(e);
+                    sender.sendMessage(C.RED + "Failed to upgrade object " + i + ": " + e.getMessage());
+                }
+            }
+
+            sender.sendMessage(C.GREEN + "Upgraded " + upgraded + " objects.");
+        });
+    }
+
     @Decree(description = "Get a powder that reveals objects", studio = true, aliases = "d")
     public void dust() {
         player().getInventory().addItem(WandSVC.createDust());
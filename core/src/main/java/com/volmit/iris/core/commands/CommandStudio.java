@@ -22,6 +22,8 @@ import com.volmit.iris.Iris;
 import com.volmit.iris.core.IrisSettings;
 import com.volmit.iris.core.gui.NoiseExplorerGUI;
 import com.volmit.iris.core.gui.VisionGUI;
+import com.volmit.iris.core.gui.components.MapTiles;
+import com.volmit.iris.core.gui.components.RenderType;
 import com.volmit.iris.core.loader.IrisData;
 import com.volmit.iris.core.project.IrisProject;
 import com.volmit.iris.core.service.ConversionSVC;
@@ -55,6 +57,7 @@ import com.volmit.iris.util.noise.CNG;
 import com.volmit.iris.util.parallel.MultiBurst;
 import com.volmit.iris.util.parallel.SyncExecutor;
 import com.volmit.iris.util.plugin.VolmitSender;
+import com.volmit.iris.util.scheduling.ChronoLatch;
 import com.volmit.iris.util.scheduling.J;
 import com.volmit.iris.util.scheduling.O;
 import com.volmit.iris.util.scheduling.PrecisionStopwatch;
@@ -461,6 +464,136 @@ public class CommandStudio implements DecreeExecutor {
         sender().sendMessage(C.GREEN + "Opening map!");
     }
 
+    @Decree(description = "Export the pregenerated area of a world as png map tiles, zoom 0 is one block per pixel", aliases = "emap")
+    public void exportmap(
+            @Param(name = "world", description = "The world to export", contextual = true)
+            World world,
+            @Param(description = "The render type", defaultValue = "biome")
+            String type,
+            @Param(description = "The most detailed zoom level", defaultValue = "0")
+            int detail,
+            @Param(description = "The amount of zoom levels to export", defaultValue = "6")
+            int levels
+    ) {
+        if (!IrisToolbelt.isIrisWorld(world)) {
+            sender().sendMessage(C.RED + "You need to be in or specify an Iris-generated world!");
+            return;
+        }
+
+        RenderType renderType;
+
+        try {
+            renderType = RenderType.valueOf(type.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            sender().sendMessage(C.RED + "Unknown render type " + type + ", use one of " + new KList<>(RenderType.values()).toString(", ").toLowerCase());
+            return;
+        }
+
+        if (detail < 0 || levels < 1 || detail + levels - 1 > MapTiles.MAX_ZOOM) {
+            sender().sendMessage(C.RED + "Zoom levels must be between 0 and " + MapTiles.MAX_ZOOM);
+            return;
+        }
+
+        File[] regions = new File(world.getWorldFolder(), "region").listFiles((f, n) -> n.matches("r\\.-?\\d+\\.-?\\d+\\.mca"));
+
+        if (regions == null || regions.length == 0) {
+            sender().sendMessage(C.RED + "There are no generated regions in " + world.getName());
+            return;
+        }
+
+        long span = MapTiles.span(detail);
+        KSet<Position2> area = new KSet<>();
+
+        for (File i : regions) {
+            String[] name = i.getName().split("\\Q.\\E");
+            long rx = Integer.parseInt(name[1]) * 512L;
+            long rz = Integer.parseInt(name[2]) * 512L;
+
+            for (long x = Math.floorDiv(rx, span); x <= Math.floorDiv(rx + 511, span); x++) {
+                for (long z = Math.floorDiv(rz, span); z <= Math.floorDiv(rz + 511, span); z++) {
+                    area.add(new Position2((int) x, (int) z));
+                }
+            }
+        }
+
+        int top = detail + levels - 1;
+        KSet<Position2> roots = new KSet<>();
+
+        for (Position2 i : area) {
+            roots.add(new Position2(i.getX() >> (top - detail), i.getZ() >> (top - detail)));
+        }
+
+        Engine engine = IrisToolbelt.access(world).getEngine();
+        MapTiles tiles = new MapTiles(engine, null, 1, 0, Runnable::run);
+        File folder = Iris.instance.getDataFolder("maps", world.getName(), renderType.name().toLowerCase());
+        VolmitSender sender = sender();
+        AtomicInteger done = new AtomicInteger();
+        ChronoLatch latch = new ChronoLatch(5000);
+        sender.sendMessage(C.GREEN + "Exporting " + Form.f(area.size()) + " tiles at zoom " + detail + " to " + folder.getPath());
+
+        J.a(() -> {
+            PrecisionStopwatch p = PrecisionStopwatch.start();
+
+            try {
+                for (Position2 i : roots) {
+                    exportTile(tiles, renderType, folder, area, detail, top, i.getX(), i.getZ(), () -> {
+                        int d = done.incrementAndGet();
+
+                        if (latch.flip()) {
+                            sender.sendMessage(C.GREEN + "Exported " + Form.f(d) + " of " + Form.f(area.size()) + " tiles (" + Form.pc(d / (double) area.size(), 0) + ")");
+                        }
+                    });
+                }
+
+                sender.sendMessage(C.GREEN + "Exported the map of " + world.getName() + " in " + Form.duration(p.getMilliseconds(), 1));
+            } catch (Throwable e) {
+                Iris.reportError(e);
+                sender.sendMessage(C.RED + "Failed to export the map: " + e.getMessage());
+            }
+        });
+    }
+
+    /**
+     * Write a tile and everything below it depth first, so only one branch of the pyramid is in memory
+     *
+     * @return the raster of the tile or null if no part of it was generated
+     */
+    private static int[] exportTile(MapTiles tiles, RenderType type, File folder, KSet<Position2> area, int detail, int zoom, int x, int z, Runnable progress) throws IOException {
+        int[] raster;
+
+        if (zoom == detail) {
+            if (!area.contains(new Position2(x, z))) {
+                return null;
+            }
+
+            raster = tiles.render(type, zoom, x, z);
+            progress.run();
+        } else {
+            int[][] children = new int[4][];
+            boolean any = false;
+
+            for (int c = 0; c < 4; c++) {
+                children[c] = exportTile(tiles, type, folder, area, detail, zoom - 1, x * 2 + (c & 1), z * 2 + (c >> 1), progress);
+                any |= children[c] != null;
+            }
+
+            if (!any) {
+                return null;
+            }
+
+            for (int c = 0; c < 4; c++) {
+                if (children[c] == null) {
+                    children[c] = new int[MapTiles.SIZE * MapTiles.SIZE];
+                }
+            }
+
+            raster = MapTiles.downsample(children);
+        }
+
+        MapTiles.write(raster, new File(folder, zoom + "/" + x + "/" + z + ".png"));
+        return raster;
+    }
+
     @Decree(description = "Package a dimension into a compressed format", aliases = "package")
     public void pkg(
             @Param(name = "dimension", description = "The dimension pack to compress", contextual = true, defaultValue = "default")
@@ -20,6 +20,7 @@ package com.volmit.iris.core.gui;
 
 import com.volmit.iris.Iris;
 import com.volmit.iris.core.gui.components.IrisRenderer;
+import com.volmit.iris.core.gui.components.MapTiles;
 import com.volmit.iris.core.gui.components.RenderType;
 import com.volmit.iris.core.tools.IrisToolbelt;
 import com.volmit.iris.engine.IrisComplex;
@@ -33,10 +34,8 @@ import com.volmit.iris.util.collection.KSet;
 import com.volmit.iris.util.format.Form;
 import com.volmit.iris.util.math.BlockPosition;
 import com.volmit.iris.util.math.M;
-import com.volmit.iris.util.math.RollingSequence;
 import com.volmit.iris.util.scheduling.ChronoLatch;
 import com.volmit.iris.util.scheduling.J;
-import com.volmit.iris.util.scheduling.O;
 import com.volmit.iris.util.scheduling.PrecisionStopwatch;
 import org.bukkit.Location;
 import org.bukkit.entity.LivingEntity;
@@ -50,10 +49,10 @@ import java.awt.event.*;
 import java.awt.image.BufferedImage;
 import java.io.File;
 import java.io.IOException;
+import java.util.Comparator;
 import java.util.Locale;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
-import java.util.function.BiFunction;
 
 import static com.volmit.iris.util.data.registry.Attributes.MAX_HEALTH;
 
@@ -62,14 +61,8 @@ public class VisionGUI extends JPanel implements MouseWheelListener, KeyListener
     private final KList<LivingEntity> lastEntities = new KList<>();
     private final KMap<String, Long> notifications = new KMap<>();
     private final ChronoLatch centities = new ChronoLatch(1000);
-    private final RollingSequence rs = new RollingSequence(512);
-    private final O<Integer> m = new O<>();
-    private final KMap<BlockPosition, BufferedImage> positions = new KMap<>();
-    private final KMap<BlockPosition, BufferedImage> fastpositions = new KMap<>();
-    private final KSet<BlockPosition> working = new KSet<>();
-    private final KSet<BlockPosition> workingfast = new KSet<>();
+    private final KMap<BlockPosition, BufferedImage> images = new KMap<>();
     double tfps = 240D;
-    int ltc = 3;
     private RenderType currentType = RenderType.BIOME;
     private boolean help = true;
     private boolean helpIgnored = false;
@@ -82,9 +75,9 @@ public class VisionGUI extends JPanel implements MouseWheelListener, KeyListener
     private boolean follow = false;
     private boolean alt = false;
     private IrisRenderer renderer;
+    private MapTiles tiles;
     private IrisWorld world;
     private double velocity = 0;
-    private int lowq = 12;
     private double scale = 128;
     private double mscale = 4D;
     private int w = 0;
@@ -112,25 +105,9 @@ public class VisionGUI extends JPanel implements MouseWheelListener, KeyListener
 
         return t;
     });
-
-    private final ExecutorService eh = Executors.newFixedThreadPool(ltc, r -> {
-        tid++;
-        Thread t = new Thread(r);
-        t.setName("Iris Renderer " + tid);
-        t.setPriority(Thread.NORM_PRIORITY);
-        t.setUncaughtExceptionHandler((et, e) ->
-        {
-            Iris.info("Exception encountered in " + et.getName());
-            e.printStackTrace();
-        });
-
-        return t;
-    });
     private BufferedImage texture;
 
     public VisionGUI(JFrame frame) {
-        m.set(8);
-        rs.put(1);
         addMouseWheelListener(this);
         addMouseMotionListener(this);
         addMouseListener(this);
@@ -146,7 +123,6 @@ public class VisionGUI extends JPanel implements MouseWheelListener, KeyListener
             @Override
             public void windowClosing(java.awt.event.WindowEvent windowEvent) {
                 e.shutdown();
-                eh.shutdown();
             }
         });
     }
@@ -157,6 +133,7 @@ public class VisionGUI extends JPanel implements MouseWheelListener, KeyListener
         nv.world = world;
         nv.engine = r;
         nv.renderer = new IrisRenderer(r);
+        nv.tiles = nv.createTiles();
         frame.add(nv);
         frame.setSize(1440, 820);
         frame.setVisible(true);
@@ -210,24 +187,11 @@ public class VisionGUI extends JPanel implements MouseWheelListener, KeyListener
     }
 
     public int getColor(double wx, double wz) {
-        BiFunction<Double, Double, Integer> colorFunction = (d, dx) -> Color.black.getRGB();
-
-        switch (currentType) {
-            case BIOME, DECORATOR_LOAD, OBJECT_LOAD, LAYER_LOAD ->
-                    colorFunction = (x, z) -> engine.getComplex().getTrueBiomeStream().get(x, z).getColor(engine, currentType).getRGB();
-            case BIOME_LAND ->
-                    colorFunction = (x, z) -> engine.getComplex().getLandBiomeStream().get(x, z).getColor(engine, currentType).getRGB();
-            case BIOME_SEA ->
-                    colorFunction = (x, z) -> engine.getComplex().getSeaBiomeStream().get(x, z).getColor(engine, currentType).getRGB();
-            case REGION ->
-                    colorFunction = (x, z) -> engine.getComplex().getRegionStream().get(x, z).getColor(engine.getComplex(), currentType).getRGB();
-            case CAVE_LAND ->
-                    colorFunction = (x, z) -> engine.getComplex().getCaveBiomeStream().get(x, z).getColor(engine, currentType).getRGB();
-            case HEIGHT ->
-                    colorFunction = (x, z) -> Color.getHSBColor(engine.getComplex().getHeightStream().get(x, z).floatValue(), 100, 100).getRGB();
-        }
+        return renderer.sampler(currentType).sample(wx, wz);
+    }
 
-        return colorFunction.apply(wx, wz);
+    private MapTiles createTiles() {
+        return new MapTiles(engine, new File(world.worldFolder(), "iris/tiles"), 512, 256L * 1024 * 1024, e);
     }
 
     public void notify(String s) {
@@ -296,6 +260,7 @@ public class VisionGUI extends JPanel implements MouseWheelListener, KeyListener
         }
 
         if (e.getKeyCode() == KeyEvent.VK_R) {
+            tiles.clear();
             dump();
             notify("Refreshing Chunks");
             return;
@@ -354,62 +319,54 @@ public class VisionGUI extends JPanel implements MouseWheelListener, KeyListener
     }
 
     private void dump() {
-        positions.clear();
-        fastpositions.clear();
+        images.clear();
     }
 
-    public BufferedImage getTile(KSet<BlockPosition> fg, int div, int x, int z, O<Integer> m) {
-        BlockPosition key = new BlockPosition((int) mscale, Math.floorDiv(x, div), Math.floorDiv(z, div));
-        fg.add(key);
-
-        if (positions.containsKey(key)) {
-            return positions.get(key);
-        }
+    private BufferedImage getTile(KSet<BlockPosition> drawn, int zoom, int x, int z, boolean request) {
+        BlockPosition key = new BlockPosition(x, zoom, z);
+        BufferedImage image = images.get(key);
 
-        if (fastpositions.containsKey(key)) {
-            if (!working.contains(key) && working.size() < 9) {
-                m.set(m.get() - 1);
+        if (image == null) {
+            int[] raster = tiles.getCached(currentType, zoom, x, z);
 
-                if (m.get() >= 0 && velocity < 50) {
-                    working.add(key);
-                    double mk = mscale;
-                    double mkd = scale;
-                    e.submit(() ->
-                    {
-                        PrecisionStopwatch ps = PrecisionStopwatch.start();
-                        BufferedImage b = renderer.render(x * mscale, z * mscale, div * mscale, div / (lowtile ? 3 : 1), currentType);
-                        rs.put(ps.getMilliseconds());
-                        working.remove(key);
-
-                        if (mk == mscale && mkd == scale) {
-                            positions.put(key, b);
-                        }
-                    });
+            if (raster == null) {
+                if (request && tiles.getPending() < Runtime.getRuntime().availableProcessors() * 2) {
+                    tiles.request(currentType, zoom, x, z);
                 }
+
+                return null;
             }
 
-            return fastpositions.get(key);
+            image = MapTiles.toImage(raster);
+            images.put(key, image);
         }
 
-        if (workingfast.contains(key) || workingfast.size() > Runtime.getRuntime().availableProcessors()) {
-            return null;
+        drawn.add(key);
+        return image;
+    }
+
+    private void drawTile(Graphics2D g, KSet<BlockPosition> drawn, int zoom, int x, int z, int sx, int sz, int ex, int ez) {
+        BufferedImage t = getTile(drawn, zoom, x, z, true);
+
+        if (t != null) {
+            g.drawImage(t, sx, sz, ex - sx, ez - sz, (img, infoflags, xx, zz, width, height) -> true);
+            return;
         }
 
-        workingfast.add(key);
-        double mk = mscale;
-        double mkd = scale;
-        eh.submit(() ->
-        {
-            PrecisionStopwatch ps = PrecisionStopwatch.start();
-            BufferedImage b = renderer.render(x * mscale, z * mscale, div * mscale, div / lowq, currentType);
-            rs.put(ps.getMilliseconds());
-            workingfast.remove(key);
+        // Stretch the matching part of a coarser tile until this one is ready
+        for (int k = 1; k <= 4 && zoom + k <= MapTiles.MAX_ZOOM; k++) {
+            int px = x >> k;
+            int pz = z >> k;
+            BufferedImage p = getTile(drawn, zoom + k, px, pz, k == 2);
 
-            if (mk == mscale && mkd == scale) {
-                fastpositions.put(key, b);
+            if (p != null) {
+                int sub = MapTiles.SIZE >> k;
+                int ox = (x - (px << k)) * sub;
+                int oz = (z - (pz << k)) * sub;
+                g.drawImage(p, sx, sz, ex, ez, ox, oz, ox + sub, oz + sub, (img, infoflags, xx, zz, width, height) -> true);
+                return;
             }
-        });
-        return null;
+        }
     }
 
     private double getWorldX(double screenX) {
@@ -444,6 +401,8 @@ public class VisionGUI extends JPanel implements MouseWheelListener, KeyListener
         }
 
         if (updateEngine()) {
+            renderer = new IrisRenderer(engine);
+            tiles = createTiles();
             dump();
         }
 
@@ -498,51 +457,51 @@ public class VisionGUI extends JPanel implements MouseWheelListener, KeyListener
                 }
             });
         }
-        lowq = Math.max(Math.min((int) M.lerp(8, 28, velocity / 1000D), 28), 8);
         PrecisionStopwatch p = PrecisionStopwatch.start();
         Graphics2D g = (Graphics2D) gx;
         w = getWidth();
         h = getHeight();
-        double vscale = scale;
         scale = w / 12D;
 
-        if (scale != vscale) {
-            positions.clear();
+        if (tiles.validate()) {
+            dump();
         }
 
-        KSet<BlockPosition> gg = new KSet<>();
-        int iscale = (int) scale;
         g.setColor(Color.white);
         g.clearRect(0, 0, w, h);
-        double offsetX = oxp / scale;
-        double offsetZ = ozp / scale;
-        m.set(3);
-
-        for (int r = 0; r < Math.max(w, h); r += iscale) {
-            for (int i = -iscale; i < w + iscale; i += iscale) {
-                for (int j = -iscale; j < h + iscale; j += iscale) {
-                    int a = i - (w / 2);
-                    int b = j - (h / 2);
-                    if (a * a + b * b <= r * r) {
-                        int tx = (int) (Math.floor((offsetX + i) / iscale) * iscale);
-                        int tz = (int) (Math.floor((offsetZ + j) / iscale) * iscale);
-                        BufferedImage t = getTile(gg, iscale, tx, tz, m);
-
-                        if (t != null) {
-                            int rx = Math.floorMod((int) Math.floor(offsetX), iscale);
-                            int rz = Math.floorMod((int) Math.floor(offsetZ), iscale);
-                            g.drawImage(t, i - rx, j - rz, iscale, iscale, (img, infoflags, x, y, width, height) -> true);
-                        }
-                    }
-                }
+        int zoom = Math.min(MapTiles.zoomFor(mscale) + (lowtile ? 1 : 0), MapTiles.MAX_ZOOM);
+        long span = MapTiles.span(zoom);
+        int tx0 = (int) Math.floor(getWorldX(0) / span);
+        int tz0 = (int) Math.floor(getWorldZ(0) / span);
+        int tx1 = (int) Math.floor(getWorldX(w) / span);
+        int tz1 = (int) Math.floor(getWorldZ(h) / span);
+        double cx = getWorldX(w / 2D) / span - 0.5;
+        double cz = getWorldZ(h / 2D) / span - 0.5;
+        KList<BlockPosition> visible = new KList<>();
+
+        for (int i = tx0; i <= tx1; i++) {
+            for (int j = tz0; j <= tz1; j++) {
+                visible.add(new BlockPosition(i, zoom, j));
             }
         }
 
+        // Nearest to the center first, so those are requested first
+        visible.sort(Comparator.comparingDouble(i -> (i.getX() - cx) * (i.getX() - cx) + (i.getZ() - cz) * (i.getZ() - cz)));
+        KSet<BlockPosition> drawn = new KSet<>();
+
+        for (BlockPosition i : visible) {
+            int sx = (int) Math.floor(getScreenX((double) i.getX() * span));
+            int sz = (int) Math.floor(getScreenZ((double) i.getZ() * span));
+            int ex = (int) Math.floor(getScreenX((double) (i.getX() + 1) * span));
+            int ez = (int) Math.floor(getScreenZ((double) (i.getZ() + 1) * span));
+            drawTile(g, drawn, zoom, i.getX(), i.getZ(), sx, sz, ex, ez);
+        }
+
         p.end();
 
-        for (BlockPosition i : positions.k()) {
-            if (!gg.contains(i)) {
-                positions.remove(i);
+        for (BlockPosition i : images.k()) {
+            if (!drawn.contains(i)) {
+                images.remove(i);
             }
         }
 
@@ -822,9 +781,6 @@ public class VisionGUI extends JPanel implements MouseWheelListener, KeyListener
             return;
         }
 
-        positions.clear();
-        fastpositions.clear();
-
         Point p = e.getPoint();
         double sx = p.getX();
         double sz = p.getY();
@@ -18,14 +18,15 @@
 
 package com.volmit.iris.core.gui.components;
 
+import com.volmit.iris.engine.IrisComplex;
 import com.volmit.iris.engine.framework.Engine;
 import com.volmit.iris.engine.object.IrisBiome;
 import com.volmit.iris.engine.object.IrisBiomeGeneratorLink;
-import com.volmit.iris.util.interpolation.IrisInterpolation;
+import com.volmit.iris.util.stream.ProceduralStream;
 
 import java.awt.*;
 import java.awt.image.BufferedImage;
-import java.util.function.BiFunction;
+import java.util.function.ToIntFunction;
 
 public class IrisRenderer {
     private final Engine renderer;
@@ -35,23 +36,108 @@ public class IrisRenderer {
     }
 
     public BufferedImage render(double sx, double sz, double size, int resolution, RenderType currentType) {
-        BufferedImage image = new BufferedImage(resolution, resolution, BufferedImage.TYPE_INT_RGB);
-        BiFunction<Double, Double, Integer> colorFunction = (d, dx) -> Color.black.getRGB();
+        int[] raster = new int[resolution * resolution];
+        render(raster, 0, resolution, sx, sz, size / resolution, resolution, currentType);
+        return toImage(raster, resolution, resolution);
+    }
+
+    /**
+     * Render rows of a square area into a raster of packed rgb colors, rows run along z.
+     * Areas on the block grid are read from the streams in one call per call of this method.
+     *
+     * @param raster     the raster of resolution * resolution colors
+     * @param fromRow    the first row to render
+     * @param toRow      the row to stop at (exclusive)
+     * @param sx         the x block coordinate of the first column
+     * @param sz         the z block coordinate of the first row
+     * @param step       the blocks per pixel
+     * @param resolution the width of the raster
+     * @param type       the render type
+     */
+    public void render(int[] raster, int fromRow, int toRow, double sx, double sz, double step, int resolution, RenderType type) {
+        int x = (int) sx;
+        int z = (int) sz;
+        int s = (int) step;
+
+        if (x == sx && z == sz && s == step && s > 0) {
+            IrisComplex complex = renderer.getComplex();
+            ToIntFunction<IrisBiome> biome = b -> b.getColor(renderer, type).getRGB();
+
+            switch (type) {
+                case BIOME, DECORATOR_LOAD, OBJECT_LOAD, LAYER_LOAD -> {
+                    fill(complex.getTrueBiomeStream(), biome, raster, fromRow, toRow, x, z, s, resolution);
+                    return;
+                }
+                case BIOME_LAND -> {
+                    fill(complex.getLandBiomeStream(), biome, raster, fromRow, toRow, x, z, s, resolution);
+                    return;
+                }
+                case BIOME_SEA -> {
+                    fill(complex.getSeaBiomeStream(), biome, raster, fromRow, toRow, x, z, s, resolution);
+                    return;
+                }
+                case REGION -> {
+                    fill(complex.getRegionStream(), r -> r.getColor(complex, type).getRGB(), raster, fromRow, toRow, x, z, s, resolution);
+                    return;
+                }
+                case CAVE_LAND -> {
+                    fill(complex.getCaveBiomeStream(), biome, raster, fromRow, toRow, x, z, s, resolution);
+                    return;
+                }
+                case HEIGHT -> {
+                    fill(complex.getHeightStream(), h -> Color.HSBtoRGB(h.floatValue(), 100, 100), raster, fromRow, toRow, x, z, s, resolution);
+                    return;
+                }
+            }
+        }
 
-        switch (currentType) {
+        ColorSampler sampler = sampler(type);
+
+        for (int j = fromRow; j < toRow; j++) {
+            double z = sz + j * step;
+            int o = j * resolution;
+
+            for (int i = 0; i < resolution; i++) {
+                raster[o + i] = sampler.sample(sx + i * step, z);
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> void fill(ProceduralStream<T> stream, ToIntFunction<T> color, int[] raster, int fromRow, int toRow, int x, int z, int step, int resolution) {
+        int rows = toRow - fromRow;
+        T[] values = (T[]) new Object[resolution * rows];
+        stream.fillUncached(x, z + (fromRow * step), resolution, rows, step, values);
+
+        for (int i = 0; i < values.length; i++) {
+            raster[(fromRow * resolution) + i] = color.applyAsInt(values[i]);
+        }
+    }
+
+    /**
+     * Get the color function of a render type. It reads past the caches of the engine streams,
+     * map samples are spread too far apart to be worth caching and would evict generation data.
+     *
+     * @param type the render type
+     * @return the sampler
+     */
+    public ColorSampler sampler(RenderType type) {
+        IrisComplex complex = renderer.getComplex();
+
+        return switch (type) {
             case BIOME, DECORATOR_LOAD, OBJECT_LOAD, LAYER_LOAD ->
-                    colorFunction = (x, z) -> renderer.getComplex().getTrueBiomeStream().get(x, z).getColor(renderer, currentType).getRGB();
+                    (x, z) -> complex.getTrueBiomeStream().getUncached(x, z).getColor(renderer, type).getRGB();
             case BIOME_LAND ->
-                    colorFunction = (x, z) -> renderer.getComplex().getLandBiomeStream().get(x, z).getColor(renderer, currentType).getRGB();
+                    (x, z) -> complex.getLandBiomeStream().getUncached(x, z).getColor(renderer, type).getRGB();
             case BIOME_SEA ->
-                    colorFunction = (x, z) -> renderer.getComplex().getSeaBiomeStream().get(x, z).getColor(renderer, currentType).getRGB();
+                    (x, z) -> complex.getSeaBiomeStream().getUncached(x, z).getColor(renderer, type).getRGB();
             case REGION ->
-                    colorFunction = (x, z) -> renderer.getComplex().getRegionStream().get(x, z).getColor(renderer.getComplex(), currentType).getRGB();
+                    (x, z) -> complex.getRegionStream().getUncached(x, z).getColor(complex, type).getRGB();
             case CAVE_LAND ->
-                    colorFunction = (x, z) -> renderer.getComplex().getCaveBiomeStream().get(x, z).getColor(renderer, currentType).getRGB();
+                    (x, z) -> complex.getCaveBiomeStream().getUncached(x, z).getColor(renderer, type).getRGB();
             case HEIGHT ->
-                    colorFunction = (x, z) -> Color.getHSBColor(renderer.getComplex().getHeightStream().get(x, z).floatValue(), 100, 100).getRGB();
-            case CONTINENT -> colorFunction = (x, z) -> {
+                    (x, z) -> Color.HSBtoRGB(complex.getHeightStream().getUncached(x, z).floatValue(), 100, 100);
+            case CONTINENT -> (x, z) -> {
                 IrisBiome b = renderer.getBiome((int) Math.round(x), renderer.getMaxHeight() - 1, (int) Math.round(z));
                 IrisBiomeGeneratorLink g = b.getGenerators().get(0);
                 Color c;
@@ -67,19 +153,17 @@ public class IrisRenderer {
                 }
                 return c.getRGB();
             };
-        }
-
-        double x, z;
-        int i, j;
-        for (i = 0; i < resolution; i++) {
-            x = IrisInterpolation.lerp(sx, sx + size, (double) i / (double) (resolution));
-
-            for (j = 0; j < resolution; j++) {
-                z = IrisInterpolation.lerp(sz, sz + size, (double) j / (double) (resolution));
-                image.setRGB(i, j, colorFunction.apply(x, z));
-            }
-        }
+        };
+    }
 
+    public static BufferedImage toImage(int[] raster, int width, int height) {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        image.getRaster().setDataElements(0, 0, width, height, raster);
         return image;
     }
+
+    @FunctionalInterface
+    public interface ColorSampler {
+        int sample(double x, double z);
+    }
 }
@@ -0,0 +1,382 @@
+/*
+ * Iris is a World Generator for Minecraft Bukkit Servers
+ * Copyright (c) 2022 Arcane Arts (Volmit Software)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.volmit.iris.core.gui.components;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.volmit.iris.Iris;
+import com.volmit.iris.core.loader.PackIndex;
+import com.volmit.iris.engine.framework.Engine;
+import com.volmit.iris.util.collection.KList;
+import com.volmit.iris.util.collection.KMap;
+import com.volmit.iris.util.io.IO;
+import com.volmit.iris.util.parallel.BurstExecutor;
+import com.volmit.iris.util.parallel.MultiBurst;
+import com.volmit.iris.util.scheduling.J;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.util.Comparator;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A pyramid of fixed size map tiles. A pixel of a tile at zoom level z covers 2^z blocks,
+ * so zoom 0 is one block per pixel and every level above halves the detail.
+ * <p>
+ * Rendered tiles are kept in a bounded memory cache and optionally in a bounded folder on disk.
+ * The disk cache is keyed by the seed and the content of the pack, so it survives restarts
+ * but never shows tiles of an older version of the pack.
+ */
+public class MapTiles {
+    public static final int SIZE = 256;
+    public static final int MAX_ZOOM = 16;
+    private static final int STRIPS = 16;
+    private final Engine engine;
+    private final IrisRenderer renderer;
+    private final File folder;
+    private final long maxDiskSize;
+    private final Executor executor;
+    private final Cache<Key, int[]> memory;
+    private final KMap<Key, CompletableFuture<int[]>> pending;
+    private final AtomicInteger writes;
+    private volatile int cacheId;
+    private volatile File versionFolder;
+
+    /**
+     * Create a tile pyramid
+     *
+     * @param engine      the engine to render
+     * @param folder      the disk cache folder or null to only cache in memory
+     * @param maxTiles    the amount of tiles to keep in memory
+     * @param maxDiskSize the amount of bytes to keep on disk
+     * @param executor    the executor to render requested tiles on
+     */
+    public MapTiles(Engine engine, File folder, int maxTiles, long maxDiskSize, Executor executor) {
+        this.engine = engine;
+        this.renderer = new IrisRenderer(engine);
+        this.folder = folder;
+        this.maxDiskSize = maxDiskSize;
+        this.executor = executor;
+        memory = Caffeine.newBuilder().maximumSize(maxTiles).build();
+        pending = new KMap<>();
+        writes = new AtomicInteger();
+        validate();
+    }
+
+    /**
+     * Get the zoom level whose tiles have at least the detail of a view
+     *
+     * @param blocksPerPixel the blocks per screen pixel of the view
+     * @return the zoom level
+     */
+    public static int zoomFor(double blocksPerPixel) {
+        if (blocksPerPixel <= 1) {
+            return 0;
+        }
+
+        return Math.min(MAX_ZOOM, 63 - Long.numberOfLeadingZeros((long) blocksPerPixel));
+    }
+
+    /**
+     * Get the size of a tile in blocks
+     *
+     * @param zoom the zoom level
+     * @return the blocks along one side of a tile
+     */
+    public static long span(int zoom) {
+        return (long) SIZE << zoom;
+    }
+
+    /**
+     * Drop all tiles if the engine hotloaded since the last call, call this before reading tiles
+     *
+     * @return true if the tiles were dropped
+     */
+    public boolean validate() {
+        if (cacheId == engine.getCacheID() && (folder == null || versionFolder != null)) {
+            return false;
+        }
+
+        cacheId = engine.getCacheID();
+        memory.invalidateAll();
+        pending.clear();
+
+        if (folder != null) {
+            PackIndex index = engine.getData().getIndex();
+            long fingerprint = engine.getSeedManager().getSeed() * 31 + (index == null ? 0 : index.fingerprint());
+            versionFolder = new File(folder, Long.toHexString(fingerprint));
+            J.a(this::prune);
+        }
+
+        return true;
+    }
+
+    /**
+     * Get a tile if it is in memory
+     *
+     * @return the raster or null if it was not rendered yet
+     */
+    public int[] getCached(RenderType type, int zoom, int x, int z) {
+        return memory.getIfPresent(new Key(type, zoom, x, z));
+    }
+
+    /**
+     * Get a tile, loading or rendering it on the executor if it is not in memory
+     *
+     * @return the future raster
+     */
+    public CompletableFuture<int[]> request(RenderType type, int zoom, int x, int z) {
+        Key key = new Key(type, zoom, x, z);
+        int[] raster = memory.getIfPresent(key);
+
+        if (raster != null) {
+            return CompletableFuture.completedFuture(raster);
+        }
+
+        CompletableFuture<int[]> future = new CompletableFuture<>();
+        CompletableFuture<int[]> existing = pending.putIfAbsent(key, future);
+
+        if (existing != null) {
+            return existing;
+        }
+
+        executor.execute(() -> {
+            try {
+                future.complete(load(key));
+            } catch (Throwable e) {
+                Iris.reportError(e);
+                future.completeExceptionally(e);
+            } finally {
+                pending.remove(key, future);
+            }
+        });
+
+        return future;
+    }
+
+    /**
+     * The amount of tiles which are currently requested but not ready
+     *
+     * @return the amount of pending tiles
+     */
+    public int getPending() {
+        return pending.size();
+    }
+
+    /**
+     * Get a tile, loading or rendering it on the calling thread if it is not in memory
+     *
+     * @return the raster
+     */
+    public int[] get(RenderType type, int zoom, int x, int z) {
+        Key key = new Key(type, zoom, x, z);
+        int[] raster = memory.getIfPresent(key);
+        return raster != null ? raster : load(key);
+    }
+
+    /**
+     * Drop every tile in memory and on disk for the current version of the pack
+     */
+    public void clear() {
+        memory.invalidateAll();
+        pending.clear();
+
+        if (versionFolder != null) {
+            File f = versionFolder;
+            J.a(() -> IO.delete(f));
+        }
+    }
+
+    /**
+     * Render a tile without touching any cache. Rows are rendered in parallel.
+     *
+     * @return the raster of SIZE * SIZE packed rgb colors
+     */
+    public int[] render(RenderType type, int zoom, int x, int z) {
+        int[] raster = new int[SIZE * SIZE];
+        long span = span(zoom);
+        double step = 1 << zoom;
+        double sx = x * span;
+        double sz = z * span;
+        BurstExecutor burst = MultiBurst.burst.burst(STRIPS);
+
+        for (int i = 0; i < STRIPS; i++) {
+            int from = i * (SIZE / STRIPS);
+            burst.queue(() -> renderer.render(raster, from, from + SIZE / STRIPS, sx, sz, step, SIZE, type));
+        }
+
+        burst.complete();
+        return raster;
+    }
+
+    /**
+     * Build a tile from the four tiles of the zoom level below it. With point sampling this
+     * gives exactly the pixels a render of the tile would, without sampling anything again.
+     *
+     * @param children the tiles (x, z), (x + 1, z), (x, z + 1), (x + 1, z + 1) of the level below
+     * @return the raster of the parent tile
+     */
+    public static int[] downsample(int[][] children) {
+        int[] raster = new int[SIZE * SIZE];
+        int half = SIZE / 2;
+
+        for (int c = 0; c < 4; c++) {
+            int[] child = children[c];
+            int ox = (c & 1) * half;
+            int oz = (c >> 1) * half;
+
+            for (int j = 0; j < half; j++) {
+                int o = (oz + j) * SIZE + ox;
+                int co = j * 2 * SIZE;
+
+                for (int i = 0; i < half; i++) {
+                    raster[o + i] = child[co + i * 2];
+                }
+            }
+        }
+
+        return raster;
+    }
+
+    public static BufferedImage toImage(int[] raster) {
+        return IrisRenderer.toImage(raster, SIZE, SIZE);
+    }
+
+    public static void write(int[] raster, File file) throws IOException {
+        file.getParentFile().mkdirs();
+        ImageIO.write(toImage(raster), "png", file);
+    }
+
+    private int[] load(Key key) {
+        int id = cacheId;
+        File file = file(key);
+        int[] raster = file == null ? null : read(file);
+
+        if (raster == null) {
+            raster = render(key.type(), key.zoom(), key.x(), key.z());
+
+            if (file != null) {
+                try {
+                    write(raster, file);
+                } catch (IOException e) {
+                    Iris.reportError(e);
+                }
+
+                if (writes.incrementAndGet() % 256 == 0) {
+                    J.a(this::prune);
+                }
+            }
+        }
+
+        // Tiles of an engine which hotloaded while they rendered are returned but not kept
+        if (id == cacheId) {
+            memory.put(key, raster);
+        }
+
+        return raster;
+    }
+
+    private File file(Key key) {
+        File f = versionFolder;
+        return f == null ? null : new File(f, key.type().name().toLowerCase() + "/" + key.zoom() + "/" + key.x() + "/" + key.z() + ".png");
+    }
+
+    private static int[] read(File file) {
+        if (!file.exists()) {
+            return null;
+        }
+
+        try {
+            BufferedImage image = ImageIO.read(file);
+
+            if (image == null || image.getWidth() != SIZE || image.getHeight() != SIZE) {
+                return null;
+            }
+
+            return image.getRGB(0, 0, SIZE, SIZE, null, 0, SIZE);
+        } catch (Throwable e) {
+            Iris.debug("Discarding map tile " + file.getPath() + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Delete tiles of older pack versions and the least recently written tiles above the disk budget
+     */
+    private synchronized void prune() {
+        File current = versionFolder;
+        File[] versions = folder.listFiles();
+
+        if (versions == null) {
+            return;
+        }
+
+        for (File i : versions) {
+            if (!i.equals(current)) {
+                IO.delete(i);
+            }
+        }
+
+        KList<File> files = new KList<>();
+        collect(current, files);
+        long size = 0;
+
+        for (File i : files) {
+            size += i.length();
+        }
+
+        if (size <= maxDiskSize) {
+            return;
+        }
+
+        files.sort(Comparator.comparingLong(File::lastModified));
+
+        for (File i : files) {
+            if (size <= maxDiskSize * 3 / 4) {
+                break;
+            }
+
+            size -= i.length();
+            i.delete();
+        }
+    }
+
+    private static void collect(File folder, KList<File> files) {
+        File[] list = folder.listFiles();
+
+        if (list == null) {
+            return;
+        }
+
+        for (File i : list) {
+            if (i.isDirectory()) {
+                collect(i, files);
+            } else {
+                files.add(i);
+            }
+        }
+    }
+
+    private record Key(RenderType type, int zoom, int x, int z) {
+    }
+}
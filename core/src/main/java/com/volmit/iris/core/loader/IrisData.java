@@ -81,6 +81,7 @@ public class IrisData implements ExclusionStrategy, TypeAdapterFactory {
     private ResourceLoader<IrisRavine> ravineLoader;
     private ResourceLoader<IrisMatterObject> matterObjectLoader;
     private KMap<String, KList<String>> possibleSnippets;
+    private PackIndex index;
     private Gson gson;
     private Gson snippetLoader;
     private GsonBuilder builder;
@@ -305,6 +306,9 @@ public class IrisData implements ExclusionStrategy, TypeAdapterFactory {
 
     public void close() {
         closed = true;
+        if (index != null) {
+            index.save();
+        }
         dump();
         dataLoaders.remove(dataFolder);
     }
@@ -379,6 +383,7 @@ public class IrisData implements ExclusionStrategy, TypeAdapterFactory {
         this.imageLoader = registerLoader(IrisImage.class);
         this.scriptLoader = registerLoader(IrisScript.class);
         this.matterObjectLoader = registerLoader(IrisMatterObject.class);
+        this.index = PackIndex.load(dataFolder, loaders.values().stream().map(ResourceLoader::getFolderName).distinct().toList());
         this.environment = PackEnvironment.create(this);
         builder.registerTypeAdapterFactory(KeyedType::createTypeAdapter);
 
@@ -21,7 +21,6 @@ package com.volmit.iris.core.loader;
 import com.volmit.iris.Iris;
 import com.volmit.iris.core.IrisSettings;
 import com.volmit.iris.engine.object.matter.IrisMatterObject;
-import com.volmit.iris.util.collection.KList;
 import com.volmit.iris.util.collection.KSet;
 import com.volmit.iris.util.data.KCache;
 import com.volmit.iris.util.scheduling.PrecisionStopwatch;
@@ -65,16 +64,6 @@ public class MatterObjectResourceLoader extends ResourceLoader<IrisMatterObject>
         }
     }
 
-    private void findMatFiles(File dir, KSet<String> m) {
-        for (File file : dir.listFiles()) {
-            if (file.isFile() && file.getName().endsWith(".mat")) {
-                m.add(file.getName().replaceAll("\\Q.mat\\E", ""));
-            } else if (file.isDirectory()) {
-                findMatFiles(file, m);
-            }
-        }
-    }
-
     public String[] getPossibleKeys() {
         if (possibleKeys != null) {
             return possibleKeys;
@@ -83,12 +72,11 @@ public class MatterObjectResourceLoader extends ResourceLoader<IrisMatterObject>
         Iris.debug("Building " + resourceTypeName + " Possibility Lists");
         KSet<String> m = new KSet<>();
 
-        for (File folder : getFolders()) {
-            findMatFiles(folder, m);
+        for (String i : getIndexedKeys(".mat")) {
+            m.add(i.substring(i.lastIndexOf('/') + 1));
         }
 
-        KList<String> v = new KList<>(m);
-        possibleKeys = v.toArray(new String[0]);
+        possibleKeys = m.toArray(new String[0]);
         return possibleKeys;
     }
 
@@ -127,23 +115,13 @@ public class MatterObjectResourceLoader extends ResourceLoader<IrisMatterObject>
 //    }
 
     public File findFile(String name) {
-        for (File i : getFolders(name)) {
-            for (File j : i.listFiles()) {
-                if (j.isFile() && j.getName().endsWith(".mat") && j.getName().split("\\Q.\\E")[0].equals(name)) {
-                    return j;
-                }
-            }
-
-            File file = new File(i, name + ".mat");
-
-            if (file.exists()) {
-                return file;
-            }
-        }
+        File file = resolveFile(name, ".mat");
 
-        Iris.warn("Couldn't find " + resourceTypeName + ": " + name);
+        if (file == null) {
+            Iris.warn("Couldn't find " + resourceTypeName + ": " + name);
+        }
 
-        return null;
+        return file;
     }
 
     public IrisMatterObject load(String name) {
@@ -151,23 +129,8 @@ public class MatterObjectResourceLoader extends ResourceLoader<IrisMatterObject>
     }
 
     private IrisMatterObject loadRaw(String name) {
-        for (File i : getFolders(name)) {
-            for (File j : i.listFiles()) {
-                if (j.isFile() && j.getName().endsWith(".mat") && j.getName().split("\\Q.\\E")[0].equals(name)) {
-                    return loadFile(j, name);
-                }
-            }
-
-            File file = new File(i, name + ".mat");
-
-            if (file.exists()) {
-                return loadFile(file, name);
-            }
-        }
-
-        Iris.warn("Couldn't find " + resourceTypeName + ": " + name);
-
-        return null;
+        File file = findFile(name);
+        return file == null ? null : loadFile(file, name);
     }
 
     public IrisMatterObject load(String name, boolean warn) {
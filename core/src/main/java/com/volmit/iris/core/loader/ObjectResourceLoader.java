@@ -21,8 +21,6 @@ package com.volmit.iris.core.loader;
 import com.volmit.iris.Iris;
 import com.volmit.iris.core.IrisSettings;
 import com.volmit.iris.engine.object.IrisObject;
-import com.volmit.iris.util.collection.KList;
-import com.volmit.iris.util.collection.KSet;
 import com.volmit.iris.util.data.KCache;
 import com.volmit.iris.util.scheduling.PrecisionStopwatch;
 
@@ -53,7 +51,7 @@ public class ObjectResourceLoader extends ResourceLoader<IrisObject> {
             t.setLoadKey(name);
             t.setLoader(manager);
             t.setLoadFile(j);
-            t.read(j);
+            t.read(j, true);
             logLoad(j, t);
             tlt.addAndGet(p.getMilliseconds());
             return t;
@@ -68,46 +66,20 @@ public class ObjectResourceLoader extends ResourceLoader<IrisObject> {
         if (possibleKeys != null) {
             return possibleKeys;
         }
+
         Iris.debug("Building " + resourceTypeName + " Possibility Lists");
-        KSet<String> m = new KSet<>();
-        for (File i : getFolders()) {
-            m.addAll(getFiles(i, ".iob", true));
-        }
-        possibleKeys = m.toArray(new String[0]);
+        possibleKeys = getIndexedKeys(".iob").toArray(new String[0]);
         return possibleKeys;
     }
 
-    private KList<String> getFiles(File dir, String ext, boolean skipDirName) {
-        KList<String> paths = new KList<>();
-        String name = skipDirName ? "" : dir.getName() + "/";
-        for (File f : dir.listFiles()) {
-            if (f.isFile() && f.getName().endsWith(ext)) {
-                paths.add(name + f.getName().replaceAll("\\Q" + ext + "\\E", ""));
-            } else if (f.isDirectory()) {
-                getFiles(f, ext, false).forEach(e -> paths.add(name + e));
-            }
-        }
-        return paths;
-    }
-
     public File findFile(String name) {
-        for (File i : getFolders(name)) {
-            for (File j : i.listFiles()) {
-                if (j.isFile() && j.getName().endsWith(".iob") && j.getName().split("\\Q.\\E")[0].equals(name)) {
-                    return j;
-                }
-            }
-
-            File file = new File(i, name + ".iob");
-
-            if (file.exists()) {
-                return file;
-            }
-        }
+        File file = resolveFile(name, ".iob");
 
-        Iris.warn("Couldn't find " + resourceTypeName + ": " + name);
+        if (file == null) {
+            Iris.warn("Couldn't find " + resourceTypeName + ": " + name);
+        }
 
-        return null;
+        return file;
     }
 
     public IrisObject load(String name) {
@@ -115,23 +87,8 @@ public class ObjectResourceLoader extends ResourceLoader<IrisObject> {
     }
 
     private IrisObject loadRaw(String name) {
-        for (File i : getFolders(name)) {
-            for (File j : i.listFiles()) {
-                if (j.isFile() && j.getName().endsWith(".iob") && j.getName().split("\\Q.\\E")[0].equals(name)) {
-                    return loadFile(j, name);
-                }
-            }
-
-            File file = new File(i, name + ".iob");
-
-            if (file.exists()) {
-                return loadFile(file, name);
-            }
-        }
-
-        Iris.warn("Couldn't find " + resourceTypeName + ": " + name);
-
-        return null;
+        File file = findFile(name);
+        return file == null ? null : loadFile(file, name);
     }
 
     public IrisObject load(String name, boolean warn) {
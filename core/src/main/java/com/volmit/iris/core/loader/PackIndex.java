@@ -0,0 +1,472 @@
+/*
+ * Iris is a World Generator for Minecraft Bukkit Servers
+ * Copyright (c) 2022 Arcane Arts (Volmit Software)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.volmit.iris.core.loader;
+
+import com.volmit.iris.Iris;
+import com.volmit.iris.util.collection.KList;
+import com.volmit.iris.util.collection.KMap;
+import com.volmit.iris.util.format.C;
+import com.volmit.iris.util.format.Form;
+import com.volmit.iris.util.io.CustomOutputStream;
+import com.volmit.iris.util.io.IO;
+import com.volmit.iris.util.io.VoidOutputStream;
+import com.volmit.iris.util.parallel.BurstExecutor;
+import com.volmit.iris.util.parallel.MultiBurst;
+import com.volmit.iris.util.scheduling.J;
+import com.volmit.iris.util.scheduling.PrecisionStopwatch;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Collection;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * An index of every file in the loader folders of a pack, keyed by its path relative to the pack.
+ * <p>
+ * The index is persisted in the .iris folder of the pack and revalidated on load. Folders whose
+ * modification time did not change are not listed again and files whose size and modification time
+ * did not change are not hashed again, so only the parts of a pack which were touched cost any I/O.
+ */
+public class PackIndex {
+    private static final int VERSION = 1;
+    private static final String FILE = ".iris/index.ipi";
+    private final File root;
+    private final KMap<String, Entry> entries;
+    private final KMap<String, Entry> aliases;
+    private final KMap<String, Directory> directories;
+    private final AtomicBoolean dirty;
+    private final AtomicBoolean saving;
+
+    private PackIndex(File root) {
+        this.root = root.getAbsoluteFile();
+        entries = new KMap<>();
+        aliases = new KMap<>();
+        directories = new KMap<>();
+        dirty = new AtomicBoolean(false);
+        saving = new AtomicBoolean(false);
+    }
+
+    /**
+     * Load the persisted index of a pack and revalidate it against the given loader folders
+     *
+     * @param root    the pack folder
+     * @param folders the loader folder names
+     * @return the index
+     */
+    public static PackIndex load(File root, Collection<String> folders) {
+        PrecisionStopwatch p = PrecisionStopwatch.start();
+        PackIndex index = new PackIndex(root);
+        KMap<String, Entry> known = new KMap<>();
+        KMap<String, Directory> knownDirectories = new KMap<>();
+        index.read(known, knownDirectories);
+
+        KList<String> stale = new KList<>();
+        for (String i : folders) {
+            index.walk(i, new File(index.root, i), known, knownDirectories, stale);
+        }
+
+        index.hash(stale);
+
+        if (known.size() != index.entries.size() || !stale.isEmpty()) {
+            index.dirty.set(true);
+        }
+
+        index.save();
+        Iris.debug("Indexed " + C.YELLOW + Form.f(index.entries.size()) + C.LIGHT_PURPLE + " files in " + C.GRAY + root.getPath() + C.LIGHT_PURPLE + " (" + Form.f(stale.size()) + " changed) in " + C.RED + Form.duration(p.getMilliseconds(), 2));
+        return index;
+    }
+
+    /**
+     * Resolve a key of a loader folder to its file. Not every file type is watched for changes,
+     * so files which were deleted since they were indexed are dropped here
+     *
+     * @param folder    the loader folder name
+     * @param key       the load key
+     * @param extension the file extension including the dot
+     * @return the file or null if it is not indexed
+     */
+    public File resolve(String folder, String key, String extension) {
+        String path = folder + "/" + key + extension;
+        Entry e = entries.get(path);
+
+        if (e == null) {
+            e = aliases.get(path);
+        }
+
+        if (e == null) {
+            return null;
+        }
+
+        File file = new File(root, e.path());
+
+        if (!file.isFile()) {
+            if (remove(e.path())) {
+                changed();
+            }
+
+            return null;
+        }
+
+        return file;
+    }
+
+    /**
+     * Get the entry of a file
+     *
+     * @param file the file
+     * @return the entry or null if it is not indexed
+     */
+    public Entry get(File file) {
+        String path = relativize(file);
+        return path == null ? null : entries.get(path);
+    }
+
+    /**
+     * List the keys of all indexed files with an extension in a loader folder
+     *
+     * @param folder    the loader folder name
+     * @param extension the file extension including the dot
+     * @return the keys relative to the loader folder without the extension
+     */
+    public KList<String> keys(String folder, String extension) {
+        String prefix = folder + "/";
+        KList<String> keys = new KList<>();
+
+        for (String i : entries.keySet()) {
+            if (i.startsWith(prefix) && i.endsWith(extension)) {
+                keys.add(i.substring(prefix.length(), i.length() - extension.length()));
+            }
+        }
+
+        return keys;
+    }
+
+    /**
+     * Combine the paths and hashes of every indexed file, the result changes whenever any content of the pack does
+     *
+     * @return the fingerprint of the pack
+     */
+    public long fingerprint() {
+        long f = 0;
+
+        for (Entry i : entries.values()) {
+            f += (i.path().hashCode() * 0x9E3779B97F4A7C15L) ^ i.hash();
+        }
+
+        return f;
+    }
+
+    /**
+     * Update the index for files which were created, changed or deleted since it was built
+     *
+     * @param files the files
+     * @return true if the content of any file changed, files which were only touched are ignored
+     */
+    public boolean invalidate(KList<File> files) {
+        boolean changed = false;
+        boolean touched = false;
+        KList<String> stale = new KList<>();
+
+        for (File i : files) {
+            String path = relativize(i);
+
+            if (path == null || path.startsWith(".iris")) {
+                continue;
+            }
+
+            int parent = path.lastIndexOf('/');
+            if (parent > 0) {
+                directories.remove(path.substring(0, parent));
+            }
+
+            if (i.isDirectory()) {
+                directories.remove(path);
+                walk(path, i, entries, directories, stale);
+                changed = true;
+                touched = true;
+            } else if (i.isFile()) {
+                Entry e = entries.get(path);
+                Entry u = new Entry(path, i.length(), i.lastModified(), hash(i));
+                put(u);
+                changed |= e == null || e.hash() != u.hash() || e.size() != u.size();
+                touched |= !u.equals(e);
+            } else if (remove(path)) {
+                changed = true;
+                touched = true;
+            }
+        }
+
+        hash(stale);
+
+        if (touched) {
+            changed();
+        }
+
+        return changed;
+    }
+
+    /**
+     * Mark the index as changed and save it a few seconds later, changes made meanwhile are saved together
+     */
+    private void changed() {
+        dirty.set(true);
+
+        if (saving.compareAndSet(false, true)) {
+            J.a(() -> {
+                saving.set(false);
+                save();
+            }, 100);
+        }
+    }
+
+    /**
+     * Record a file which exists but was not indexed yet
+     *
+     * @param file the file
+     */
+    public void update(File file) {
+        invalidate(new KList<>(file));
+    }
+
+    private void walk(String path, File dir, KMap<String, Entry> known, KMap<String, Directory> knownDirectories, KList<String> stale) {
+        long modified = dir.lastModified();
+
+        if (modified == 0) {
+            return;
+        }
+
+        Directory d = knownDirectories.get(path);
+
+        if (d == null || d.modified() != modified) {
+            File[] list = dir.listFiles();
+
+            if (list == null) {
+                return;
+            }
+
+            KList<String> files = new KList<>();
+            KList<String> folders = new KList<>();
+
+            for (File i : list) {
+                (i.isDirectory() ? folders : files).add(i.getName());
+            }
+
+            d = new Directory(modified, files.toArray(new String[0]), folders.toArray(new String[0]));
+            dirty.set(true);
+        }
+
+        directories.put(path, d);
+
+        for (String i : d.folders()) {
+            walk(path + "/" + i, new File(dir, i), known, knownDirectories, stale);
+        }
+
+        for (String i : d.files()) {
+            String file = path + "/" + i;
+            Entry e = known.get(file);
+            File f = new File(dir, i);
+
+            if (e != null && e.size() == f.length() && e.modified() == f.lastModified()) {
+                put(e);
+            } else {
+                stale.add(file);
+            }
+        }
+    }
+
+    private void hash(KList<String> stale) {
+        if (stale.isEmpty()) {
+            return;
+        }
+
+        BurstExecutor burst = MultiBurst.ioBurst.burst(stale.size());
+
+        for (String i : stale) {
+            burst.queue(() -> {
+                File f = new File(root, i);
+                put(new Entry(i, f.length(), f.lastModified(), hash(f)));
+            });
+        }
+
+        burst.complete();
+    }
+
+    private void put(Entry e) {
+        entries.put(e.path(), e);
+        String path = e.path();
+        int folder = path.indexOf('/');
+        String name = path.substring(folder + 1);
+        int first = name.indexOf('.');
+        int last = name.lastIndexOf('.');
+
+        // Loaders also match files at the top of their folder by the part of the name before the first dot
+        if (folder > 0 && name.indexOf('/') == -1 && first != last) {
+            aliases.putIfAbsent(path.substring(0, folder + 1) + name.substring(0, first) + name.substring(last), e);
+        }
+    }
+
+    private boolean remove(String path) {
+        boolean removed = entries.remove(path) != null;
+        String prefix = path + "/";
+
+        for (String i : entries.k()) {
+            if (i.startsWith(prefix)) {
+                entries.remove(i);
+                removed = true;
+            }
+        }
+
+        aliases.values().removeIf(e -> !entries.containsKey(e.path()));
+        directories.remove(path);
+        return removed;
+    }
+
+    private String relativize(File file) {
+        File f = file.getAbsoluteFile();
+
+        if (!f.toPath().startsWith(root.toPath())) {
+            return null;
+        }
+
+        return root.toPath().relativize(f.toPath()).toString().replace(File.separatorChar, '/');
+    }
+
+    private static long hash(File file) {
+        CRC32 crc = new CRC32();
+
+        try (CheckedInputStream in = new CheckedInputStream(new FileInputStream(file), crc)) {
+            IO.fullTransfer(in, new VoidOutputStream(), 8192);
+        } catch (IOException e) {
+            Iris.reportError(e);
+            return 0;
+        }
+
+        return crc.getValue();
+    }
+
+    private void read(KMap<String, Entry> known, KMap<String, Directory> knownDirectories) {
+        File file = new File(root, FILE);
+
+        if (!file.exists()) {
+            return;
+        }
+
+        try (DataInputStream din = new DataInputStream(new GZIPInputStream(new BufferedInputStream(new FileInputStream(file))))) {
+            if (din.readInt() != VERSION) {
+                return;
+            }
+
+            int m = din.readInt();
+            for (int i = 0; i < m; i++) {
+                Entry e = new Entry(din.readUTF(), din.readLong(), din.readLong(), din.readLong());
+                known.put(e.path(), e);
+            }
+
+            m = din.readInt();
+            for (int i = 0; i < m; i++) {
+                String path = din.readUTF();
+                long modified = din.readLong();
+                String[] files = new String[din.readInt()];
+                for (int j = 0; j < files.length; j++) {
+                    files[j] = din.readUTF();
+                }
+
+                String[] folders = new String[din.readInt()];
+                for (int j = 0; j < folders.length; j++) {
+                    folders[j] = din.readUTF();
+                }
+
+                knownDirectories.put(path, new Directory(modified, files, folders));
+            }
+        } catch (Throwable e) {
+            Iris.debug("Discarding pack index " + file.getPath() + ": " + e.getMessage());
+            known.clear();
+            knownDirectories.clear();
+        }
+    }
+
+    /**
+     * Persist the index if it changed since it was last saved
+     */
+    public synchronized void save() {
+        if (!dirty.getAndSet(false)) {
+            return;
+        }
+
+        File file = new File(root, FILE);
+        File temp = new File(root, FILE + ".tmp");
+
+        try {
+            temp.getParentFile().mkdirs();
+
+            try (DataOutputStream dos = new DataOutputStream(new BufferedOutputStream(new CustomOutputStream(new FileOutputStream(temp), 6)))) {
+                KMap<String, Entry> e = entries.copy();
+                KMap<String, Directory> d = directories.copy();
+                dos.writeInt(VERSION);
+                dos.writeInt(e.size());
+
+                for (Entry i : e.values()) {
+                    dos.writeUTF(i.path());
+                    dos.writeLong(i.size());
+                    dos.writeLong(i.modified());
+                    dos.writeLong(i.hash());
+                }
+
+                dos.writeInt(d.size());
+
+                for (var i : d.entrySet()) {
+                    dos.writeUTF(i.getKey());
+                    dos.writeLong(i.getValue().modified());
+                    dos.writeInt(i.getValue().files().length);
+                    for (String j : i.getValue().files()) {
+                        dos.writeUTF(j);
+                    }
+
+                    dos.writeInt(i.getValue().folders().length);
+                    for (String j : i.getValue().folders()) {
+                        dos.writeUTF(j);
+                    }
+                }
+            }
+
+            Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        } catch (Throwable e) {
+            Iris.reportError(e);
+            Iris.warn("Failed to save pack index " + file.getPath() + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * An indexed file
+     *
+     * @param path     the path relative to the pack
+     * @param size     the size in bytes
+     * @param modified the modification time
+     * @param hash     the crc32 of the content
+     */
+    public record Entry(String path, long size, long modified, long hash) {
+    }
+
+    private record Directory(long modified, String[] files, String[] folders) {
+    }
+}
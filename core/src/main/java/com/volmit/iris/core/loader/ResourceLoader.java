@@ -46,11 +46,9 @@ import lombok.ToString;
 
 import java.io.*;
 import java.util.Arrays;
-import java.util.HashSet;
 import java.util.Locale;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Consumer;
-import java.util.function.Predicate;
 import java.util.stream.Stream;
 import java.util.zip.GZIPInputStream;
 import java.util.zip.GZIPOutputStream;
@@ -108,25 +106,62 @@ public class ResourceLoader<T extends IrisRegistrant> implements MeteredCache {
     }
 
     public File findFile(String name) {
+        File file = resolveFile(name, ".json");
+
+        if (file == null) {
+            Iris.warn("Couldn't find " + resourceTypeName + ": " + name);
+        }
+
+        return file;
+    }
+
+    /**
+     * Resolve a key to its file through the pack index. Files which were created without
+     * the index noticing are still found if they exist and are added to the index.
+     *
+     * @param name      the load key
+     * @param extension the file extension including the dot
+     * @return the file or null
+     */
+    protected File resolveFile(String name, String extension) {
+        PackIndex index = manager.getIndex();
+        File file = index == null ? null : index.resolve(folderName, name, extension);
+
+        if (file != null) {
+            return file;
+        }
+
         for (File i : getFolders(name)) {
-            for (File j : i.listFiles()) {
-                if (j.isFile() && j.getName().endsWith(".json") && j.getName().split("\\Q.\\E")[0].equals(name)) {
-                    return j;
-                }
-            }
+            file = new File(i, name + extension);
 
-            File file = new File(i, name + ".json");
+            if (file.isFile()) {
+                if (index != null) {
+                    index.update(file);
+                }
 
-            if (file.exists()) {
                 return file;
             }
         }
 
-        Iris.warn("Couldn't find " + resourceTypeName + ": " + name);
-
         return null;
     }
 
+    /**
+     * List the keys of all files with an extension in this loaders folder
+     *
+     * @param extension the file extension including the dot
+     * @return the keys
+     */
+    protected KList<String> getIndexedKeys(String extension) {
+        PackIndex index = manager.getIndex();
+
+        if (index == null) {
+            return new KList<>();
+        }
+
+        return index.keys(folderName, extension);
+    }
+
     public void logLoad(File path, T t) {
         loads.getAndIncrement();
 
@@ -148,45 +183,12 @@ public class ResourceLoader<T extends IrisRegistrant> implements MeteredCache {
         J.a(() -> Iris.warn("Couldn't Load " + resourceTypeName + " file: " + path.getPath() + ": " + e.getMessage()));
     }
 
-    private KList<File> matchAllFiles(File root, Predicate<File> f) {
-        KList<File> fx = new KList<>();
-        matchFiles(root, fx, f);
-        return fx;
-    }
-
-    private void matchFiles(File at, KList<File> files, Predicate<File> f) {
-        if (at.isDirectory()) {
-            for (File i : at.listFiles()) {
-                matchFiles(i, files, f);
-            }
-        } else {
-            if (f.test(at)) {
-                files.add(at);
-            }
-        }
-    }
-
     public String[] getPossibleKeys() {
         if (possibleKeys != null) {
             return possibleKeys;
         }
 
-        KList<File> files = getFolders();
-
-        if (files == null) {
-            possibleKeys = new String[0];
-            return possibleKeys;
-        }
-
-        HashSet<String> m = new HashSet<>();
-        for (File i : files) {
-            for (File j : matchAllFiles(i, (f) -> f.getName().endsWith(".json"))) {
-                m.add(i.toURI().relativize(j.toURI()).getPath().replaceAll("\\Q.json\\E", ""));
-            }
-        }
-
-        KList<String> v = new KList<>(m);
-        possibleKeys = v.toArray(new String[0]);
+        possibleKeys = getIndexedKeys(".json").toArray(new String[0]);
         return possibleKeys;
     }
 
@@ -293,22 +295,8 @@ public class ResourceLoader<T extends IrisRegistrant> implements MeteredCache {
     }
 
     private T loadRaw(String name) {
-        for (File i : getFolders(name)) {
-            //noinspection ConstantConditions
-            for (File j : i.listFiles()) {
-                if (j.isFile() && j.getName().endsWith(".json") && j.getName().split("\\Q.\\E")[0].equals(name)) {
-                    return loadFile(j, name);
-                }
-            }
-
-            File file = new File(i, name + ".json");
-
-            if (file.exists()) {
-                return loadFile(file, name);
-            }
-        }
-
-        return null;
+        File file = resolveFile(name, ".json");
+        return file == null ? null : loadFile(file, name);
     }
 
     public T load(String name, boolean warn) {
@@ -411,21 +399,7 @@ public class ResourceLoader<T extends IrisRegistrant> implements MeteredCache {
     }
 
     public File fileFor(T b) {
-        for (File i : getFolders()) {
-            for (File j : i.listFiles()) {
-                if (j.isFile() && j.getName().endsWith(".json") && j.getName().split("\\Q.\\E")[0].equals(b.getLoadKey())) {
-                    return j;
-                }
-            }
-
-            File file = new File(i, b.getLoadKey() + ".json");
-
-            if (file.exists()) {
-                return file;
-            }
-        }
-
-        return null;
+        return resolveFile(b.getLoadKey(), ".json");
     }
 
     public boolean isLoaded(String next) {
@@ -21,13 +21,12 @@ package com.volmit.iris.core.loader;
 import com.volmit.iris.Iris;
 import com.volmit.iris.core.IrisSettings;
 import com.volmit.iris.engine.object.IrisScript;
+import com.volmit.iris.util.collection.KSet;
 import com.volmit.iris.util.data.KCache;
 import com.volmit.iris.util.io.IO;
 import com.volmit.iris.util.scheduling.PrecisionStopwatch;
 
 import java.io.File;
-import java.util.HashSet;
-import java.util.Set;
 
 public class ScriptResourceLoader extends ResourceLoader<IrisScript> {
     public ScriptResourceLoader(File root, IrisData idm, String folderName, String resourceTypeName) {
@@ -67,30 +66,16 @@ public class ScriptResourceLoader extends ResourceLoader<IrisScript> {
         }
 
         Iris.debug("Building " + resourceTypeName + " Possibility Lists");
-        Set<String> keys = new HashSet<>();
+        KSet<String> m = new KSet<>();
 
-        for (File i : getFolders()) {
-            if (i.isDirectory()) {
-                keys.addAll(getKeysInDirectory(i));
-            }
+        for (String i : getIndexedKeys(".kts")) {
+            m.add(i.substring(i.lastIndexOf('/') + 1));
         }
 
-        possibleKeys = keys.toArray(new String[0]);
+        possibleKeys = m.toArray(new String[0]);
         return possibleKeys;
     }
 
-    private Set<String> getKeysInDirectory(File directory) {
-        Set<String> keys = new HashSet<>();
-        for (File file : directory.listFiles()) {
-            if (file.isFile() && file.getName().endsWith(".kts")) {
-                keys.add(file.getName().replaceAll("\\Q.kts\\E", ""));
-            } else if (file.isDirectory()) {
-                keys.addAll(getKeysInDirectory(file));
-            }
-        }
-        return keys;
-    }
-
 //    public String[] getPossibleKeys() {
 //        if (possibleKeys != null) {
 //            return possibleKeys;
@@ -125,43 +110,18 @@ public class ScriptResourceLoader extends ResourceLoader<IrisScript> {
 //    }
 
     public File findFile(String name) {
-        for (File i : getFolders(name)) {
-            for (File j : i.listFiles()) {
-                if (j.isFile() && j.getName().endsWith(".kts") && j.getName().split("\\Q.\\E")[0].equals(name)) {
-                    return j;
-                }
-            }
-
-            File file = new File(i, name + ".kts");
-
-            if (file.exists()) {
-                return file;
-            }
-        }
+        File file = resolveFile(name, ".kts");
 
-        Iris.warn("Couldn't find " + resourceTypeName + ": " + name);
+        if (file == null) {
+            Iris.warn("Couldn't find " + resourceTypeName + ": " + name);
+        }
 
-        return null;
+        return file;
     }
 
     private IrisScript loadRaw(String name) {
-        for (File i : getFolders(name)) {
-            for (File j : i.listFiles()) {
-                if (j.isFile() && j.getName().endsWith(".kts") && j.getName().split("\\Q.\\E")[0].equals(name)) {
-                    return loadFile(j, name);
-                }
-            }
-
-            File file = new File(i, name + ".kts");
-
-            if (file.exists()) {
-                return loadFile(file, name);
-            }
-        }
-
-        Iris.warn("Couldn't find " + resourceTypeName + ": " + name);
-
-        return null;
+        File file = findFile(name);
+        return file == null ? null : loadFile(file, name);
     }
 
     public IrisScript load(String name, boolean warn) {
@@ -27,6 +27,7 @@ import com.volmit.iris.engine.framework.Engine;
 import com.volmit.iris.engine.platform.PlatformChunkGenerator;
 import com.volmit.iris.util.collection.KList;
 import com.volmit.iris.util.collection.KMap;
+import com.volmit.iris.util.data.palette.PalettedContainer;
 import com.volmit.iris.util.mantle.Mantle;
 import com.volmit.iris.util.math.Vector3d;
 import com.volmit.iris.util.nbt.mca.palette.MCABiomeContainer;
@@ -34,6 +35,7 @@ import com.volmit.iris.util.nbt.mca.palette.MCAPaletteAccess;
 import com.volmit.iris.util.nbt.tag.CompoundTag;
 import org.bukkit.*;
 import org.bukkit.block.Biome;
+import org.bukkit.block.data.BlockData;
 import org.bukkit.entity.Entity;
 import org.bukkit.entity.EntityType;
 import org.bukkit.event.entity.CreatureSpawnEvent;
@@ -103,6 +105,18 @@ public interface INMSBinding {
 
     void forceBiomeInto(int x, int y, int z, Object somethingVeryDirty, ChunkGenerator.BiomeGrid chunk);
 
+    /**
+     * Copy a whole 16x16x16 section of staged blocks straight into the section storage of the chunk
+     *
+     * @param chunk  the chunk data passed to the generator
+     * @param y      the lowest block y of the section
+     * @param blocks the staged blocks, null entries are left untouched
+     * @return false if the chunk data can't be written directly and the blocks have to be set one by one
+     */
+    default boolean setSection(ChunkGenerator.ChunkData chunk, int y, PalettedContainer<BlockData> blocks) {
+        return false;
+    }
+
     default boolean supportsDataPacks() {
         return false;
     }
@@ -198,7 +198,7 @@ public class IrisPregenerator {
         listener.onClose();
         Mantle mantle = getMantle();
         if (mantle != null) {
-            mantle.trim(0, 0);
+            mantle.trim(0);
         }
     }
 
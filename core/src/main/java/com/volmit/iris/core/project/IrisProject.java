@@ -589,9 +589,9 @@ public class IrisProject {
             public void execute(File f) {
                 try {
                     IrisObject o = new IrisObject(0, 0, 0);
-                    o.read(f);
+                    o.read(f, true);
 
-                    if (o.getBlocks().isEmpty()) {
+                    if (o.getBlockCount() == 0) {
                         sender.sendMessageRaw("<hover:show_text:'Error:\n" +
                                 "<yellow>" + f.getPath() +
                                 "'><red>- IOB " + f.getName() + " has 0 blocks!");
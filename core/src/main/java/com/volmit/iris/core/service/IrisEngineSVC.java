@@ -7,9 +7,11 @@ import com.volmit.iris.core.loader.ResourceLoader;
 import com.volmit.iris.core.tools.IrisToolbelt;
 import com.volmit.iris.engine.framework.Engine;
 import com.volmit.iris.engine.platform.PlatformChunkGenerator;
+import com.volmit.iris.util.collection.KList;
 import com.volmit.iris.util.collection.KMap;
 import com.volmit.iris.util.format.C;
 import com.volmit.iris.util.format.Form;
+import com.volmit.iris.util.mantle.Mantle;
 import com.volmit.iris.util.math.RNG;
 import com.volmit.iris.util.plugin.IrisService;
 import com.volmit.iris.util.plugin.VolmitSender;
@@ -24,6 +26,7 @@ import org.bukkit.event.world.WorldLoadEvent;
 import org.bukkit.event.world.WorldUnloadEvent;
 import org.jetbrains.annotations.Nullable;
 
+import java.util.Comparator;
 import java.util.concurrent.*;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
@@ -38,7 +41,11 @@ public class IrisEngineSVC implements IrisService {
     private final AtomicInteger totalWorlds = new AtomicInteger();
     private final AtomicDouble maxIdleDuration = new AtomicDouble();
     private final AtomicDouble minIdleDuration = new AtomicDouble();
+    private final AtomicDouble checkpointDuration = new AtomicDouble(-1);
+    private final AtomicInteger checkpointChunks = new AtomicInteger();
     private final AtomicLong loadedChunks = new AtomicLong();
+    private final AtomicLong mantleMemory = new AtomicLong();
+    private final AtomicLong lockContention = new AtomicLong();
     private final KMap<World, Registered> worlds = new KMap<>();
     private ScheduledExecutorService service;
     private Looper updateTicker;
@@ -95,6 +102,18 @@ public class IrisEngineSVC implements IrisService {
         sender.sendMessage(C.DARK_PURPLE + "- Queued: " + C.LIGHT_PURPLE + queuedTectonicPlates.get());
         sender.sendMessage(C.DARK_PURPLE + "- Max Idle Duration: " + C.LIGHT_PURPLE + Form.duration(maxIdleDuration.get(), 2));
         sender.sendMessage(C.DARK_PURPLE + "- Min Idle Duration: " + C.LIGHT_PURPLE + Form.duration(minIdleDuration.get(), 2));
+        sender.sendMessage(C.DARK_PURPLE + "- Lock Contention: " + C.LIGHT_PURPLE + lockContention.get());
+        sender.sendMessage(C.DARK_PURPLE + "Mantle Memory:");
+        sender.sendMessage(C.DARK_PURPLE + "- Budget: " + C.LIGHT_PURPLE + Form.memSize(IrisSettings.get().getPerformance().getMantleMemoryBudget(), 2));
+        sender.sendMessage(C.DARK_PURPLE + "- Used: " + C.LIGHT_PURPLE + Form.memSize(mantleMemory.get(), 2));
+        for (var registered : worlds.values()) {
+            if (registered.closed) continue;
+            sender.sendMessage(C.DARK_PURPLE + "- " + registered.name + ": " + C.LIGHT_PURPLE + Form.memSize(registered.memory, 2) + " (" + registered.plates + " plates, " + registered.contention + " contended)");
+        }
+        sender.sendMessage(C.DARK_PURPLE + "Checkpoints:");
+        sender.sendMessage(C.DARK_PURPLE + "- Interval: " + C.LIGHT_PURPLE + (checkpointInterval() > 0 ? Form.duration(checkpointInterval(), 0) : "Disabled"));
+        sender.sendMessage(C.DARK_PURPLE + "- Last Duration: " + C.LIGHT_PURPLE + (checkpointDuration.get() >= 0 ? Form.duration(checkpointDuration.get(), 2) : "Never"));
+        sender.sendMessage(C.DARK_PURPLE + "- Last Chunks: " + C.LIGHT_PURPLE + checkpointChunks.get());
         sender.sendMessage(C.DARK_PURPLE + "Caches:");
         sender.sendMessage(C.DARK_PURPLE + "- Resource: " + C.LIGHT_PURPLE + sizes[0] + " (" + count[0] + ")");
         sender.sendMessage(C.DARK_PURPLE + "- 2D Stream: " + C.LIGHT_PURPLE + sizes[1] + " (" + count[1] + ")");
@@ -106,6 +125,36 @@ public class IrisEngineSVC implements IrisService {
         sender.sendMessage(C.DARK_PURPLE + "-------------------------");
     }
 
+    /**
+     * Evict the least recently used plates of all worlds until the
+     * mantle is back within the memory budget shared by all worlds
+     *
+     * @param usage the plates that may be evicted
+     * @param total the total size of all loaded plates
+     */
+    private static void evict(KList<Mantle.PlateUsage> usage, long total) {
+        long excess = total - IrisSettings.get().getPerformance().getMantleMemoryBudget();
+        if (excess <= 0) return;
+
+        for (var plate : usage) {
+            if (plate.evicting()) excess -= plate.size();
+        }
+
+        usage.sort(Comparator.comparingLong(Mantle.PlateUsage::lastUse)
+                .thenComparing(Comparator.comparingLong(Mantle.PlateUsage::size).reversed()));
+        for (var plate : usage) {
+            if (excess <= 0) break;
+            if (plate.evicting()) continue;
+
+            plate.mantle().evict(plate.key());
+            excess -= plate.size();
+        }
+    }
+
+    private static long checkpointInterval() {
+        return TimeUnit.SECONDS.toMillis(IrisSettings.get().getPerformance().getEngineSVC().getCheckpointInterval());
+    }
+
     @EventHandler
     public void onWorldUnload(WorldUnloadEvent event) {
         remove(event.getWorld());
@@ -145,6 +194,11 @@ public class IrisEngineSVC implements IrisService {
 
                     double maxDuration = Long.MIN_VALUE;
                     double minDuration = Long.MAX_VALUE;
+                    double checkpoint = -1;
+                    int checkpointed = 0;
+                    long memory = 0;
+                    long contention = 0;
+                    KList<Mantle.PlateUsage> usage = new KList<>();
                     for (var entry : worlds.entrySet()) {
                         var registered = entry.getValue();
                         if (registered.closed) continue;
@@ -163,6 +217,24 @@ public class IrisEngineSVC implements IrisService {
                         double duration = engine.getMantle().getAdjustedIdleDuration();
                         if (duration > maxDuration) maxDuration = duration;
                         if (duration < minDuration) minDuration = duration;
+
+                        var mantle = engine.getMantle().getMantle();
+                        checkpoint = Math.max(checkpoint, mantle.getLastCheckpointDuration());
+                        checkpointed += mantle.getLastCheckpointChunks();
+
+                        var plates = mantle.getPlateUsage();
+                        long size = 0;
+                        for (var plate : plates) {
+                            size += plate.size();
+                        }
+                        registered.memory = size;
+                        registered.plates = plates.size();
+                        registered.contention = mantle.getLockContention();
+                        memory += size;
+                        contention += registered.contention;
+                        if (mantle.shouldReduce(engine)) {
+                            usage.addAll(plates);
+                        }
                     }
 
                     trimmerAlive.set(trimmers);
@@ -171,6 +243,11 @@ public class IrisEngineSVC implements IrisService {
                     queuedTectonicPlates.set(queuedPlates);
                     maxIdleDuration.set(maxDuration);
                     minIdleDuration.set(minDuration);
+                    checkpointDuration.set(checkpoint);
+                    checkpointChunks.set(checkpointed);
+                    mantleMemory.set(memory);
+                    lockContention.set(contention);
+                    evict(usage, memory);
                     loadedChunks.set(chunks);
                     totalWorlds.set(iris);
 
@@ -190,7 +267,11 @@ public class IrisEngineSVC implements IrisService {
         private final int offset = RNG.r.nextInt(TRIM_PERIOD);
         private transient ScheduledFuture<?> trimmer;
         private transient ScheduledFuture<?> unloader;
+        private transient ScheduledFuture<?> checkpointer;
         private transient boolean closed;
+        private transient long memory;
+        private transient int plates;
+        private transient long contention;
 
         private Registered(String name, PlatformChunkGenerator access) {
             this.name = name;
@@ -206,6 +287,10 @@ public class IrisEngineSVC implements IrisService {
             return trimmer != null && !trimmer.isDone() && !trimmer.isCancelled();
         }
 
+        private boolean checkpointerAlive() {
+            return checkpointer != null && !checkpointer.isDone() && !checkpointer.isCancelled();
+        }
+
         @Synchronized
         private void update() {
             if (closed || service == null || service.isShutdown())
@@ -218,7 +303,7 @@ public class IrisEngineSVC implements IrisService {
                         return;
 
                     try {
-                        engine.getMantle().trim(tectonicLimit());
+                        engine.getMantle().trim();
                     } catch (Throwable e) {
                         Iris.reportError(e);
                         Iris.error("EngineSVC: Failed to trim for " + name);
@@ -246,6 +331,23 @@ public class IrisEngineSVC implements IrisService {
                     }
                 }, offset + TRIM_PERIOD / 2, TRIM_PERIOD, TimeUnit.MILLISECONDS);
             }
+
+            long interval = checkpointInterval();
+            if (interval > 0 && !checkpointerAlive()) {
+                checkpointer = service.scheduleAtFixedRate(() -> {
+                    Engine engine = getEngine();
+                    if (engine == null || engine.isClosed())
+                        return;
+
+                    try {
+                        engine.getMantle().saveAllNow();
+                    } catch (Throwable e) {
+                        Iris.reportError(e);
+                        Iris.error("EngineSVC: Failed to checkpoint for " + name);
+                        e.printStackTrace();
+                    }
+                }, interval + offset, interval, TimeUnit.MILLISECONDS);
+            }
         }
 
         private int tectonicLimit() {
@@ -266,6 +368,11 @@ public class IrisEngineSVC implements IrisService {
                 unloader.cancel(false);
                 unloader = null;
             }
+
+            if (checkpointer != null) {
+                checkpointer.cancel(false);
+                checkpointer = null;
+            }
         }
 
         @Nullable
@@ -79,12 +79,11 @@ public class IrisPackBenchmarking {
                 writer.write("Dimension: " + dimension.getName() + "\n");
                 writer.write("- Date of Benchmark: " + LocalDateTime.now(Clock.systemDefaultZone()) + "\n");
                 writer.write("\n");
-                writer.write("Metrics");
-                for (String m : metrics.k()) {
-                    double i = metrics.get(m);
-                    writer.write("- " + m + ": " + i);
+                writer.write("Metrics (average ms per chunk):\n");
+                for (String m : metrics.k().sort()) {
+                    writer.write("- " + m + ": " + Form.f(metrics.get(m), 3) + "\n");
                 }
-                writer.write("- " + metrics);
+                writer.write("\n");
                 writer.write("Benchmark: " + LocalDateTime.now(Clock.systemDefaultZone()) + "\n");
                 writer.write("- Total time: " + time + "\n");
                 writer.write("- Average CPS: " + calculateAverage(cps) + "\n");
@@ -19,30 +19,142 @@
 package com.volmit.iris.engine;
 
 import com.volmit.iris.Iris;
-import com.volmit.iris.util.collection.KMap;
 
+import java.util.Arrays;
+
+/**
+ * Breadcrumbs of what the current thread was doing, printed when something goes wrong.
+ * <p>
+ * Every thread keeps the latest value of each key in its own table, so outer context like the plate
+ * being read is never pushed out by the entries of its inner loops. Values are only formatted when the
+ * breadcrumbs are printed, so adding one in a hot path costs a short key scan and a few array stores.
+ */
 public class EnginePanic {
-    private static final KMap<String, String> stuff = new KMap<>();
-    private static KMap<String, String> last = new KMap<>();
+    private static final ThreadLocal<Breadcrumbs> breadcrumbs = ThreadLocal.withInitial(Breadcrumbs::new);
 
     public static void add(String key, String value) {
-        stuff.put(key, value);
+        breadcrumbs.get().current.add(key, null, value, 0, 0, 0);
+    }
+
+    public static void add(String key, Object value) {
+        breadcrumbs.get().current.add(key, null, value, 0, 0, 0);
+    }
+
+    public static void add(String key, String format, long a) {
+        breadcrumbs.get().current.add(key, format, null, a, 0, 0);
+    }
+
+    public static void add(String key, String format, long a, long b) {
+        breadcrumbs.get().current.add(key, format, null, a, b, 0);
     }
 
+    public static void add(String key, String format, long a, long b, long c) {
+        breadcrumbs.get().current.add(key, format, null, a, b, c);
+    }
+
+    /**
+     * Remember everything recorded so far on this thread as the last state which was known to be good
+     */
     public static void saveLast() {
-        last = stuff.copy();
+        Breadcrumbs b = breadcrumbs.get();
+        b.last.copyFrom(b.current);
     }
 
     public static void lastPanic() {
-        for (String i : last.keySet()) {
-            Iris.error("Last Panic " + i + ": " + stuff.get(i));
-        }
+        breadcrumbs.get().last.print("Last Panic");
     }
 
     public static void panic() {
-        lastPanic();
-        for (String i : stuff.keySet()) {
-            Iris.error("Engine Panic " + i + ": " + stuff.get(i));
+        Breadcrumbs b = breadcrumbs.get();
+        b.last.print("Last Panic");
+        b.current.print("Engine Panic");
+    }
+
+    private static class Breadcrumbs {
+        private final Slots current = new Slots();
+        private final Slots last = new Slots();
+    }
+
+    private static class Slots {
+        private String[] keys = new String[32];
+        private String[] formats = new String[32];
+        private Object[] values = new Object[32];
+        private long[] a = new long[32];
+        private long[] b = new long[32];
+        private long[] c = new long[32];
+        private int size;
+
+        private void add(String key, String format, Object value, long a, long b, long c) {
+            int i = indexOf(key);
+
+            if (i == -1) {
+                if (size == keys.length) {
+                    grow(size * 2);
+                }
+
+                i = size++;
+                keys[i] = key;
+            }
+
+            formats[i] = format;
+            values[i] = value;
+            this.a[i] = a;
+            this.b[i] = b;
+            this.c[i] = c;
+        }
+
+        private int indexOf(String key) {
+            // Keys are almost always literals, so the identity check nearly always decides
+            for (int i = 0; i < size; i++) {
+                if (keys[i] == key) {
+                    return i;
+                }
+            }
+
+            for (int i = 0; i < size; i++) {
+                if (keys[i].equals(key)) {
+                    return i;
+                }
+            }
+
+            return -1;
+        }
+
+        private void grow(int length) {
+            keys = Arrays.copyOf(keys, length);
+            formats = Arrays.copyOf(formats, length);
+            values = Arrays.copyOf(values, length);
+            a = Arrays.copyOf(a, length);
+            b = Arrays.copyOf(b, length);
+            c = Arrays.copyOf(c, length);
+        }
+
+        private void copyFrom(Slots o) {
+            if (keys.length < o.size) {
+                grow(o.keys.length);
+            }
+
+            System.arraycopy(o.keys, 0, keys, 0, o.size);
+            System.arraycopy(o.formats, 0, formats, 0, o.size);
+            System.arraycopy(o.values, 0, values, 0, o.size);
+            System.arraycopy(o.a, 0, a, 0, o.size);
+            System.arraycopy(o.b, 0, b, 0, o.size);
+            System.arraycopy(o.c, 0, c, 0, o.size);
+            size = o.size;
+        }
+
+        private void print(String prefix) {
+            for (int i = 0; i < size; i++) {
+                Iris.error(prefix + " " + keys[i] + ": " + format(i));
+            }
+        }
+
+        private String format(int i) {
+            try {
+                return formats[i] == null ? String.valueOf(values[i]) : String.format(formats[i], a[i], b[i], c[i]);
+            } catch (Throwable e) {
+                return "<" + e.getClass().getSimpleName() + ">";
+            }
         }
     }
 }
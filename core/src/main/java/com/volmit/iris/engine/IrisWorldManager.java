@@ -23,6 +23,7 @@ import com.volmit.iris.core.IrisSettings;
 import com.volmit.iris.core.link.Identifier;
 import com.volmit.iris.core.loader.IrisData;
 import com.volmit.iris.core.service.ExternalDataSVC;
+import com.volmit.iris.engine.data.cache.AtomicCache;
 import com.volmit.iris.engine.data.cache.Cache;
 import com.volmit.iris.engine.framework.Engine;
 import com.volmit.iris.engine.framework.EngineAssignedWorldManager;
@@ -47,7 +48,9 @@ import com.volmit.iris.util.scheduling.jobs.QueueJob;
 import io.papermc.lib.PaperLib;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
+import org.bukkit.Bukkit;
 import org.bukkit.Chunk;
+import org.bukkit.ChunkSnapshot;
 import org.bukkit.Location;
 import org.bukkit.World;
 import org.bukkit.entity.Entity;
@@ -62,7 +65,6 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.*;
-import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
@@ -88,6 +90,7 @@ public class IrisWorldManager extends EngineAssignedWorldManager {
     private int cooldown = 0;
     private List<Entity> precount = new KList<>();
     private KSet<Position2> injectBiomes = new KSet<>();
+    private final KMap<String, MarkerSpawners> markerSpawners = new KMap<>();
 
     public IrisWorldManager() {
         super(null);
@@ -550,49 +553,45 @@ public class IrisWorldManager extends EngineAssignedWorldManager {
         });
     }
 
+    /**
+     * Resolve the spawners of every marker in a chunk. Markers which need empty space above
+     * them are checked against a single snapshot of the chunk, which is only taken once
+     * the first of them is found. Markers with solid blocks above them are removed.
+     *
+     * @param c the chunk
+     * @return the spawners by marker position
+     */
     public Map<IrisPosition, KSet<IrisSpawner>> getSpawnersFromMarkers(Chunk c) {
         Map<IrisPosition, KSet<IrisSpawner>> p = new KMap<>();
         Set<IrisPosition> b = new KSet<>();
+        AtomicCache<ChunkSnapshot> snapshot = new AtomicCache<>();
+        int minHeight = getEngine().getWorld().minHeight();
+        int maxHeight = getEngine().getWorld().maxHeight();
+
         getMantle().iterateChunk(c.getX(), c.getZ(), MatterMarker.class, (x, y, z, t) -> {
             if (t.getTag().equals("cave_floor") || t.getTag().equals("cave_ceiling")) {
                 return;
             }
 
-            IrisMarker mark = getData().getMarkerLoader().load(t.getTag());
-            IrisPosition pos = new IrisPosition((c.getX() << 4) + x, y, (c.getZ() << 4) + z);
+            MarkerSpawners mark = markerSpawners.computeIfAbsent(t.getTag(), this::resolveMarker);
+            if (mark.marker() == null) {
+                return;
+            }
 
-            if (mark.isEmptyAbove()) {
-                AtomicBoolean remove = new AtomicBoolean(false);
+            IrisPosition pos = new IrisPosition((c.getX() << 4) + x, y, (c.getZ() << 4) + z);
 
-                try {
-                    J.sfut(() -> {
-                        if (c.getBlock(x, y + 1, z).getBlockData().getMaterial().isSolid() || c.getBlock(x, y + 2, z).getBlockData().getMaterial().isSolid()) {
-                            remove.set(true);
-                        }
-                    }).get();
-                } catch (InterruptedException | ExecutionException e) {
-                    e.printStackTrace();
-                }
+            if (mark.marker().isEmptyAbove()) {
+                ChunkSnapshot s = snapshot.aquire(() -> snapshot(c));
+                int wy = y + minHeight;
 
-                if (remove.get()) {
+                if (s != null && (isSolid(s, x, wy + 1, z, maxHeight) || isSolid(s, x, wy + 2, z, maxHeight))) {
                     b.add(pos);
                     return;
                 }
             }
 
-            for (String i : mark.getSpawners()) {
-                IrisSpawner m = getData().getSpawnerLoader().load(i);
-                if (m == null) {
-                    Iris.error("Cannot load spawner: " + i + " for marker on " + getName());
-                    continue;
-                }
-                m.setReferenceMarker(mark);
-
-                // This is so fucking incorrect its a joke
-                //noinspection ConstantConditions
-                if (m != null) {
-                    p.computeIfAbsent(pos, (k) -> new KSet<>()).add(m);
-                }
+            if (!mark.spawners().isEmpty()) {
+                p.computeIfAbsent(pos, (k) -> new KSet<>()).addAll(mark.spawners());
             }
         });
 
@@ -603,6 +602,47 @@ public class IrisWorldManager extends EngineAssignedWorldManager {
         return p;
     }
 
+    private MarkerSpawners resolveMarker(String key) {
+        IrisMarker mark = getData().getMarkerLoader().load(key);
+        KList<IrisSpawner> spawners = new KList<>();
+
+        if (mark == null) {
+            Iris.error("Cannot load marker: " + key + " on " + getName());
+            return new MarkerSpawners(null, spawners);
+        }
+
+        for (String i : mark.getSpawners()) {
+            IrisSpawner m = getData().getSpawnerLoader().load(i);
+            if (m == null) {
+                Iris.error("Cannot load spawner: " + i + " for marker on " + getName());
+                continue;
+            }
+
+            m.setReferenceMarker(mark);
+            spawners.add(m);
+        }
+
+        return new MarkerSpawners(mark, spawners);
+    }
+
+    private static ChunkSnapshot snapshot(Chunk c) {
+        if (Bukkit.isPrimaryThread()) {
+            return c.getChunkSnapshot(false, false, false);
+        }
+
+        try {
+            CompletableFuture<ChunkSnapshot> future = J.sfut(() -> c.getChunkSnapshot(false, false, false));
+            return future == null ? null : future.get();
+        } catch (InterruptedException | ExecutionException e) {
+            Iris.reportError(e);
+            return null;
+        }
+    }
+
+    private static boolean isSolid(ChunkSnapshot s, int x, int y, int z, int maxHeight) {
+        return y < maxHeight && s.getBlockType(x, y, z).isSolid();
+    }
+
     @Override
     public void onBlockBreak(BlockBreakEvent e) {
         if (e.getBlock().getWorld().equals(getTarget().getWorld().realWorld())) {
@@ -674,6 +714,9 @@ public class IrisWorldManager extends EngineAssignedWorldManager {
         return (double) entityCount / (getEngine().getWorld().realWorld().getLoadedChunks().length + 1) * 1.28;
     }
 
+    private record MarkerSpawners(IrisMarker marker, KList<IrisSpawner> spawners) {
+    }
+
     @Data
     private static class ChunkCounter implements Predicate<IrisSpawner> {
         private final Entity[] entities;
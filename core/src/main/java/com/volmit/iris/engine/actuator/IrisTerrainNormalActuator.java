@@ -22,6 +22,7 @@ import com.volmit.iris.engine.framework.Engine;
 import com.volmit.iris.engine.framework.EngineAssignedActuator;
 import com.volmit.iris.engine.object.IrisBiome;
 import com.volmit.iris.engine.object.IrisRegion;
+import com.volmit.iris.engine.object.OreIndex;
 import com.volmit.iris.util.collection.KList;
 import com.volmit.iris.util.context.ChunkContext;
 import com.volmit.iris.util.documentation.BlockCoordinates;
@@ -77,12 +78,16 @@ public class IrisTerrainNormalActuator extends EngineAssignedActuator<BlockData>
         int zf, realX, realZ, hf, he;
         IrisBiome biome;
         IrisRegion region;
+        OreIndex biomeOres, regionOres;
+        OreIndex dimensionOres = getDimension().getOreIndex();
 
         for (zf = 0; zf < h.getDepth(); zf++) {
             realX = xf + x;
             realZ = zf + z;
             biome = context.getBiome().get(xf, zf);
             region = context.getRegion().get(xf, zf);
+            biomeOres = biome.getOreIndex();
+            regionOres = region.getOreIndex();
             he = (int) Math.round(Math.min(h.getHeight(), context.getHeight().get(xf, zf)));
             hf = Math.round(Math.max(Math.min(h.getHeight(), getDimension().getFluidHeight()), he));
 
@@ -106,9 +111,9 @@ public class IrisTerrainNormalActuator extends EngineAssignedActuator<BlockData>
                     }
                 }
 
-                BlockData ore = biome.generateOres(realX, i, realZ, rng, getData(), true);
-                ore = ore == null ? region.generateOres(realX, i, realZ, rng, getData(), true) : ore;
-                ore = ore == null ? getDimension().generateOres(realX, i, realZ, rng, getData(), true) : ore;
+                BlockData ore = biomeOres.generate(realX, i, realZ, rng, getData(), true);
+                ore = ore == null ? regionOres.generate(realX, i, realZ, rng, getData(), true) : ore;
+                ore = ore == null ? dimensionOres.generate(realX, i, realZ, rng, getData(), true) : ore;
                 if (ore != null) {
                     h.set(xf, i, zf, ore);
                     continue;
@@ -146,9 +151,9 @@ public class IrisTerrainNormalActuator extends EngineAssignedActuator<BlockData>
                         continue;
                     }
 
-                    ore = biome.generateOres(realX, i, realZ, rng, getData(), false);
-                    ore = ore == null ? region.generateOres(realX, i, realZ, rng, getData(), false) : ore;
-                    ore = ore == null ? getDimension().generateOres(realX, i, realZ, rng, getData(), false) : ore;
+                    ore = biomeOres.generate(realX, i, realZ, rng, getData(), false);
+                    ore = ore == null ? regionOres.generate(realX, i, realZ, rng, getData(), false) : ore;
+                    ore = ore == null ? dimensionOres.generate(realX, i, realZ, rng, getData(), false) : ore;
 
                     if (ore != null) {
                         h.set(xf, i, zf, ore);
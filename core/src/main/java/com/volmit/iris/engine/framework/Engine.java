@@ -578,7 +578,7 @@ public interface Engine extends DataProvider, Fallible, LootProvider, BlockUpdat
 
     @Deprecated
     default void clean() {
-        burst().lazy(() -> getMantle().trim(10));
+        burst().lazy(() -> getMantle().trim());
     }
 
     @BlockCoordinates
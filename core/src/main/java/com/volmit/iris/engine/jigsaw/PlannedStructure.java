@@ -21,11 +21,14 @@ package com.volmit.iris.engine.jigsaw;
 import com.googlecode.concurrentlinkedhashmap.ConcurrentLinkedHashMap;
 import com.volmit.iris.Iris;
 import com.volmit.iris.core.loader.IrisData;
+import com.volmit.iris.engine.data.cache.Cache;
 import com.volmit.iris.engine.framework.Engine;
 import com.volmit.iris.engine.framework.placer.WorldObjectPlacer;
 import com.volmit.iris.engine.object.*;
 import com.volmit.iris.util.collection.KList;
+import com.volmit.iris.util.collection.KMap;
 import com.volmit.iris.util.mantle.Mantle;
+import com.volmit.iris.util.math.AxisAlignedBB;
 import com.volmit.iris.util.math.Position2;
 import com.volmit.iris.util.math.RNG;
 import com.volmit.iris.util.matter.slices.container.JigsawPieceContainer;
@@ -33,12 +36,14 @@ import com.volmit.iris.util.matter.slices.container.JigsawStructureContainer;
 import com.volmit.iris.util.matter.slices.container.JigsawStructuresContainer;
 import com.volmit.iris.util.scheduling.J;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import org.bukkit.Axis;
 
 import java.util.function.Consumer;
 
 @Data
 public class PlannedStructure {
+    private static final int GRID_SHIFT = 5;
     private static ConcurrentLinkedHashMap<String, IrisObject> objectRotationCache
             = new ConcurrentLinkedHashMap.Builder<String, IrisObject>()
             .initialCapacity(64)
@@ -46,6 +51,8 @@ public class PlannedStructure {
             .concurrencyLevel(32)
             .build();
     private KList<PlannedPiece> pieces;
+    @EqualsAndHashCode.Exclude
+    private final KMap<Long, KList<PlannedPiece>> grid = new KMap<>();
     private IrisJigsawStructure structure;
     private IrisPosition position;
     private IrisData data;
@@ -95,6 +102,10 @@ public class PlannedStructure {
             if (slice == null) slice = new JigsawStructuresContainer();
             slice.add(structure, chunkPos);
             e.set(regionPos.getX(), 0, regionPos.getZ(), slice);
+
+            if (eng != null) {
+                eng.getMantle().getJigsawComponent().getIndex().add(structure.getLoadKey(), chunkPos.getX(), chunkPos.getZ());
+            }
         }
         return placed;
     }
@@ -269,7 +280,7 @@ public class PlannedStructure {
         }
 
         piece.connect(pieceConnector, test, testConnector);
-        pieces.add(test);
+        addPiece(test);
 
         return true;
     }
@@ -293,7 +304,20 @@ public class PlannedStructure {
     }
 
     private void generateStartPiece() {
-        pieces.add(new PlannedPiece(this, position, getData().getJigsawPieceLoader().load(rng.pick(getStructure().getPieces())), 0, getStructure().isDisableInitialRotation() ? 0 : rng.nextInt(4), 0));
+        addPiece(new PlannedPiece(this, position, getData().getJigsawPieceLoader().load(rng.pick(getStructure().getPieces())), 0, getStructure().isDisableInitialRotation() ? 0 : rng.nextInt(4), 0));
+    }
+
+    private void addPiece(PlannedPiece piece) {
+        pieces.add(piece);
+        AxisAlignedBB box = piece.getBox();
+        IrisPosition min = box.min();
+        IrisPosition max = box.max();
+
+        for (int x = min.getX() >> GRID_SHIFT; x <= max.getX() >> GRID_SHIFT; x++) {
+            for (int z = min.getZ() >> GRID_SHIFT; z <= max.getZ() >> GRID_SHIFT; z++) {
+                grid.computeIfAbsent(Cache.key(x, z), k -> new KList<>()).add(piece);
+            }
+        }
     }
 
     private void generateTerminators() {
@@ -323,20 +347,35 @@ public class PlannedStructure {
         int v = 0;
 
         for (PlannedPiece i : pieces) {
-            v += i.getObject().getBlocks().size();
+            v += i.getObject().getBlockCount();
         }
 
         return v;
     }
 
     public boolean collidesWith(PlannedPiece piece, PlannedPiece ignore) {
-        for (PlannedPiece i : pieces) {
-            if (i.equals(ignore)) {
-                continue;
-            }
+        AxisAlignedBB box = piece.getBox();
+        IrisPosition min = box.min();
+        IrisPosition max = box.max();
 
-            if (i.collidesWith(piece)) {
-                return true;
+        // Only pieces sharing a grid cell with the box can intersect it
+        for (int x = min.getX() >> GRID_SHIFT; x <= max.getX() >> GRID_SHIFT; x++) {
+            for (int z = min.getZ() >> GRID_SHIFT; z <= max.getZ() >> GRID_SHIFT; z++) {
+                KList<PlannedPiece> cell = grid.get(Cache.key(x, z));
+
+                if (cell == null) {
+                    continue;
+                }
+
+                for (PlannedPiece i : cell) {
+                    if (i.equals(ignore)) {
+                        continue;
+                    }
+
+                    if (i.collidesWith(piece)) {
+                        return true;
+                    }
+                }
             }
         }
 
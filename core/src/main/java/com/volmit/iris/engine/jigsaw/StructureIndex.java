@@ -0,0 +1,180 @@
+/*
+ * Iris is a World Generator for Minecraft Bukkit Servers
+ * Copyright (c) 2022 Arcane Arts (Volmit Software)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.volmit.iris.engine.jigsaw;
+
+import com.volmit.iris.engine.data.cache.Cache;
+import com.volmit.iris.util.collection.KMap;
+import com.volmit.iris.util.collection.KSet;
+import com.volmit.iris.util.documentation.ChunkCoordinates;
+import com.volmit.iris.util.mantle.Mantle;
+import com.volmit.iris.util.math.Position2;
+import com.volmit.iris.util.matter.slices.container.JigsawStructuresContainer;
+
+/**
+ * The chunk positions of the jigsaw structures placed in a world, bucketed by region (32x32 chunks).
+ * <p>
+ * The mantle stays the source of truth. A bucket is read from the {@link JigsawStructuresContainer}
+ * of its region the first time it is needed and kept up to date as structures are placed,
+ * so the mantle is read once per region instead of once per chunk and query.
+ * <p>
+ * Buckets are dropped when the plate of their region or the plate holding their container unloads,
+ * and when either chunk is deleted for regeneration, they are read again on the next query.
+ */
+public class StructureIndex {
+    private final Mantle mantle;
+    private final KMap<Long, Bucket> buckets;
+
+    public StructureIndex(Mantle mantle) {
+        this.mantle = mantle;
+        this.buckets = new KMap<>();
+        mantle.onUnload(k -> unloadPlate(Cache.keyX(k), Cache.keyZ(k)));
+        mantle.onDelete(this::deleteChunk);
+    }
+
+    /**
+     * Record a placed structure, call this after it was written to the mantle
+     *
+     * @param key the structure load key
+     * @param x   the chunk x of the structure origin
+     * @param z   the chunk z of the structure origin
+     */
+    @ChunkCoordinates
+    public void add(String key, int x, int z) {
+        bucket(x >> 5, z >> 5).add(key, new Position2(x, z));
+    }
+
+    /**
+     * Get the structure which was placed with its origin in a chunk
+     *
+     * @return the structure load key or null if there is none
+     */
+    @ChunkCoordinates
+    public String getStructure(int x, int z) {
+        return bucket(x >> 5, z >> 5).structures.get(new Position2(x, z));
+    }
+
+    /**
+     * Find the closest placed structure of a type
+     *
+     * @param key   the structure load key
+     * @param x     the chunk x to search from
+     * @param z     the chunk z to search from
+     * @param range the maximum distance in chunks
+     * @return the chunk position of the closest structure or null if there is none in range
+     */
+    @ChunkCoordinates
+    public Position2 nearest(String key, int x, int z, int range) {
+        Position2 center = new Position2(x, z);
+        Position2 best = null;
+        double bestDist = (double) range * range;
+        int rx = x >> 5;
+        int rz = z >> 5;
+
+        for (int r = 0; ; r++) {
+            // Every chunk in ring r is at least this far away
+            double ring = Math.max(0, (r - 1) * 32D);
+
+            if (ring * ring > bestDist) {
+                return best;
+            }
+
+            for (int i = -r; i <= r; i++) {
+                for (int j = -r; j <= r; j++) {
+                    if (Math.max(Math.abs(i), Math.abs(j)) != r) {
+                        continue;
+                    }
+
+                    KSet<Position2> positions = bucket(rx + i, rz + j).positions.get(key);
+
+                    if (positions == null) {
+                        continue;
+                    }
+
+                    for (Position2 p : positions) {
+                        double d = p.distance(center);
+
+                        if (d <= bestDist && (best == null || d < bestDist)) {
+                            best = p;
+                            bestDist = d;
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Check if a structure of a type was placed closer than a distance
+     *
+     * @param key      the structure load key
+     * @param x        the chunk x
+     * @param z        the chunk z
+     * @param distance the distance in chunks
+     * @return true if there is a structure closer than the distance
+     */
+    @ChunkCoordinates
+    public boolean isWithin(String key, int x, int z, int distance) {
+        Position2 p = nearest(key, x, z, distance);
+        return p != null && p.distance(new Position2(x, z)) < (double) distance * distance;
+    }
+
+    /**
+     * The container of region (rx, rz) is stored at block (rx, 0, rz), so it lives in plate (rx >> 9, rz >> 9)
+     */
+    private void unloadPlate(int px, int pz) {
+        buckets.keySet().removeIf(k -> {
+            int rx = Cache.keyX(k);
+            int rz = Cache.keyZ(k);
+            return (rx == px && rz == pz) || ((rx >> 9) == px && (rz >> 9) == pz);
+        });
+    }
+
+    @ChunkCoordinates
+    private void deleteChunk(int x, int z) {
+        buckets.remove(Cache.key(x >> 5, z >> 5));
+        buckets.keySet().removeIf(k -> (Cache.keyX(k) >> 4) == x && (Cache.keyZ(k) >> 4) == z);
+    }
+
+    private Bucket bucket(int rx, int rz) {
+        return buckets.computeIfAbsent(Cache.key(rx, rz), k -> {
+            Bucket bucket = new Bucket();
+            JigsawStructuresContainer container = mantle.get(rx, 0, rz, JigsawStructuresContainer.class);
+
+            if (container != null) {
+                for (String i : container.getStructures()) {
+                    for (Position2 j : container.getPositions(i)) {
+                        bucket.add(i, j);
+                    }
+                }
+            }
+
+            return bucket;
+        });
+    }
+
+    private static class Bucket {
+        private final KMap<String, KSet<Position2>> positions = new KMap<>();
+        private final KMap<Position2, String> structures = new KMap<>();
+
+        private void add(String key, Position2 pos) {
+            positions.computeIfAbsent(key, k -> new KSet<>()).add(pos);
+            structures.put(pos, key);
+        }
+    }
+}
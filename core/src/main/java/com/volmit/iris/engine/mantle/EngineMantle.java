@@ -99,7 +99,7 @@ public interface EngineMantle extends MatterGenerator {
     }
 
     default int trueHeight(int x, int z) {
-        return getComplex().getRoundedHeighteightStream().get(x, z);
+        return (int) getComplex().getRoundedHeighteightStream().getDouble(x, z);
     }
 
     @Deprecated(forRemoval = true)
@@ -131,8 +131,8 @@ public interface EngineMantle extends MatterGenerator {
         return getEngine().getDimension().isDebugSmartBore();
     }
 
-    default void trim(long dur, int limit) {
-        getMantle().trim(dur, limit);
+    default void trim(long dur) {
+        getMantle().trim(dur);
     }
 
     default IrisData getData() {
@@ -163,8 +163,8 @@ public interface EngineMantle extends MatterGenerator {
 
     }
 
-    default void trim(int limit) {
-        getMantle().trim(TimeUnit.SECONDS.toMillis(IrisSettings.get().getPerformance().getMantleKeepAlive()), limit);
+    default void trim() {
+        getMantle().trim(TimeUnit.SECONDS.toMillis(IrisSettings.get().getPerformance().getMantleKeepAlive()));
     }
     default int unloadTectonicPlate(int tectonicLimit){
         return getMantle().unloadTectonicPlate(tectonicLimit);
@@ -27,8 +27,8 @@ import com.volmit.iris.engine.object.IObjectPlacer;
 import com.volmit.iris.engine.object.IrisGeneratorStyle;
 import com.volmit.iris.engine.object.IrisPosition;
 import com.volmit.iris.engine.object.TileData;
+import com.volmit.iris.engine.object.WormPath;
 import com.volmit.iris.util.collection.KMap;
-import com.volmit.iris.util.collection.KSet;
 import com.volmit.iris.util.data.B;
 import com.volmit.iris.util.data.IrisCustomData;
 import com.volmit.iris.util.documentation.ChunkCoordinates;
@@ -41,11 +41,14 @@ import com.volmit.iris.util.matter.MatterCavern;
 import com.volmit.iris.util.matter.TileWrapper;
 import com.volmit.iris.util.noise.CNG;
 import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import lombok.AccessLevel;
 import lombok.Data;
+import lombok.Getter;
 import org.bukkit.block.data.BlockData;
 import org.bukkit.util.Vector;
 
 import java.util.*;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
 import static com.volmit.iris.engine.mantle.EngineMantle.AIR;
 
@@ -57,6 +60,8 @@ public class MantleWriter implements IObjectPlacer, AutoCloseable {
     private final int radius;
     private final int x;
     private final int z;
+    @Getter(AccessLevel.NONE)
+    private final AtomicReferenceArray<int[]> heights;
 
     public MantleWriter(EngineMantle engineMantle, Mantle mantle, int x, int z, int radius, boolean multicore) {
         this.engineMantle = engineMantle;
@@ -66,6 +71,7 @@ public class MantleWriter implements IObjectPlacer, AutoCloseable {
         this.cachedChunks = multicore ? new KMap<>(d * d, 0.75f, Math.max(32, Runtime.getRuntime().availableProcessors() * 4)) : new Long2ObjectOpenHashMap<>(d * d);
         this.x = x;
         this.z = z;
+        this.heights = new AtomicReferenceArray<>((this.radius * 2 + 1) * (this.radius * 2 + 1));
 
         final int parallelism = multicore ? Runtime.getRuntime().availableProcessors() / 2 : 4;
         final var map = multicore ? cachedChunks : new KMap<Long, MantleChunk>(d * d, 1f, parallelism);
@@ -80,61 +86,49 @@ public class MantleWriter implements IObjectPlacer, AutoCloseable {
         if (!multicore) cachedChunks.putAll(map);
     }
 
-    private static Set<IrisPosition> getBallooned(Set<IrisPosition> vset, double radius) {
-        Set<IrisPosition> returnset = new HashSet<>();
-        int ceilrad = (int) Math.ceil(radius);
-        double r2 = Math.pow(radius, 2);
+    private static double lengthSq(double x, double y, double z) {
+        return (x * x) + (y * y) + (z * z);
+    }
 
-        for (IrisPosition v : vset) {
-            int tipx = v.getX();
-            int tipy = v.getY();
-            int tipz = v.getZ();
+    private static double lengthSq(double x, double z) {
+        return (x * x) + (z * z);
+    }
 
-            for (int loopx = tipx - ceilrad; loopx <= tipx + ceilrad; loopx++) {
-                for (int loopy = tipy - ceilrad; loopy <= tipy + ceilrad; loopy++) {
-                    for (int loopz = tipz - ceilrad; loopz <= tipz + ceilrad; loopz++) {
-                        if (hypot(loopx - tipx, loopy - tipy, loopz - tipz) <= r2) {
-                            returnset.add(new IrisPosition(loopx, loopy, loopz));
-                        }
-                    }
-                }
-            }
-        }
-        return returnset;
-    }
-
-    private static Set<IrisPosition> getHollowed(Set<IrisPosition> vset) {
-        Set<IrisPosition> returnset = new KSet<>();
-        for (IrisPosition v : vset) {
-            double x = v.getX();
-            double y = v.getY();
-            double z = v.getZ();
-            if (!(vset.contains(new IrisPosition(x + 1, y, z))
-                    && vset.contains(new IrisPosition(x - 1, y, z))
-                    && vset.contains(new IrisPosition(x, y + 1, z))
-                    && vset.contains(new IrisPosition(x, y - 1, z))
-                    && vset.contains(new IrisPosition(x, y, z + 1))
-                    && vset.contains(new IrisPosition(x, y, z - 1)))) {
-                returnset.add(v);
-            }
+    /**
+     * Get the true height (ignoring fluids) at the given position. Heights are cached for every chunk of this writer
+     *
+     * @param x the block x
+     * @param z the block z
+     * @return the height
+     */
+    public int getTrueHeight(int x, int z) {
+        int width = radius * 2 + 1;
+        int rx = (x >> 4) - (this.x - radius);
+        int rz = (z >> 4) - (this.z - radius);
+
+        if (rx < 0 || rz < 0 || rx >= width || rz >= width) {
+            return engineMantle.trueHeight(x, z);
         }
-        return returnset;
-    }
 
-    private static double hypot(double... pars) {
-        double sum = 0;
-        for (double d : pars) {
-            sum += Math.pow(d, 2);
+        int index = rx * width + rz;
+        int[] page = heights.get(index);
+
+        if (page == null) {
+            int[] fresh = new int[256];
+            Arrays.fill(fresh, Integer.MIN_VALUE);
+            page = heights.compareAndExchange(index, null, fresh);
+            if (page == null) page = fresh;
         }
-        return sum;
-    }
 
-    private static double lengthSq(double x, double y, double z) {
-        return (x * x) + (y * y) + (z * z);
-    }
+        int i = ((z & 15) << 4) | (x & 15);
+        int h = page[i];
 
-    private static double lengthSq(double x, double z) {
-        return (x * x) + (z * z);
+        if (h == Integer.MIN_VALUE) {
+            h = engineMantle.trueHeight(x, z);
+            page[i] = h;
+        }
+
+        return h;
     }
 
     public <T> void setDataWarped(int x, int y, int z, T t, RNG rng, IrisData data, IrisGeneratorStyle style) {
@@ -175,9 +169,7 @@ public class MantleWriter implements IObjectPlacer, AutoCloseable {
             return null;
         }
 
-        return chunk.getOrCreate(y >> 4)
-                .<T>slice(type)
-                .get(x & 15, y & 15, z & 15);
+        return chunk.get(x & 15, y, z & 15, type);
     }
 
     @ChunkCoordinates
@@ -495,14 +487,15 @@ public class MantleWriter implements IObjectPlacer, AutoCloseable {
      * @param <T>     the type of data to apply to the mantle
      */
     public <T> void setLineConsumer(List<IrisPosition> vectors, double radius, boolean filled, Function3<Integer, Integer, Integer, T> data) {
-        Set<IrisPosition> vset = cleanup(vectors);
-        vset = getBallooned(vset, radius);
+        try (VoxelMask mask = VoxelMask.acquire(this)) {
+            mask.stampLine(WormPath.of(vectors), radius);
 
-        if (!filled) {
-            vset = getHollowed(vset);
-        }
+            if (!filled) {
+                mask.hollow();
+            }
 
-        setConsumer(vset, data);
+            mask.apply(this, data);
+        }
     }
 
     /**
@@ -515,94 +508,37 @@ public class MantleWriter implements IObjectPlacer, AutoCloseable {
      * @param <T>     the type of data to apply to the mantle
      */
     public <T> void setNoiseMasked(List<IrisPosition> vectors, double radius, double threshold, CNG shape, Set<IrisPosition> masks, boolean filled, Function3<Integer, Integer, Integer, T> data) {
-        Set<IrisPosition> vset = cleanup(vectors);
-        vset = masks == null ? getBallooned(vset, radius) : getMasked(vset, masks, radius);
-        vset.removeIf(p -> shape.noise(p.getX(), p.getY(), p.getZ()) < threshold);
-
-        if (!filled) {
-            vset = getHollowed(vset);
-        }
-
-        setConsumer(vset, data);
+        setNoiseMasked(WormPath.of(vectors), radius, threshold, shape, masks, filled, data);
     }
 
-    private static Set<IrisPosition> getMasked(Set<IrisPosition> vectors, Set<IrisPosition> masks, double radius) {
-        Set<IrisPosition> vset = new KSet<>();
-        int ceil = (int) Math.ceil(radius);
-        double r2 = Math.pow(radius, 2);
-
-        for (IrisPosition v : vectors) {
-            int tipX = v.getX();
-            int tipY = v.getY();
-            int tipZ = v.getZ();
-
-            for (int x = -ceil; x <= ceil; x++) {
-                for (int y = -ceil; y <= ceil; y++) {
-                    for (int z = -ceil; z <= ceil; z++) {
-                        if (hypot(x, y, z) > r2 || !masks.contains(new IrisPosition(x, y, z)))
-                            continue;
-                        vset.add(new IrisPosition(tipX + x, tipY + y, tipZ + z));
-                    }
-                }
-            }
-        }
-
-        return vset;
-    }
-
-    private static Set<IrisPosition> cleanup(List<IrisPosition> vectors) {
-        Set<IrisPosition> vset = new KSet<>();
-
-        for (int i = 0; vectors.size() != 0 && i < vectors.size() - 1; i++) {
-            IrisPosition pos1 = vectors.get(i);
-            IrisPosition pos2 = vectors.get(i + 1);
-            int x1 = pos1.getX();
-            int y1 = pos1.getY();
-            int z1 = pos1.getZ();
-            int x2 = pos2.getX();
-            int y2 = pos2.getY();
-            int z2 = pos2.getZ();
-            int tipx = x1;
-            int tipy = y1;
-            int tipz = z1;
-            int dx = Math.abs(x2 - x1);
-            int dy = Math.abs(y2 - y1);
-            int dz = Math.abs(z2 - z1);
-
-            if (dx + dy + dz == 0) {
-                vset.add(new IrisPosition(tipx, tipy, tipz));
-                continue;
+    /**
+     * Set lines for the points of a path
+     *
+     * @param vectors   the path
+     * @param radius    the radius
+     * @param threshold the minimum noise value to keep a voxel
+     * @param shape     the noise
+     * @param masks     the offsets to stamp around each point or null for spheres
+     * @param filled    hollow or filled?
+     * @param data      the data to set
+     * @param <T>       the type of data to apply to the mantle
+     */
+    public <T> void setNoiseMasked(WormPath vectors, double radius, double threshold, CNG shape, Set<IrisPosition> masks, boolean filled, Function3<Integer, Integer, Integer, T> data) {
+        try (VoxelMask mask = VoxelMask.acquire(this)) {
+            if (masks == null) {
+                mask.stampLine(vectors, radius);
+            } else {
+                mask.stampMasked(vectors, masks, radius);
             }
 
-            int dMax = Math.max(Math.max(dx, dy), dz);
-            if (dMax == dx) {
-                for (int domstep = 0; domstep <= dx; domstep++) {
-                    tipx = x1 + domstep * (x2 - x1 > 0 ? 1 : -1);
-                    tipy = (int) Math.round(y1 + domstep * ((double) dy) / ((double) dx) * (y2 - y1 > 0 ? 1 : -1));
-                    tipz = (int) Math.round(z1 + domstep * ((double) dz) / ((double) dx) * (z2 - z1 > 0 ? 1 : -1));
-
-                    vset.add(new IrisPosition(tipx, tipy, tipz));
-                }
-            } else if (dMax == dy) {
-                for (int domstep = 0; domstep <= dy; domstep++) {
-                    tipy = y1 + domstep * (y2 - y1 > 0 ? 1 : -1);
-                    tipx = (int) Math.round(x1 + domstep * ((double) dx) / ((double) dy) * (x2 - x1 > 0 ? 1 : -1));
-                    tipz = (int) Math.round(z1 + domstep * ((double) dz) / ((double) dy) * (z2 - z1 > 0 ? 1 : -1));
-
-                    vset.add(new IrisPosition(tipx, tipy, tipz));
-                }
-            } else /* if (dMax == dz) */ {
-                for (int domstep = 0; domstep <= dz; domstep++) {
-                    tipz = z1 + domstep * (z2 - z1 > 0 ? 1 : -1);
-                    tipy = (int) Math.round(y1 + domstep * ((double) dy) / ((double) dz) * (y2 - y1 > 0 ? 1 : -1));
-                    tipx = (int) Math.round(x1 + domstep * ((double) dx) / ((double) dz) * (x2 - x1 > 0 ? 1 : -1));
+            mask.retainNoise(shape, threshold);
 
-                    vset.add(new IrisPosition(tipx, tipy, tipz));
-                }
+            if (!filled) {
+                mask.hollow();
             }
-        }
 
-        return vset;
+            mask.apply(this, data);
+        }
     }
 
     /**
@@ -0,0 +1,595 @@
+/*
+ * Iris is a World Generator for Minecraft Bukkit Servers
+ * Copyright (c) 2022 Arcane Arts (Volmit Software)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.volmit.iris.engine.mantle;
+
+import com.volmit.iris.engine.object.IrisPosition;
+import com.volmit.iris.engine.object.WormPath;
+import com.volmit.iris.util.function.Function3;
+import com.volmit.iris.util.mantle.MantleChunk;
+import com.volmit.iris.util.matter.Matter;
+import com.volmit.iris.util.matter.MatterSlice;
+import com.volmit.iris.util.noise.CNG;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Set;
+
+/**
+ * A set of voxels within the chunk window of a {@link MantleWriter}, stored as one
+ * 4096 bit page per touched 16x16x16 section. Shapes are stamped into the mask first
+ * and written into the mantle once, so overlapping shapes (like the spheres along a worm)
+ * never allocate per voxel and every voxel is only written once.
+ * <p>
+ * Words are laid out as y << 2 | z >> 2, each holding 4 rows of 16 x bits.
+ * The mask also keeps a margin of one section around the window and below and above the world,
+ * so {@link #hollow()} sees the real neighbours of voxels at the edges. The margin is never written,
+ * voxels beyond it are ignored.
+ * <p>
+ * Masks are pooled per thread, acquire them with {@link #acquire(MantleWriter)} and close them when done.
+ */
+public class VoxelMask implements AutoCloseable {
+    private static final ThreadLocal<ArrayDeque<VoxelMask>> pool = ThreadLocal.withInitial(ArrayDeque::new);
+    private static final int POOL_SIZE = 4;
+    private static final long X0 = 0x0001000100010001L;
+    private static final long X15 = 0x8000800080008000L;
+
+    private final ArrayDeque<long[]> spare = new ArrayDeque<>();
+    private long[][] pages = new long[0][];
+    private int[] touched = new int[64];
+    private int touchedCount;
+    private int minX;
+    private int minY;
+    private int minZ;
+    private int width;
+    private int height;
+    private int sections;
+
+    private VoxelMask() {
+
+    }
+
+    /**
+     * Get an empty mask covering the chunk window of a writer
+     *
+     * @param writer the writer
+     * @return the mask, close it to return it to the pool
+     */
+    public static VoxelMask acquire(MantleWriter writer) {
+        VoxelMask mask = pool.get().poll();
+        if (mask == null) {
+            mask = new VoxelMask();
+        }
+
+        mask.reset(writer);
+        return mask;
+    }
+
+    private void reset(MantleWriter writer) {
+        minX = (writer.getX() - writer.getRadius() - 1) << 4;
+        minY = -16;
+        minZ = (writer.getZ() - writer.getRadius() - 1) << 4;
+        width = writer.getRadius() * 2 + 3;
+        height = writer.getMantle().getWorldHeight();
+        sections = ((height + 15) >> 4) + 2;
+
+        int size = width * width * sections;
+        if (pages.length < size) {
+            pages = new long[size][];
+        }
+    }
+
+    /**
+     * Clear this mask and return it to the pool of this thread
+     */
+    @Override
+    public void close() {
+        clear();
+        ArrayDeque<VoxelMask> masks = pool.get();
+        if (masks.size() < POOL_SIZE) {
+            masks.push(this);
+        }
+    }
+
+    /**
+     * Remove every voxel from this mask
+     */
+    public void clear() {
+        for (int i = 0; i < touchedCount; i++) {
+            long[] page = pages[touched[i]];
+            Arrays.fill(page, 0);
+            spare.push(page);
+            pages[touched[i]] = null;
+        }
+
+        touchedCount = 0;
+    }
+
+    /**
+     * @return true if no voxel was ever set since the last clear
+     */
+    public boolean isEmpty() {
+        return touchedCount == 0;
+    }
+
+    private int index(int x, int y, int z) {
+        int rx = (x - minX) >> 4;
+        int rz = (z - minZ) >> 4;
+        int sy = (y - minY) >> 4;
+
+        if (rx < 0 || rz < 0 || rx >= width || rz >= width || sy < 0 || sy >= sections) {
+            return -1;
+        }
+
+        return ((rx * width) + rz) * sections + sy;
+    }
+
+    /**
+     * @return true if the page is inside the window and the world, false if it belongs to the margin
+     */
+    private boolean inner(int index) {
+        int rx = index / (width * sections);
+        int rz = (index / sections) % width;
+        int sy = index % sections;
+        return rx > 0 && rz > 0 && sy > 0 && rx < width - 1 && rz < width - 1 && sy < sections - 1;
+    }
+
+    private long[] page(int index) {
+        long[] page = pages[index];
+
+        if (page == null) {
+            page = spare.isEmpty() ? new long[64] : spare.pop();
+            pages[index] = page;
+
+            if (touchedCount == touched.length) {
+                touched = Arrays.copyOf(touched, touched.length * 2);
+            }
+
+            touched[touchedCount++] = index;
+        }
+
+        return page;
+    }
+
+    private static int word(int x, int y, int z) {
+        return ((y & 15) << 2) | ((z & 15) >> 2);
+    }
+
+    private static long bit(int x, int z) {
+        return 1L << (((z & 3) << 4) | (x & 15));
+    }
+
+    public boolean contains(int x, int y, int z) {
+        int index = index(x, y, z);
+        if (index == -1) return false;
+        long[] page = pages[index];
+        return page != null && (page[word(x, y, z)] & bit(x, z)) != 0;
+    }
+
+    public void set(int x, int y, int z) {
+        int index = index(x, y, z);
+        if (index == -1) return;
+        page(index)[word(x, y, z)] |= bit(x, z);
+    }
+
+    public void remove(int x, int y, int z) {
+        int index = index(x, y, z);
+        if (index == -1) return;
+        long[] page = pages[index];
+        if (page != null) {
+            page[word(x, y, z)] &= ~bit(x, z);
+        }
+    }
+
+    /**
+     * Set or remove a run of voxels along the x axis
+     *
+     * @param x0    the first x (inclusive)
+     * @param x1    the last x (inclusive)
+     * @param y     the y
+     * @param z     the z
+     * @param value set or remove the run
+     */
+    public void fill(int x0, int x1, int y, int z, boolean value) {
+        x0 = Math.max(x0, minX);
+        x1 = Math.min(x1, minX + (width << 4) - 1);
+
+        while (x0 <= x1) {
+            int end = Math.min(x1, x0 | 15);
+            int index = index(x0, y, z);
+            if (index == -1) return;
+            long bits = ((1L << (end - x0 + 1)) - 1) << (((z & 3) << 4) | (x0 & 15));
+
+            if (value) {
+                page(index)[word(x0, y, z)] |= bits;
+            } else if (pages[index] != null) {
+                pages[index][word(x0, y, z)] &= ~bits;
+            }
+
+            x0 = end + 1;
+        }
+    }
+
+    /**
+     * Add every voxel within the radius of a point
+     *
+     * @param cx     the center x
+     * @param cy     the center y
+     * @param cz     the center z
+     * @param radius the radius
+     */
+    public void stampSphere(int cx, int cy, int cz, double radius) {
+        int ceil = (int) Math.ceil(radius);
+        double r2 = radius * radius;
+
+        for (int y = -ceil; y <= ceil; y++) {
+            for (int z = -ceil; z <= ceil; z++) {
+                double rem = r2 - (y * y) - (z * z);
+                if (rem < 0) {
+                    continue;
+                }
+
+                int run = Math.min(ceil, (int) Math.sqrt(rem));
+                while (run < ceil && (run + 1) * (run + 1) <= rem) run++;
+                while (run > 0 && run * run > rem) run--;
+                fill(cx - run, cx + run, cy + y, cz + z, true);
+            }
+        }
+    }
+
+    /**
+     * Add spheres along the lines connecting the given points
+     *
+     * @param vectors the points
+     * @param radius  the radius of the line
+     */
+    public void stampLine(WormPath vectors, double radius) {
+        line(vectors, (x, y, z) -> stampSphere(x, y, z, radius));
+    }
+
+    /**
+     * Add a mask of offsets along the lines connecting the given points, keeping only offsets within the radius
+     *
+     * @param vectors the points
+     * @param masks   the offsets relative to each point
+     * @param radius  the radius
+     */
+    public void stampMasked(WormPath vectors, Set<IrisPosition> masks, double radius) {
+        double r2 = radius * radius;
+        int[] offsets = new int[masks.size() * 3];
+        int count = 0;
+
+        for (IrisPosition i : masks) {
+            if ((double) i.getX() * i.getX() + (double) i.getY() * i.getY() + (double) i.getZ() * i.getZ() <= r2) {
+                offsets[count++] = i.getX();
+                offsets[count++] = i.getY();
+                offsets[count++] = i.getZ();
+            }
+        }
+
+        int length = count;
+        line(vectors, (x, y, z) -> {
+            for (int i = 0; i < length; i += 3) {
+                set(x + offsets[i], y + offsets[i + 1], z + offsets[i + 2]);
+            }
+        });
+    }
+
+    /**
+     * Set or remove the voxels of an elipsoid, matching {@link MantleWriter#setElipsoid(int, int, int, double, double, double, boolean, Object)}
+     *
+     * @param cx    the center x
+     * @param cy    the center y
+     * @param cz    the center z
+     * @param rx    the x radius
+     * @param ry    the y radius
+     * @param rz    the z radius
+     * @param fill  should it be filled or just the outer shell?
+     * @param value set or remove the voxels
+     */
+    public void stampElipsoid(int cx, int cy, int cz, double rx, double ry, double rz, boolean fill, boolean value) {
+        rx += 0.5;
+        ry += 0.5;
+        rz += 0.5;
+        final double invRadiusX = 1 / rx;
+        final double invRadiusY = 1 / ry;
+        final double invRadiusZ = 1 / rz;
+        final int ceilRadiusX = (int) Math.ceil(rx);
+        final int ceilRadiusY = (int) Math.ceil(ry);
+        final int ceilRadiusZ = (int) Math.ceil(rz);
+        double nextXn = 0;
+
+        forX:
+        for (int x = 0; x <= ceilRadiusX; ++x) {
+            final double xn = nextXn;
+            nextXn = (x + 1) * invRadiusX;
+            double nextYn = 0;
+            forY:
+            for (int y = 0; y <= ceilRadiusY; ++y) {
+                final double yn = nextYn;
+                nextYn = (y + 1) * invRadiusY;
+                double nextZn = 0;
+                for (int z = 0; z <= ceilRadiusZ; ++z) {
+                    final double zn = nextZn;
+                    nextZn = (z + 1) * invRadiusZ;
+
+                    double distanceSq = lengthSq(xn, yn, zn);
+                    if (distanceSq > 1) {
+                        if (z == 0) {
+                            if (y == 0) {
+                                break forX;
+                            }
+                            break forY;
+                        }
+                        break;
+                    }
+
+                    if (!fill) {
+                        if (lengthSq(nextXn, yn, zn) <= 1 && lengthSq(xn, nextYn, zn) <= 1 && lengthSq(xn, yn, nextZn) <= 1) {
+                            continue;
+                        }
+                    }
+
+                    for (int sy = -1; sy <= 1; sy += 2) {
+                        for (int sz = -1; sz <= 1; sz += 2) {
+                            int yy = cy + y * sy;
+                            int zz = cz + z * sz;
+                            if (value) {
+                                set(cx + x, yy, zz);
+                                set(cx - x, yy, zz);
+                            } else {
+                                remove(cx + x, yy, zz);
+                                remove(cx - x, yy, zz);
+                            }
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Remove every voxel where the noise is below the threshold
+     *
+     * @param shape     the noise
+     * @param threshold the threshold
+     */
+    public void retainNoise(CNG shape, double threshold) {
+        for (int i = 0; i < touchedCount; i++) {
+            int index = touched[i];
+            long[] page = pages[index];
+            int bx = baseX(index);
+            int by = baseY(index);
+            int bz = baseZ(index);
+
+            for (int w = 0; w < 64; w++) {
+                long bits = page[w];
+                long keep = bits;
+
+                while (bits != 0) {
+                    int b = Long.numberOfTrailingZeros(bits);
+                    bits &= bits - 1;
+                    int x = bx + (b & 15);
+                    int y = by + (w >> 2);
+                    int z = bz + ((w & 3) << 2) + (b >> 4);
+
+                    if (shape.noise(x, y, z) < threshold) {
+                        keep &= ~(1L << b);
+                    }
+                }
+
+                page[w] = keep;
+            }
+        }
+    }
+
+    /**
+     * Remove every voxel which has all six neighbours set, leaving only the shell.
+     * Neighbours in the margin are real voxels of the shape, so shapes crossing the window
+     * or the world bounds do not get walls where they are cut off.
+     */
+    public void hollow() {
+        long[][] result = new long[touchedCount][];
+        int stride = width * sections;
+
+        for (int i = 0; i < touchedCount; i++) {
+            int index = touched[i];
+            int rx = index / stride;
+            int rz = (index / sections) % width;
+            int sy = index % sections;
+            long[] page = pages[index];
+            long[] east = rx + 1 < width ? pages[index + stride] : null;
+            long[] west = rx > 0 ? pages[index - stride] : null;
+            long[] south = rz + 1 < width ? pages[index + sections] : null;
+            long[] north = rz > 0 ? pages[index - sections] : null;
+            long[] up = sy + 1 < sections ? pages[index + 1] : null;
+            long[] down = sy > 0 ? pages[index - 1] : null;
+            long[] out = spare.isEmpty() ? new long[64] : spare.pop();
+
+            for (int w = 0; w < 64; w++) {
+                long cur = page[w];
+                if (cur == 0) {
+                    out[w] = 0;
+                    continue;
+                }
+
+                int y = w >> 2;
+                int zq = w & 3;
+                long e = (cur >>> 1) & ~X15 | ((at(east, w) & X0) << 15);
+                long wst = (cur << 1) & ~X0 | ((at(west, w) & X15) >>> 15);
+                long s = (cur >>> 16) | ((zq < 3 ? page[w + 1] : at(south, y << 2)) << 48);
+                long n = (cur << 16) | ((zq > 0 ? page[w - 1] : at(north, (y << 2) | 3)) >>> 48);
+                long u = y < 15 ? page[w + 4] : at(up, zq);
+                long d = y > 0 ? page[w - 4] : at(down, (15 << 2) | zq);
+                out[w] = cur & ~(e & wst & s & n & u & d);
+            }
+
+            result[i] = out;
+        }
+
+        for (int i = 0; i < touchedCount; i++) {
+            long[] old = pages[touched[i]];
+            Arrays.fill(old, 0);
+            spare.push(old);
+            pages[touched[i]] = result[i];
+        }
+    }
+
+    /**
+     * Write data into every voxel of this mask
+     *
+     * @param writer the writer to write into
+     * @param data   the data to set
+     * @param <T>    the type of data to apply to the mantle
+     */
+    public <T> void apply(MantleWriter writer, T data) {
+        apply(writer, (x, y, z) -> data);
+    }
+
+    /**
+     * Write data into every voxel of this mask, resolving chunks and sections once per page
+     *
+     * @param writer the writer to write into
+     * @param data   the data to set
+     * @param <T>    the type of data to apply to the mantle
+     */
+    public <T> void apply(MantleWriter writer, Function3<Integer, Integer, Integer, T> data) {
+        for (int i = 0; i < touchedCount; i++) {
+            int index = touched[i];
+
+            if (!inner(index)) {
+                continue;
+            }
+
+            long[] page = pages[index];
+            int bx = baseX(index);
+            int by = baseY(index);
+            int bz = baseZ(index);
+            MantleChunk chunk = writer.acquireChunk(bx >> 4, bz >> 4);
+
+            if (chunk == null) {
+                continue;
+            }
+
+            Matter matter = null;
+            Class<?> type = null;
+            MatterSlice<T> slice = null;
+
+            for (int w = 0; w < 64; w++) {
+                long bits = page[w];
+
+                while (bits != 0) {
+                    int b = Long.numberOfTrailingZeros(bits);
+                    bits &= bits - 1;
+                    int x = b & 15;
+                    int y = w >> 2;
+                    int z = ((w & 3) << 2) + (b >> 4);
+
+                    if (by + y >= height) {
+                        continue;
+                    }
+
+                    T t = data.apply(bx + x, by + y, bz + z);
+
+                    if (t == null) {
+                        continue;
+                    }
+
+                    if (matter == null) {
+                        matter = chunk.getOrCreate(by >> 4);
+                    }
+
+                    if (type != t.getClass()) {
+                        type = t.getClass();
+                        slice = matter.slice(matter.getClass(t));
+                    }
+
+                    slice.set(x, y, z, t);
+                }
+            }
+        }
+    }
+
+    private int baseX(int index) {
+        return minX + ((index / (width * sections)) << 4);
+    }
+
+    private int baseY(int index) {
+        return minY + ((index % sections) << 4);
+    }
+
+    private int baseZ(int index) {
+        return minZ + (((index / sections) % width) << 4);
+    }
+
+    private static long at(long[] page, int w) {
+        return page == null ? 0 : page[w];
+    }
+
+    private static double lengthSq(double x, double y, double z) {
+        return (x * x) + (y * y) + (z * z);
+    }
+
+    /**
+     * Walk the voxels of the lines connecting the given points. Points may be visited more than once
+     */
+    private static void line(WormPath vectors, VoxelConsumer consumer) {
+        for (int i = 0; i < vectors.size() - 1; i++) {
+            int x1 = vectors.getX(i);
+            int y1 = vectors.getY(i);
+            int z1 = vectors.getZ(i);
+            int x2 = vectors.getX(i + 1);
+            int y2 = vectors.getY(i + 1);
+            int z2 = vectors.getZ(i + 1);
+            int dx = Math.abs(x2 - x1);
+            int dy = Math.abs(y2 - y1);
+            int dz = Math.abs(z2 - z1);
+
+            if (dx + dy + dz == 0) {
+                consumer.accept(x1, y1, z1);
+                continue;
+            }
+
+            int dMax = Math.max(Math.max(dx, dy), dz);
+            if (dMax == dx) {
+                for (int domstep = 0; domstep <= dx; domstep++) {
+                    consumer.accept(x1 + domstep * (x2 - x1 > 0 ? 1 : -1),
+                            (int) Math.round(y1 + domstep * ((double) dy) / ((double) dx) * (y2 - y1 > 0 ? 1 : -1)),
+                            (int) Math.round(z1 + domstep * ((double) dz) / ((double) dx) * (z2 - z1 > 0 ? 1 : -1)));
+                }
+            } else if (dMax == dy) {
+                for (int domstep = 0; domstep <= dy; domstep++) {
+                    consumer.accept((int) Math.round(x1 + domstep * ((double) dx) / ((double) dy) * (x2 - x1 > 0 ? 1 : -1)),
+                            y1 + domstep * (y2 - y1 > 0 ? 1 : -1),
+                            (int) Math.round(z1 + domstep * ((double) dz) / ((double) dy) * (z2 - z1 > 0 ? 1 : -1)));
+                }
+            } else {
+                for (int domstep = 0; domstep <= dz; domstep++) {
+                    consumer.accept((int) Math.round(x1 + domstep * ((double) dx) / ((double) dz) * (x2 - x1 > 0 ? 1 : -1)),
+                            (int) Math.round(y1 + domstep * ((double) dy) / ((double) dz) * (y2 - y1 > 0 ? 1 : -1)),
+                            z1 + domstep * (z2 - z1 > 0 ? 1 : -1));
+                }
+            }
+        }
+    }
+
+    @FunctionalInterface
+    private interface VoxelConsumer {
+        void accept(int x, int y, int z);
+    }
+}
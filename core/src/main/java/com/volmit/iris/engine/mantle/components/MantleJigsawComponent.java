@@ -19,6 +19,7 @@
 package com.volmit.iris.engine.mantle.components;
 
 import com.volmit.iris.engine.jigsaw.PlannedStructure;
+import com.volmit.iris.engine.jigsaw.StructureIndex;
 import com.volmit.iris.engine.mantle.ComponentFlag;
 import com.volmit.iris.engine.mantle.EngineMantle;
 import com.volmit.iris.engine.mantle.IrisMantleComponent;
@@ -33,8 +34,8 @@ import com.volmit.iris.util.documentation.ChunkCoordinates;
 import com.volmit.iris.util.mantle.flag.ReservedFlag;
 import com.volmit.iris.util.math.Position2;
 import com.volmit.iris.util.math.RNG;
-import com.volmit.iris.util.matter.slices.container.JigsawStructuresContainer;
 import com.volmit.iris.util.noise.CNG;
+import lombok.Getter;
 import org.jetbrains.annotations.Nullable;
 
 import java.util.List;
@@ -42,10 +43,13 @@ import java.util.List;
 @ComponentFlag(ReservedFlag.JIGSAW)
 public class MantleJigsawComponent extends IrisMantleComponent {
     private final CNG cng;
+    @Getter
+    private final StructureIndex index;
 
     public MantleJigsawComponent(EngineMantle engineMantle) {
         super(engineMantle, ReservedFlag.JIGSAW, 1);
         cng = NoiseStyle.STATIC.create(new RNG(jigsaw()));
+        index = new StructureIndex(engineMantle.getMantle());
     }
 
     @Override
@@ -75,22 +79,18 @@ public class MantleJigsawComponent extends IrisMantleComponent {
             }
         }
 
-        KSet<Position2> cachedRegions = new KSet<>();
-        KMap<String, KSet<Position2>> cache = new KMap<>();
-        KMap<Position2, Double> distanceCache = new KMap<>();
-        boolean placed = placeStructures(writer, seed, x, z, biome.getJigsawStructures(), cachedRegions, cache, distanceCache);
+        boolean placed = placeStructures(writer, seed, x, z, biome.getJigsawStructures());
         if (!placed)
-            placed = placeStructures(writer, seed, x, z, region.getJigsawStructures(), cachedRegions, cache, distanceCache);
+            placed = placeStructures(writer, seed, x, z, region.getJigsawStructures());
         if (!placed)
-            placeStructures(writer, seed, x, z, getDimension().getJigsawStructures(), cachedRegions, cache, distanceCache);
+            placeStructures(writer, seed, x, z, getDimension().getJigsawStructures());
     }
 
     @ChunkCoordinates
-    private boolean placeStructures(MantleWriter writer, long seed, int x, int z, KList<IrisJigsawStructurePlacement> structures,
-            KSet<Position2> cachedRegions, KMap<String, KSet<Position2>> cache, KMap<Position2, Double> distanceCache) {
+    private boolean placeStructures(MantleWriter writer, long seed, int x, int z, KList<IrisJigsawStructurePlacement> structures) {
         IrisJigsawStructurePlacement i = pick(structures, seed, x, z);
         try {
-            if (i == null || checkMinDistances(i.collectMinDistances(), x, z, cachedRegions, cache, distanceCache))
+            if (i == null || checkMinDistances(i.collectMinDistances(), x, z))
                 return false;
         } catch (Throwable ignored) {}
         RNG rng = new RNG(seed);
@@ -100,40 +100,22 @@ public class MantleJigsawComponent extends IrisMantleComponent {
     }
 
     @ChunkCoordinates
-    private boolean checkMinDistances(KMap<String, Integer> minDistances, int x, int z, KSet<Position2> cachedRegions, KMap<String, KSet<Position2>> cache, KMap<Position2, Double> distanceCache) {
-        int range = 0;
-        for (int d : minDistances.values())
-            range = Math.max(range, d);
-
-        for (int xx = -range; xx <= range; xx++) {
-            for (int zz = -range; zz <= range; zz++) {
-                Position2 pos = new Position2((xx + x) >> 5, (zz + z) >> 5);
-                if (cachedRegions.contains(pos)) continue;
-                cachedRegions.add(pos);
-                JigsawStructuresContainer container = getMantle().get(pos.getX(), 0, pos.getZ(), JigsawStructuresContainer.class);
-                if (container == null) continue;
-                for (String key : container.getStructures()) {
-                    cache.computeIfAbsent(key, k -> new KSet<>()).addAll(container.getPositions(key));
-                }
-            }
-        }
-        Position2 pos = new Position2(x, z);
+    private boolean checkMinDistances(KMap<String, Integer> minDistances, int x, int z) {
         for (String structure : minDistances.keySet()) {
-            if (!cache.containsKey(structure)) continue;
-            double minDist = minDistances.get(structure);
-            minDist = minDist * minDist;
-            for (Position2 sPos : cache.get(structure)) {
-                double dist = distanceCache.computeIfAbsent(sPos,  position2 -> position2.distance(pos));
-                if (minDist > dist) return true;
-            }
+            if (index.isWithin(structure, x, z, minDistances.get(structure)))
+                return true;
         }
         return false;
     }
 
     @ChunkCoordinates
     public IrisJigsawStructure guess(int x, int z) {
+        if (getMantle().hasFlag(x, z, ReservedFlag.JIGSAW)) {
+            String key = index.getStructure(x, z);
+            return key != null ? getData().getJigsawStructureLoader().load(key) : null;
+        }
+
         // todo The guess doesnt bring into account that the placer may return -1
-        // todo doesnt bring skipped placements into account
         long seed = cng.fit(Integer.MIN_VALUE, Integer.MAX_VALUE, x, z);
         IrisBiome biome = getEngineMantle().getEngine().getSurfaceBiome((x << 4) + 8, (z << 4) + 8);
         IrisRegion region = getEngineMantle().getEngine().getRegion((x << 4) + 8, (z << 4) + 8);
@@ -150,12 +132,23 @@ public class MantleJigsawComponent extends IrisMantleComponent {
             }
         }
 
-        IrisJigsawStructurePlacement i = pick(biome.getJigsawStructures(), seed, x, z);
-        if (i == null) i = pick(region.getJigsawStructures(), seed, x, z);
-        if (i == null) i = pick(getDimension().getJigsawStructures(), seed, x, z);
+        IrisJigsawStructurePlacement i = pickUnblocked(biome.getJigsawStructures(), seed, x, z);
+        if (i == null) i = pickUnblocked(region.getJigsawStructures(), seed, x, z);
+        if (i == null) i = pickUnblocked(getDimension().getJigsawStructures(), seed, x, z);
         return i != null ? getData().getJigsawStructureLoader().load(i.getStructure()) : null;
     }
 
+    @Nullable
+    @ChunkCoordinates
+    private IrisJigsawStructurePlacement pickUnblocked(List<IrisJigsawStructurePlacement> structures, long seed, int x, int z) {
+        IrisJigsawStructurePlacement i = pick(structures, seed, x, z);
+        try {
+            if (i == null || checkMinDistances(i.collectMinDistances(), x, z))
+                return null;
+        } catch (Throwable ignored) {}
+        return i;
+    }
+
     @Nullable
     @ChunkCoordinates
     private IrisJigsawStructurePlacement pick(List<IrisJigsawStructurePlacement> structures, long seed, int x, int z) {
@@ -19,28 +19,30 @@
 package com.volmit.iris.engine.modifier;
 
 import com.volmit.iris.engine.actuator.IrisDecorantActuator;
-import com.volmit.iris.engine.data.cache.Cache;
 import com.volmit.iris.engine.framework.Engine;
 import com.volmit.iris.engine.framework.EngineAssignedModifier;
 import com.volmit.iris.engine.object.*;
 import com.volmit.iris.util.collection.KList;
-import com.volmit.iris.util.collection.KMap;
 import com.volmit.iris.util.context.ChunkContext;
 import com.volmit.iris.util.data.B;
 import com.volmit.iris.util.documentation.ChunkCoordinates;
-import com.volmit.iris.util.function.Consumer4;
 import com.volmit.iris.util.hunk.Hunk;
 import com.volmit.iris.util.mantle.Mantle;
 import com.volmit.iris.util.mantle.MantleChunk;
 import com.volmit.iris.util.math.M;
 import com.volmit.iris.util.math.RNG;
+import com.volmit.iris.util.matter.Matter;
 import com.volmit.iris.util.matter.MatterCavern;
+import com.volmit.iris.util.matter.MatterSlice;
 import com.volmit.iris.util.matter.slices.MarkerMatter;
 import com.volmit.iris.util.scheduling.PrecisionStopwatch;
 import lombok.Data;
 import org.bukkit.Material;
 import org.bukkit.block.data.BlockData;
 
+import java.util.Arrays;
+import java.util.BitSet;
+
 public class IrisCarveModifier extends EngineAssignedModifier<BlockData> {
     private final RNG rng;
     private final BlockData AIR = Material.CAVE_AIR.createBlockData();
@@ -59,48 +61,71 @@ public class IrisCarveModifier extends EngineAssignedModifier<BlockData> {
         PrecisionStopwatch p = PrecisionStopwatch.start();
         Mantle mantle = getEngine().getMantle().getMantle();
         MantleChunk mc = mantle.getChunk(x, z).use();
-        KMap<Long, KList<Integer>> positions = new KMap<>();
-        KMap<IrisPosition, MatterCavern> walls = new KMap<>();
-        Consumer4<Integer, Integer, Integer, MatterCavern> iterator = (xx, yy, zz, c) -> {
-            if (c == null) {
-                return;
+        int height = mantle.getWorldHeight();
+        int maxY = getEngine().getWorld().maxHeight() - getEngine().getWorld().minHeight();
+        MatterSlice<MatterCavern>[] slices = slices(mc, height >> 4);
+
+        // Columns are laid out as ((x << 4) | z) * height + y, so every column is one contiguous run of bits
+        BitSet carved = new BitSet(256 * height);
+        for (int s = 0; s < slices.length; s++) {
+            MatterSlice<MatterCavern> slice = slices[s];
+            if (slice == null) {
+                continue;
             }
 
-            if (yy >= getEngine().getWorld().maxHeight() - getEngine().getWorld().minHeight() || yy <= 0) { // Yes, skip bedrock
-                return;
+            for (int rx = 0; rx < 16; rx++) {
+                for (int ry = 0; ry < 16; ry++) {
+                    for (int rz = 0; rz < 16; rz++) {
+                        if (slice.get(rx, ry, rz) != null) {
+                            carved.set((((rx << 4) | rz) * height) + (s << 4) + ry);
+                        }
+                    }
+                }
             }
+        }
 
-            int rx = xx & 15;
-            int rz = zz & 15;
+        BitSet caves = new BitSet(256 * height);
+        Walls walls = new Walls();
+
+        for (int i = carved.nextSetBit(0); i >= 0; i = carved.nextSetBit(i + 1)) {
+            int column = i / height;
+            int yy = i - column * height;
+
+            if (yy >= maxY || yy <= 0) { // Yes, skip bedrock
+                continue;
+            }
 
+            int rx = column >> 4;
+            int rz = column & 15;
             BlockData current = output.get(rx, yy, rz);
 
             if (B.isFluid(current)) {
-                return;
+                continue;
             }
 
-            positions.computeIfAbsent(Cache.key(rx, rz), (k) -> new KList<>()).qadd(yy);
+            MatterCavern c = slices[yy >> 4].get(rx, yy & 15, rz);
+            caves.set(i);
 
             //todo: Fix chunk decoration not working on chunk's border
 
-            if (rz < 15 && mc.get(xx, yy, zz + 1, MatterCavern.class) == null) {
-                walls.put(new IrisPosition(rx, yy, rz + 1), c);
+            if (rz < 15 && !carved.get(i + height)) {
+                walls.add(i + height, c);
             }
 
-            if (rx < 15 && mc.get(xx + 1, yy, zz, MatterCavern.class) == null) {
-                walls.put(new IrisPosition(rx + 1, yy, rz), c);
+            if (rx < 15 && !carved.get(i + (height << 4))) {
+                walls.add(i + (height << 4), c);
             }
 
-            if (rz > 0 && mc.get(xx, yy, zz - 1, MatterCavern.class) == null) {
-                walls.put(new IrisPosition(rx, yy, rz - 1), c);
+            if (rz > 0 && !carved.get(i - height)) {
+                walls.add(i - height, c);
             }
 
-            if (rx > 0 && mc.get(xx - 1, yy, zz, MatterCavern.class) == null) {
-                walls.put(new IrisPosition(rx - 1, yy, rz), c);
+            if (rx > 0 && !carved.get(i - (height << 4))) {
+                walls.add(i - (height << 4), c);
             }
 
             if (current.getMaterial().isAir()) {
-                return;
+                continue;
             }
 
             if (c.isWater()) {
@@ -114,63 +139,86 @@ public class IrisCarveModifier extends EngineAssignedModifier<BlockData> {
                     output.set(rx, yy, rz, AIR);
                 }
             }
-        };
+        }
+
+        // Walk back from the last candidate so the last cavern to reach a wall decides it, like the old map did
+        BitSet placed = new BitSet(256 * height);
+        for (int w = walls.size - 1; w >= 0; w--) {
+            int i = walls.index[w];
+
+            if (placed.get(i)) {
+                continue;
+            }
 
-        mc.iterate(MatterCavern.class, iterator);
+            placed.set(i);
+            MatterCavern v = walls.data[w];
+            int column = i / height;
+            int wy = i - column * height;
+            int rx = column >> 4;
+            int rz = column & 15;
 
-        walls.forEach((i, v) -> {
             IrisBiome biome = v.getCustomBiome().isEmpty()
-                    ? getEngine().getCaveBiome(i.getX() + (x << 4), i.getZ() + (z << 4))
+                    ? getEngine().getCaveBiome(rx + (x << 4), rz + (z << 4))
                     : getEngine().getData().getBiomeLoader().load(v.getCustomBiome());
 
             if (biome != null) {
                 biome.setInferredType(InferredType.CAVE);
-                BlockData d = biome.getWall().get(rng, i.getX() + (x << 4), i.getY(), i.getZ() + (z << 4), getData());
+                BlockData d = biome.getWall().get(rng, rx + (x << 4), wy, rz + (z << 4), getData());
 
-                if (d != null && B.isSolid(output.get(i.getX(), i.getY(), i.getZ())) && i.getY() <= context.getHeight().get(i.getX(), i.getZ())) {
-                    output.set(i.getX(), i.getY(), i.getZ(), d);
+                if (d != null && B.isSolid(output.get(rx, wy, rz)) && wy <= context.getHeight().get(rx, rz)) {
+                    output.set(rx, wy, rz, d);
                 }
             }
-        });
+        }
 
-        positions.forEach((k, v) -> {
-            if (v.isEmpty()) {
-                return;
-            }
+        for (int column = 0; column < 256; column++) {
+            int base = column * height;
+            int end = base + height;
+            int rx = column >> 4;
+            int rz = column & 15;
+            CaveZone zone = null;
 
-            int rx = Cache.keyX(k);
-            int rz = Cache.keyZ(k);
-            v.sort(Integer::compare);
-            CaveZone zone = new CaveZone();
-            zone.setFloor(v.get(0));
-            int buf = v.get(0) - 1;
+            for (int i = caves.nextSetBit(base); i >= 0 && i < end; i = caves.nextSetBit(i + 1)) {
+                int top = Math.min(caves.nextClearBit(i), end) - 1;
 
-            for (Integer i : v) {
-                if (i < 0 || i > getEngine().getHeight()) {
-                    continue;
-                }
+                if (zone != null) {
+                    if (!zone.isValid(getEngine())) {
+                        // A column stops at its first run which is too thin to be a zone
+                        break;
+                    }
 
-                if (i == buf + 1) {
-                    buf = i;
-                    zone.ceiling = buf;
-                } else if (zone.isValid(getEngine())) {
-                    processZone(output, mc, mantle, zone, rx, rz, rx + (x << 4), rz + (z << 4));
-                    zone = new CaveZone();
-                    zone.setFloor(i);
-                    buf = i;
+                    processZone(output, slices, mantle, zone, rx, rz, rx + (x << 4), rz + (z << 4));
                 }
+
+                zone = new CaveZone();
+                zone.setFloor(i - base);
+                zone.setCeiling(top - base);
+                i = top;
             }
 
-            if (zone.isValid(getEngine())) {
-                processZone(output, mc, mantle, zone, rx, rz, rx + (x << 4), rz + (z << 4));
+            if (zone != null && zone.isValid(getEngine())) {
+                processZone(output, slices, mantle, zone, rx, rz, rx + (x << 4), rz + (z << 4));
             }
-        });
+        }
 
-        getEngine().getMetrics().getDeposit().put(p.getMilliseconds());
+        getEngine().getMetrics().getCave().put(p.getMilliseconds());
         mc.release();
     }
 
-    private void processZone(Hunk<BlockData> output, MantleChunk mc, Mantle mantle, CaveZone zone, int rx, int rz, int xx, int zz) {
+    @SuppressWarnings("unchecked")
+    private static MatterSlice<MatterCavern>[] slices(MantleChunk mc, int sections) {
+        MatterSlice<MatterCavern>[] slices = new MatterSlice[sections];
+        for (int i = 0; i < sections; i++) {
+            Matter matter = mc.get(i);
+            if (matter != null) {
+                slices[i] = matter.getSlice(MatterCavern.class);
+            }
+        }
+
+        return slices;
+    }
+
+    private void processZone(Hunk<BlockData> output, MatterSlice<MatterCavern>[] slices, Mantle mantle, CaveZone zone, int rx, int rz, int xx, int zz) {
         boolean decFloor = B.isSolid(output.getClosest(rx, zone.floor - 1, rz));
         boolean decCeiling = B.isSolid(output.getClosest(rx, zone.ceiling + 1, rz));
         int center = (zone.floor + zone.ceiling) / 2;
@@ -194,8 +242,8 @@ public class IrisCarveModifier extends EngineAssignedModifier<BlockData> {
         }
 
         for (int i = zone.floor; i <= zone.ceiling; i++) {
-            MatterCavern cavernData = (MatterCavern) mc.getOrCreate(i >> 4).slice(MatterCavern.class)
-                    .get(rx, i & 15, rz);
+            MatterSlice<MatterCavern> slice = slices[i >> 4];
+            MatterCavern cavernData = slice == null ? null : slice.get(rx, i & 15, rz);
 
             if (cavernData != null && !cavernData.getCustomBiome().isEmpty()) {
                 customBiome = cavernData.getCustomBiome();
@@ -269,6 +317,25 @@ public class IrisCarveModifier extends EngineAssignedModifier<BlockData> {
         }
     }
 
+    /**
+     * Wall candidates in the order they were found, a wall can be listed once for every cavern next to it
+     */
+    private static class Walls {
+        private int[] index = new int[256];
+        private MatterCavern[] data = new MatterCavern[256];
+        private int size;
+
+        private void add(int i, MatterCavern c) {
+            if (size == index.length) {
+                index = Arrays.copyOf(index, size * 2);
+                data = Arrays.copyOf(data, size * 2);
+            }
+
+            index[size] = i;
+            data[size++] = c;
+        }
+    }
+
     @Data
     public static class CaveZone {
         private int ceiling = -1;
@@ -34,11 +34,10 @@ import org.bukkit.block.data.MultipleFacing;
 import org.bukkit.block.data.Waterlogged;
 import org.bukkit.block.data.type.Slab;
 
-import java.util.concurrent.atomic.AtomicInteger;
-
 public class IrisPostModifier extends EngineAssignedModifier<BlockData> {
     private static final BlockData AIR = B.get("AIR");
     private static final BlockData WATER = B.get("WATER");
+    private static final int RASTER = 18;
     private final RNG rng;
 
     public IrisPostModifier(Engine engine) {
@@ -49,26 +48,44 @@ public class IrisPostModifier extends EngineAssignedModifier<BlockData> {
     @Override
     public void onModify(int x, int z, Hunk<BlockData> output, boolean multicore, ChunkContext context) {
         PrecisionStopwatch p = PrecisionStopwatch.start();
-        AtomicInteger i = new AtomicInteger();
-        AtomicInteger j = new AtomicInteger();
-        Hunk<BlockData> sync = output.synchronize();
-        for (i.set(0); i.get() < output.getWidth(); i.getAndIncrement()) {
-            for (j.set(0); j.get() < output.getDepth(); j.getAndIncrement()) {
-                int ii = i.get();
-                int jj = j.get();
-                post(ii, jj, sync, ii + x, jj + z, context);
+        int[] heights = raster(x, z);
+
+        // Columns only read their own heights and neighbours from the raster, so the hunk needs no locking
+        for (int i = 0; i < output.getWidth(); i++) {
+            for (int j = 0; j < output.getDepth(); j++) {
+                post(i, j, output, i + x, j + z, heights, context);
             }
         }
 
         getEngine().getMetrics().getPost().put(p.getMilliseconds());
     }
 
-    private void post(int currentPostX, int currentPostZ, Hunk<BlockData> currentData, int x, int z, ChunkContext context) {
-        int h = getEngine().getMantle().trueHeight(x, z);
-        int ha = getEngine().getMantle().trueHeight(x + 1, z);
-        int hb = getEngine().getMantle().trueHeight(x, z + 1);
-        int hc = getEngine().getMantle().trueHeight(x - 1, z);
-        int hd = getEngine().getMantle().trueHeight(x, z - 1);
+    /**
+     * Samples the true height of the chunk plus a one block border into a {@value RASTER}x{@value RASTER} array,
+     * indexed by {@link #index(int, int)}
+     */
+    private int[] raster(int x, int z) {
+        int[] heights = new int[RASTER * RASTER];
+
+        for (int i = -1; i < RASTER - 1; i++) {
+            for (int j = -1; j < RASTER - 1; j++) {
+                heights[index(i, j)] = getEngine().getMantle().trueHeight(x + i, z + j);
+            }
+        }
+
+        return heights;
+    }
+
+    private static int index(int currentPostX, int currentPostZ) {
+        return (currentPostX + 1) * RASTER + currentPostZ + 1;
+    }
+
+    private void post(int currentPostX, int currentPostZ, Hunk<BlockData> currentData, int x, int z, int[] heights, ChunkContext context) {
+        int h = heights[index(currentPostX, currentPostZ)];
+        int ha = heights[index(currentPostX + 1, currentPostZ)];
+        int hb = heights[index(currentPostX, currentPostZ + 1)];
+        int hc = heights[index(currentPostX - 1, currentPostZ)];
+        int hd = heights[index(currentPostX, currentPostZ - 1)];
 
         // Floating Nibs
         int g = 0;
@@ -225,14 +242,14 @@ public class IrisPostModifier extends EngineAssignedModifier<BlockData> {
         // Foliage
         b = getPostBlock(x, h + 1, z, currentPostX, currentPostZ, currentData);
 
-        if (B.isVineBlock(b) && b instanceof MultipleFacing f) {
+        if (B.isVineBlock(b) && b.clone() instanceof MultipleFacing f) {
             int finalH = h + 1;
 
             f.getAllowedFaces().forEach(face -> {
                 BlockData d = getPostBlock(x + face.getModX(), finalH + face.getModY(), z + face.getModZ(), currentPostX, currentPostZ, currentData);
                 f.setFace(face, !B.isAir(d) && !B.isVineBlock(d));
             });
-            setPostBlock(x, h + 1, z, b, currentPostX, currentPostZ, currentData);
+            setPostBlock(x, h + 1, z, f, currentPostX, currentPostZ, currentData);
         }
 
         if (B.isFoliage(b) || b.getMaterial().equals(Material.DEAD_BUSH)) {
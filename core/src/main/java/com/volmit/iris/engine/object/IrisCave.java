@@ -24,7 +24,6 @@ import com.volmit.iris.engine.framework.Engine;
 import com.volmit.iris.engine.mantle.MantleWriter;
 import com.volmit.iris.engine.object.annotations.Desc;
 import com.volmit.iris.engine.object.annotations.RegistryListResource;
-import com.volmit.iris.util.collection.KList;
 import com.volmit.iris.util.collection.KSet;
 import com.volmit.iris.util.json.JSONObject;
 import com.volmit.iris.util.math.RNG;
@@ -76,12 +75,12 @@ public class IrisCave extends IrisRegistrant {
 
     public void generate(MantleWriter writer, RNG rng, RNG base, Engine engine, int x, int y, int z, int recursion, int waterHint, boolean breakSurface) {
         double girth = getWorm().getGirth().get(base.nextParallelRNG(465156), x, z, engine.getData());
-        KList<IrisPosition> points = getWorm().generate(base.nextParallelRNG(784684), engine.getData(), writer, verticalRange, x, y, z, breakSurface, girth + 9);
+        WormPath points = getWorm().generate(base.nextParallelRNG(784684), engine.getData(), writer, verticalRange, x, y, z, breakSurface, girth + 9);
         int highestWater = Math.max(waterHint, -1);
 
         if (highestWater == -1) {
-            for (IrisPosition i : points) {
-                double yy = i.getY() + girth;
+            for (int i = 0; i < points.size(); i++) {
+                double yy = points.getY(i) + girth;
                 int th = engine.getHeight(x, z, true);
 
                 if (yy > th && th < engine.getDimension().getFluidHeight()) {
@@ -94,8 +93,8 @@ public class IrisCave extends IrisRegistrant {
 
         int h = Math.min(highestWater, engine.getDimension().getFluidHeight());
 
-        for (IrisPosition i : points) {
-            fork.doCarving(writer, rng, base, engine, i.getX(), i.getY(), i.getZ(), recursion, h);
+        for (int i = 0; i < points.size(); i++) {
+            fork.doCarving(writer, rng, base, engine, points.getX(i), points.getY(i), points.getZ(i), recursion, h);
         }
 
         MatterCavern c = new MatterCavern(true, customBiome, (byte) 0);
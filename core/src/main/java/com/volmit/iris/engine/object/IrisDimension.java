@@ -70,6 +70,7 @@ public class IrisDimension extends IrisRegistrant {
     private final transient AtomicCache<Boolean> featuresUsed = new AtomicCache<>();
     private final transient AtomicCache<KList<Position2>> strongholdsCache = new AtomicCache<>();
     private final transient AtomicCache<KMap<String, KList<String>>> cachedPreProcessors = new AtomicCache<>();
+    private final transient AtomicCache<OreIndex> oreIndexCache = new AtomicCache<>();
     @MinNumber(2)
     @Required
     @Desc("The human readable name of this dimension")
@@ -272,6 +273,10 @@ public class IrisDimension extends IrisRegistrant {
         return (int) getDimensionHeight().getMin();
     }
 
+    public OreIndex getOreIndex() {
+        return oreIndexCache.aquire(() -> new OreIndex(ores));
+    }
+
     public BlockData generateOres(int x, int y, int z, RNG rng, IrisData data, boolean surface) {
         if (ores.isEmpty()) {
             return null;
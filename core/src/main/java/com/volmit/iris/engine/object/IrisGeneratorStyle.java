@@ -132,6 +132,10 @@ public class IrisGeneratorStyle {
         return cng;
     }
 
+    public double warp(RNG rng, IrisData data, double value, double x, double y, double z) {
+        return create(rng, data).noise3(x, y, z) + value;
+    }
+
     public double warp(RNG rng, IrisData data, double value, double... coords) {
         return create(rng, data).noise(coords) + value;
     }
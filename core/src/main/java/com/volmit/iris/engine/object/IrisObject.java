@@ -29,6 +29,7 @@ import com.volmit.iris.util.collection.KList;
 import com.volmit.iris.util.collection.KMap;
 import com.volmit.iris.util.context.IrisContext;
 import com.volmit.iris.util.data.B;
+import com.volmit.iris.util.data.BlockStates;
 import com.volmit.iris.util.data.IrisCustomData;
 import com.volmit.iris.util.data.VectorMap;
 import com.volmit.iris.util.format.Form;
@@ -58,6 +59,9 @@ import org.bukkit.util.BlockVector;
 import org.bukkit.util.Vector;
 
 import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
 import java.util.*;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.atomic.AtomicInteger;
@@ -82,9 +86,7 @@ public class IrisObject extends IrisRegistrant {
     protected transient volatile boolean smartBored = false;
     @Setter
     protected transient AtomicCache<AxisAlignedBB> aabb = new AtomicCache<>();
-    @Getter
     private VectorMap<BlockData> blocks;
-    @Getter
     private VectorMap<TileData> states;
     @Getter
     @Setter
@@ -100,6 +102,17 @@ public class IrisObject extends IrisRegistrant {
     private transient Vector3i center;
     @Getter
     private transient Vector3i shrinkOffset;
+    @Getter
+    private transient volatile int revision;
+    /**
+     * The version of the format this object was read from, objects are always written in the latest one
+     */
+    @Getter
+    private transient int format = 3;
+    private transient volatile File pending;
+    private transient long pendingLength;
+    private transient long pendingModified;
+    private transient IrisObjectCodec.Header header;
 
     public IrisObject(int w, int h, int d) {
         blocks = new VectorMap<>();
@@ -156,6 +169,105 @@ public class IrisObject extends IrisRegistrant {
         return locations;
     }
 
+    /**
+     * Get the blocks of this object, reading them first if only the header of the object was loaded
+     *
+     * @return the blocks
+     */
+    public VectorMap<BlockData> getBlocks() {
+        ensureLoaded();
+        return blocks;
+    }
+
+    /**
+     * Get the tile states of this object, reading them first if only the header of the object was loaded
+     *
+     * @return the states
+     */
+    public VectorMap<TileData> getStates() {
+        ensureLoaded();
+        return states;
+    }
+
+    /**
+     * Get the amount of blocks in this object without reading them if only the header of the object was loaded
+     *
+     * @return the amount of blocks
+     */
+    public int getBlockCount() {
+        if (pending != null) {
+            return header.blocks();
+        }
+
+        return blocks.size();
+    }
+
+    /**
+     * @return true if only the header of this object was read so far
+     */
+    public boolean isLazy() {
+        return pending != null;
+    }
+
+    private void ensureLoaded() {
+        if (pending == null) {
+            return;
+        }
+
+        synchronized (this) {
+            File file = pending;
+
+            if (file == null) {
+                return;
+            }
+
+            // The header only describes the file it was read from, if it changed since read everything again
+            if (file.length() != pendingLength || file.lastModified() != pendingModified) {
+                reload(file);
+                return;
+            }
+
+            VectorMap<BlockData> b = new VectorMap<>();
+            VectorMap<TileData> s = new VectorMap<>();
+
+            try {
+                readBody(file, header, b, s);
+            } catch (Throwable e) {
+                Iris.debug("Rereading object " + getLoadKey() + " from " + file.getPath() + ": " + e.getMessage());
+                reload(file);
+                return;
+            }
+
+            // Publish the filled maps before clearing pending, readers only skip the lock once pending is null
+            blocks = b;
+            states = s;
+            revision++;
+            pending = null;
+        }
+    }
+
+    private void reload(File file) {
+        IrisObject o = new IrisObject(0, 0, 0);
+
+        try {
+            o.read(file, false);
+        } catch (Throwable e) {
+            Iris.reportError(e);
+            Iris.error("Couldn't read blocks of object " + getLoadKey() + " from " + file.getPath() + ": " + e.getMessage());
+        }
+
+        w = o.w;
+        h = o.h;
+        d = o.d;
+        center = o.center;
+        format = o.format;
+        blocks = o.blocks;
+        states = o.states;
+        aabb.reset();
+        revision++;
+        pending = null;
+    }
+
     public AxisAlignedBB getAABB() {
         return aabb.aquire(() -> getAABBFor(new BlockVector(w, h, d)));
     }
@@ -169,7 +281,7 @@ public class IrisObject extends IrisRegistrant {
         BlockData vair = debug ? VAIR_DEBUG : VAIR;
         writeLock.lock();
         AtomicInteger applied = new AtomicInteger();
-        if (blocks.isEmpty()) {
+        if (getBlocks().isEmpty()) {
             writeLock.unlock();
             Iris.warn("Cannot Smart Bore " + getLoadKey() + " because it has 0 blocks in it.");
             smartBored = true;
@@ -179,7 +291,7 @@ public class IrisObject extends IrisRegistrant {
         BlockVector max = new BlockVector(Double.MIN_VALUE, Double.MIN_VALUE, Double.MIN_VALUE);
         BlockVector min = new BlockVector(Double.MAX_VALUE, Double.MAX_VALUE, Double.MAX_VALUE);
 
-        for (BlockVector i : blocks.keys()) {
+        for (BlockVector i : getBlocks().keys()) {
             max.setX(Math.max(i.getX(), max.getX()));
             min.setX(Math.min(i.getX(), min.getX()));
             max.setY(Math.max(i.getY(), max.getY()));
@@ -199,7 +311,7 @@ public class IrisObject extends IrisRegistrant {
                     int end = Integer.MIN_VALUE;
 
                     for (int ray = min.getBlockX(); ray <= max.getBlockX(); ray++) {
-                        if (blocks.containsKey(new Vector3i(ray, finalRayY, rayZ))) {
+                        if (getBlocks().containsKey(new Vector3i(ray, finalRayY, rayZ))) {
                             start = Math.min(ray, start);
                             end = Math.max(ray, end);
                         }
@@ -209,8 +321,8 @@ public class IrisObject extends IrisRegistrant {
                         for (int i = start; i <= end; i++) {
                             Vector3i v = new Vector3i(i, finalRayY, rayZ);
 
-                            if (!vair.equals(blocks.get(v))) {
-                                blocks.computeIfAbsent(v, (vv) -> vair);
+                            if (!vair.equals(getBlocks().get(v))) {
+                                getBlocks().computeIfAbsent(v, (vv) -> vair);
                                 applied.getAndIncrement();
                             }
                         }
@@ -228,7 +340,7 @@ public class IrisObject extends IrisRegistrant {
                     int end = Integer.MIN_VALUE;
 
                     for (int ray = min.getBlockY(); ray <= max.getBlockY(); ray++) {
-                        if (blocks.containsKey(new Vector3i(finalRayX, ray, rayZ))) {
+                        if (getBlocks().containsKey(new Vector3i(finalRayX, ray, rayZ))) {
                             start = Math.min(ray, start);
                             end = Math.max(ray, end);
                         }
@@ -238,8 +350,8 @@ public class IrisObject extends IrisRegistrant {
                         for (int i = start; i <= end; i++) {
                             Vector3i v = new Vector3i(finalRayX, i, rayZ);
 
-                            if (!vair.equals(blocks.get(v))) {
-                                blocks.computeIfAbsent(v, (vv) -> vair);
+                            if (!vair.equals(getBlocks().get(v))) {
+                                getBlocks().computeIfAbsent(v, (vv) -> vair);
                                 applied.getAndIncrement();
                             }
                         }
@@ -257,7 +369,7 @@ public class IrisObject extends IrisRegistrant {
                     int end = Integer.MIN_VALUE;
 
                     for (int ray = min.getBlockZ(); ray <= max.getBlockZ(); ray++) {
-                        if (blocks.containsKey(new Vector3i(finalRayX, rayY, ray))) {
+                        if (getBlocks().containsKey(new Vector3i(finalRayX, rayY, ray))) {
                             start = Math.min(ray, start);
                             end = Math.max(ray, end);
                         }
@@ -267,8 +379,8 @@ public class IrisObject extends IrisRegistrant {
                         for (int i = start; i <= end; i++) {
                             Vector3i v = new Vector3i(finalRayX, rayY, i);
 
-                            if (!vair.equals(blocks.get(v))) {
-                                blocks.computeIfAbsent(v, (vv) -> vair);
+                            if (!vair.equals(getBlocks().get(v))) {
+                                getBlocks().computeIfAbsent(v, (vv) -> vair);
                                 applied.getAndIncrement();
                             }
                         }
@@ -279,6 +391,9 @@ public class IrisObject extends IrisRegistrant {
 
         burst.complete();
         smartBored = true;
+        if (applied.get() > 0) {
+            revision++;
+        }
         writeLock.unlock();
         Iris.debug("Smart Bore: " + getLoadKey() + " in " + Form.duration(p.getMilliseconds(), 2) + " (" + Form.f(applied.get()) + ")");
     }
@@ -290,8 +405,8 @@ public class IrisObject extends IrisRegistrant {
         o.setLoadFile(getLoadFile());
         o.setCenter(getCenter().clone());
 
-        blocks.forEach((i, v) -> o.blocks.put(i.clone(), v.clone()));
-        states.forEach((i, v) -> o.states.put(i.clone(), v.clone()));
+        getBlocks().forEach((i, v) -> o.blocks.put(i.clone(), v.clone()));
+        getStates().forEach((i, v) -> o.states.put(i.clone(), v.clone()));
 
         return o;
     }
@@ -302,6 +417,8 @@ public class IrisObject extends IrisRegistrant {
         this.h = din.readInt();
         this.d = din.readInt();
         center = new Vector3i(w / 2, h / 2, d / 2);
+        format = 1;
+        revision++;
         int s = din.readInt();
 
         for (int i = 0; i < s; i++) {
@@ -327,22 +444,40 @@ public class IrisObject extends IrisRegistrant {
         this.w = din.readInt();
         this.h = din.readInt();
         this.d = din.readInt();
-        if (!din.readUTF().equals("Iris V2 IOB;")) {
+        String f = din.readUTF();
+        center = new Vector3i(w / 2, h / 2, d / 2);
+        revision++;
+
+        if (f.equals(IrisObjectCodec.V3)) {
+            byte[] fixed = din.readNBytes(IrisObjectCodec.HEADER_SIZE);
+
+            if (fixed.length != IrisObjectCodec.HEADER_SIZE) {
+                throw new EOFException("Object header is truncated");
+            }
+
+            header = IrisObjectCodec.readHeader(w, h, d, ByteBuffer.wrap(fixed));
+            IrisObjectCodec.readBody(header, ByteBuffer.wrap(din.readNBytes(header.compressedLength())), 0, blocks, states);
+            format = 3;
+            return;
+        }
+
+        if (!f.equals(IrisObjectCodec.V2)) {
             throw new HeaderException();
         }
-        center = new Vector3i(w / 2, h / 2, d / 2);
+
+        format = 2;
         int s = din.readShort();
         int i;
-        KList<String> palette = new KList<>();
+        BlockData[] palette = new BlockData[s];
 
         for (i = 0; i < s; i++) {
-            palette.add(din.readUTF());
+            palette[i] = B.get(din.readUTF());
         }
 
         s = din.readInt();
 
         for (i = 0; i < s; i++) {
-            blocks.put(new Vector3i(din.readShort(), din.readShort(), din.readShort()), B.get(palette.get(din.readShort())));
+            blocks.put(new Vector3i(din.readShort(), din.readShort(), din.readShort()), palette[din.readShort()]);
         }
 
         s = din.readInt();
@@ -353,48 +488,16 @@ public class IrisObject extends IrisRegistrant {
     }
 
     public void write(OutputStream o) throws IOException {
-        DataOutputStream dos = new DataOutputStream(o);
-        dos.writeInt(w);
-        dos.writeInt(h);
-        dos.writeInt(d);
-        dos.writeUTF("Iris V2 IOB;");
-        KList<String> palette = new KList<>();
-
-        for (BlockData i : blocks.values()) {
-            palette.addIfMissing(i.getAsString());
-        }
-
-        dos.writeShort(palette.size());
-
-        for (String i : palette) {
-            dos.writeUTF(i);
-        }
-
-        dos.writeInt(blocks.size());
-
-        for (var entry : blocks) {
-            var i = entry.getKey();
-            dos.writeShort(i.getBlockX());
-            dos.writeShort(i.getBlockY());
-            dos.writeShort(i.getBlockZ());
-            dos.writeShort(palette.indexOf(entry.getValue().getAsString()));
-        }
-
-        dos.writeInt(states.size());
-        for (var entry : states) {
-            var i = entry.getKey();
-            dos.writeShort(i.getBlockX());
-            dos.writeShort(i.getBlockY());
-            dos.writeShort(i.getBlockZ());
-            entry.getValue().toBinary(dos);
-        }
+        IrisObjectCodec.write(new DataOutputStream(o), w, h, d, getBlocks(), getStates(), () -> {});
     }
 
     public void write(OutputStream o, VolmitSender sender) throws IOException {
         AtomicReference<IOException> ref = new AtomicReference<>();
         CountDownLatch latch = new CountDownLatch(1);
+        VectorMap<BlockData> blocks = getBlocks();
+        VectorMap<TileData> states = getStates();
         new Job() {
-            private int total = blocks.size() * 3 + states.size();
+            private final int total = blocks.size() + states.size();
             private int c = 0;
 
             @Override
@@ -405,47 +508,7 @@ public class IrisObject extends IrisRegistrant {
             @Override
             public void execute() {
                 try {
-                    DataOutputStream dos = new DataOutputStream(o);
-                    dos.writeInt(w);
-                    dos.writeInt(h);
-                    dos.writeInt(d);
-                    dos.writeUTF("Iris V2 IOB;");
-
-                    KList<String> palette = new KList<>();
-
-                    for (BlockData i : blocks.values()) {
-                        palette.addIfMissing(i.getAsString());
-                        ++c;
-                    }
-                    total -= blocks.size() - palette.size();
-
-                    dos.writeShort(palette.size());
-
-                    for (String i : palette) {
-                        dos.writeUTF(i);
-                        ++c;
-                    }
-
-                    dos.writeInt(blocks.size());
-
-                    for (var entry : blocks) {
-                        var i = entry.getKey();
-                        dos.writeShort(i.getBlockX());
-                        dos.writeShort(i.getBlockY());
-                        dos.writeShort(i.getBlockZ());
-                        dos.writeShort(palette.indexOf(entry.getValue().getAsString()));
-                        ++c;
-                    }
-
-                    dos.writeInt(states.size());
-                    for (var entry : states) {
-                        var i = entry.getKey();
-                        dos.writeShort(i.getBlockX());
-                        dos.writeShort(i.getBlockY());
-                        dos.writeShort(i.getBlockZ());
-                        entry.getValue().toBinary(dos);
-                        ++c;
-                    }
+                    IrisObjectCodec.write(new DataOutputStream(o), w, h, d, blocks, states, () -> c++);
                 } catch (IOException e) {
                     ref.set(e);
                 } finally {
@@ -475,6 +538,21 @@ public class IrisObject extends IrisRegistrant {
     }
 
     public void read(File file) throws IOException {
+        read(file, false);
+    }
+
+    /**
+     * Read an object from a file. Objects in the current format are read with positional reads,
+     * older formats are read as before and upgraded the next time the object is written.
+     *
+     * @param file the file
+     * @param lazy only read the header of objects in the current format, the blocks are read on first access
+     */
+    public void read(File file, boolean lazy) throws IOException {
+        if (readCurrent(file, lazy)) {
+            return;
+        }
+
         try (var fin = new BufferedInputStream(new FileInputStream(file))) {
             read(fin);
         } catch (Throwable e) {
@@ -486,6 +564,76 @@ public class IrisObject extends IrisRegistrant {
         }
     }
 
+    private boolean readCurrent(File file, boolean lazy) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(14 + IrisObjectCodec.V3.length() + IrisObjectCodec.HEADER_SIZE);
+        long modified = file.lastModified();
+        long size;
+
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            size = channel.size();
+
+            if (!readFully(channel, buffer, 0)) {
+                return false;
+            }
+        }
+
+        buffer.flip();
+        int w = buffer.getInt();
+        int h = buffer.getInt();
+        int d = buffer.getInt();
+
+        if (!IrisObjectCodec.readFormat(buffer, IrisObjectCodec.V3)) {
+            return false;
+        }
+
+        IrisObjectCodec.Header header = IrisObjectCodec.readHeader(w, h, d, buffer);
+        this.w = w;
+        this.h = h;
+        this.d = d;
+        center = new Vector3i(w / 2, h / 2, d / 2);
+        format = 3;
+        this.header = header;
+
+        if (lazy) {
+            pendingLength = size;
+            pendingModified = modified;
+            pending = file;
+            return true;
+        }
+
+        readBody(file, header, blocks, states);
+        return true;
+    }
+
+    /**
+     * Read the compressed body into the heap and decode it, the file is closed again before anything is decoded
+     */
+    private static void readBody(File file, IrisObjectCodec.Header header, VectorMap<BlockData> blocks, VectorMap<TileData> states) throws IOException {
+        ByteBuffer body = ByteBuffer.allocate(header.compressedLength());
+
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            if (!readFully(channel, body, header.offset())) {
+                throw new EOFException("Object body is truncated");
+            }
+        }
+
+        IrisObjectCodec.readBody(header, body, 0, blocks, states);
+    }
+
+    private static boolean readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, position);
+
+            if (read < 0) {
+                return false;
+            }
+
+            position += read;
+        }
+
+        return true;
+    }
+
     public void write(File file) throws IOException {
         if (file == null) {
             return;
@@ -494,6 +642,7 @@ public class IrisObject extends IrisRegistrant {
         FileOutputStream out = new FileOutputStream(file);
         write(out);
         out.close();
+        format = 3;
     }
 
     public void write(File file, VolmitSender sender) throws IOException {
@@ -504,14 +653,15 @@ public class IrisObject extends IrisRegistrant {
         FileOutputStream out = new FileOutputStream(file);
         write(out, sender);
         out.close();
+        format = 3;
     }
 
     public void shrinkwrap() {
-        if (blocks.isEmpty()) return;
+        if (getBlocks().isEmpty()) return;
         BlockVector min = new BlockVector(Integer.MAX_VALUE, Integer.MAX_VALUE, Integer.MAX_VALUE);
         BlockVector max = new BlockVector(Integer.MIN_VALUE, Integer.MIN_VALUE, Integer.MIN_VALUE);
 
-        for (BlockVector i : blocks.keys()) {
+        for (BlockVector i : getBlocks().keys()) {
             min.setX(Math.min(min.getX(), i.getX()));
             min.setY(Math.min(min.getY(), i.getY()));
             min.setZ(Math.min(min.getZ(), i.getZ()));
@@ -536,12 +686,12 @@ public class IrisObject extends IrisRegistrant {
         VectorMap<BlockData> b = new VectorMap<>();
         VectorMap<TileData> s = new VectorMap<>();
 
-        blocks.forEach((vector, data) -> {
+        getBlocks().forEach((vector, data) -> {
             vector.add(offset);
             b.put(vector, data);
         });
 
-        states.forEach((vector, data) -> {
+        getStates().forEach((vector, data) -> {
             vector.add(offset);
             s.put(vector, data);
         });
@@ -549,17 +699,19 @@ public class IrisObject extends IrisRegistrant {
         shrinkOffset = offset;
         blocks = b;
         states = s;
+        revision++;
     }
 
     public void clean() {
         VectorMap<BlockData> d = new VectorMap<>();
-        d.putAll(blocks);
+        d.putAll(getBlocks());
 
         VectorMap<TileData> dx = new VectorMap<>();
-        dx.putAll(states);
+        dx.putAll(getStates());
 
         blocks = d;
         states = dx;
+        revision++;
     }
 
     public Vector3i getSigned(int x, int y, int z) {
@@ -574,28 +726,30 @@ public class IrisObject extends IrisRegistrant {
         Vector3i v = getSigned(x, y, z);
 
         if (block == null) {
-            blocks.remove(v);
-            states.remove(v);
+            getBlocks().remove(v);
+            getStates().remove(v);
         } else {
-            blocks.put(v, block);
+            getBlocks().put(v, block);
         }
+        revision++;
     }
 
     public void setUnsigned(int x, int y, int z, Block block, boolean legacy) {
         Vector3i v = getSigned(x, y, z);
 
         if (block == null) {
-            blocks.remove(v);
-            states.remove(v);
+            getBlocks().remove(v);
+            getStates().remove(v);
         } else {
             BlockData data = block.getBlockData();
-            blocks.put(v, data);
+            getBlocks().put(v, data);
             TileData state = TileData.getTileState(block, legacy);
             if (state != null) {
                 Iris.debug("Saved State " + v);
-                states.put(v, state);
+                getStates().put(v, state);
             }
         }
+        revision++;
     }
 
     public int place(int x, int z, IObjectPlacer placer, IrisObjectPlacement config, RNG rng, IrisData rdata) {
@@ -651,7 +805,8 @@ public class IrisObject extends IrisRegistrant {
                     slopeRotationY = 270;
                 }
 
-                double newRotation = config.getRotation().getYAxis().getMin() + slopeRotationY;
+                // Keep the angle in one turn, otherwise every placement would compile another variant of the same rotation
+                double newRotation = ((config.getRotation().getYAxis().getMin() + slopeRotationY) % 360 + 360) % 360;
                 if (newRotation == 0) {
                     config.getRotation().setYAxis(new IrisAxisRotationClamp(false, false, 0, 0, 90));
                     config.getRotation().setEnabled(config.getRotation().canRotateX() || config.getRotation().canRotateZ());
@@ -883,6 +1038,7 @@ public class IrisObject extends IrisRegistrant {
 
         int lowest = Integer.MAX_VALUE;
         y += yrand;
+        IrisObjectVariant variant = IrisObjectVariant.of(this, config, spinx, spiny, spinz);
         readLock.lock();
 
         KMap<BlockVector, String> markers = null;
@@ -890,7 +1046,7 @@ public class IrisObject extends IrisRegistrant {
         try {
             if (config.getMarkers().isNotEmpty() && placer.getEngine() != null) {
                 markers = new KMap<>();
-                var list = StreamSupport.stream(blocks.keys().spliterator(), false)
+                var list = StreamSupport.stream(getBlocks().keys().spliterator(), false)
                         .collect(KList.collector());
 
                 for (IrisObjectMarker j : config.getMarkers()) {
@@ -906,7 +1062,7 @@ public class IrisObject extends IrisRegistrant {
                             break;
                         }
 
-                        BlockData data = blocks.get(i);
+                        BlockData data = getBlocks().get(i);
 
                         for (BlockData k : j.getMark(rdata)) {
                             if (max <= 0) {
@@ -914,8 +1070,8 @@ public class IrisObject extends IrisRegistrant {
                             }
 
                             if (j.isExact() ? k.matches(data) : k.getMaterial().equals(data.getMaterial())) {
-                                boolean a = !blocks.containsKey((BlockVector) i.clone().add(new BlockVector(0, 1, 0)));
-                                boolean fff = !blocks.containsKey((BlockVector) i.clone().add(new BlockVector(0, 2, 0)));
+                                boolean a = !getBlocks().containsKey((BlockVector) i.clone().add(new BlockVector(0, 1, 0)));
+                                boolean fff = !getBlocks().containsKey((BlockVector) i.clone().add(new BlockVector(0, 2, 0)));
 
                                 if (!marker.isEmptyAbove() || (a && fff)) {
                                     markers.put(i, j.getMarker());
@@ -927,71 +1083,75 @@ public class IrisObject extends IrisRegistrant {
                 }
             }
 
-            for (var entry : blocks) {
-                var g = entry.getKey();
-                BlockData d;
-                TileData tile = null;
-
-                try {
-                    d = entry.getValue();
-                    tile = states.get(g);
-                } catch (Throwable e) {
-                    Iris.reportError(e);
-                    Iris.warn("Failed to read block node " + g.getBlockX() + "," + g.getBlockY() + "," + g.getBlockZ() + " in object " + getLoadKey() + " (cme)");
-                    d = AIR;
-                }
-
-                if (d == null) {
-                    Iris.warn("Failed to read block node " + g.getBlockX() + "," + g.getBlockY() + "," + g.getBlockZ() + " in object " + getLoadKey() + " (null)");
-                    d = AIR;
-                }
-
-                BlockVector i = g.clone();
-                BlockData data = d.clone();
-                i = config.getRotation().rotate(i.clone(), spinx, spiny, spinz).clone();
-                i = config.getTranslate().translate(i.clone(), config.getRotation(), spinx, spiny, spinz).clone();
+            KList<IrisObjectReplace> edits = config.getEdit();
 
-                if (stilting && i.getBlockY() < lowest && !B.isAir(data)) {
-                    lowest = i.getBlockY();
-                }
-
-                if (placer.isPreventingDecay() && (data) instanceof Leaves && !((Leaves) (data)).isPersistent()) {
-                    ((Leaves) data).setPersistent(true);
-                }
+            if (stilting) {
+                lowest = variant.getLowest();
+            }
 
-                for (IrisObjectReplace j : config.getEdit()) {
-                    if (rng.chance(j.getChance())) {
-                        for (BlockData k : j.getFind(rdata)) {
-                            if (j.isExact() ? k.matches(data) : k.getMaterial().equals(data.getMaterial())) {
-                                BlockData newData = j.getReplace(rng, i.getX() + x, i.getY() + y, i.getZ() + z, rdata).clone();
+            for (int index = 0; index < variant.getSize(); index++) {
+                int ix = variant.getX(index);
+                int iy = variant.getY(index);
+                int iz = variant.getZ(index);
+                TileData tile = variant.getTile(index);
+                BlockData data;
+                boolean shared = false;
+                int flags;
+
+                if (edits.isEmpty()) {
+                    data = variant.getRotated(index);
+                    flags = variant.getFlags(index);
+                    shared = true;
+
+                    if (placer.isPreventingDecay() && data instanceof Leaves && !((Leaves) data).isPersistent()) {
+                        data = data.clone();
+                        ((Leaves) data).setPersistent(true);
+                        shared = false;
+                    }
+                } else {
+                    data = variant.getSource(index).clone();
 
-                                if (newData.getMaterial() == data.getMaterial() && !(newData instanceof IrisCustomData || data instanceof IrisCustomData))
-                                    data = data.merge(newData);
-                                else
-                                    data = newData;
+                    if (placer.isPreventingDecay() && (data) instanceof Leaves && !((Leaves) (data)).isPersistent()) {
+                        ((Leaves) data).setPersistent(true);
+                    }
 
-                                Optional<TileData> t = j.getReplace().getTile(rng, x, y, z, rdata);
-                                if (t.isPresent()) {
-                                    tile = t.get();
+                    for (IrisObjectReplace j : edits) {
+                        if (rng.chance(j.getChance())) {
+                            for (BlockData k : j.getFind(rdata)) {
+                                if (j.isExact() ? k.matches(data) : k.getMaterial().equals(data.getMaterial())) {
+                                    BlockData newData = j.getReplace(rng, ix + x, iy + y, iz + z, rdata).clone();
+
+                                    if (newData.getMaterial() == data.getMaterial() && !(newData instanceof IrisCustomData || data instanceof IrisCustomData))
+                                        data = data.merge(newData);
+                                    else
+                                        data = newData;
+
+                                    Optional<TileData> t = j.getReplace().getTile(rng, x, y, z, rdata);
+                                    if (t.isPresent()) {
+                                        tile = t.get();
+                                    }
                                 }
                             }
                         }
                     }
+
+                    data = config.getRotation().rotate(data, spinx, spiny, spinz);
+                    flags = data == null ? 0 : BlockStates.flags(BlockStates.id(data));
                 }
 
-                data = config.getRotation().rotate(data, spinx, spiny, spinz);
-                xx = x + (int) Math.round(i.getX());
+                boolean vine = (flags & BlockStates.VINE) != 0;
+                xx = x + ix;
 
-                int yy = y + (int) Math.round(i.getY());
-                zz = z + (int) Math.round(i.getZ());
+                int yy = y + iy;
+                zz = z + iz;
 
                 if (warped) {
-                    xx += config.warp(rng, i.getX() + x, i.getY() + y, i.getZ() + z, getLoader());
-                    zz += config.warp(rng, i.getZ() + z, i.getY() + y, i.getX() + x, getLoader());
+                    xx += config.warp(rng, ix + x, iy + y, iz + z, getLoader());
+                    zz += config.warp(rng, iz + z, iy + y, ix + x, getLoader());
                 }
 
-                if (yv < 0 && (config.getMode().equals(ObjectPlaceMode.PAINT)) && !B.isVineBlock(data)) {
-                    yy = (int) Math.round(i.getY()) + Math.floorDiv(h, 2) + placer.getHighest(xx, zz, getLoader(), config.isUnderwater());
+                if (yv < 0 && (config.getMode().equals(ObjectPlaceMode.PAINT)) && !vine) {
+                    yy = iy + Math.floorDiv(h, 2) + placer.getHighest(xx, zz, getLoader(), config.isUnderwater());
                 }
 
                 if (heightmap != null) {
@@ -1010,12 +1170,19 @@ public class IrisObject extends IrisRegistrant {
                     continue;
                 }
 
-                if ((config.isWaterloggable() || config.isUnderwater()) && yy <= placer.getFluidHeight() && data instanceof Waterlogged) {
+                if ((config.isWaterloggable() || config.isUnderwater()) && yy <= placer.getFluidHeight() && data instanceof Waterlogged && !((Waterlogged) data).isWaterlogged()) {
                     // TODO Here
+                    if (shared) {
+                        data = data.clone();
+                        shared = false;
+                    }
                     ((Waterlogged) data).setWaterlogged(true);
                 }
 
-                if (B.isVineBlock(data)) {
+                if (vine) {
+                    if (shared) {
+                        data = data.clone();
+                    }
                     MultipleFacing f = (MultipleFacing) data;
                     for (BlockFace face : f.getAllowedFaces()) {
                         BlockData facingBlock = placer.get(xx + face.getModX(), yy + face.getModY(), zz + face.getModZ());
@@ -1029,11 +1196,14 @@ public class IrisObject extends IrisRegistrant {
                     listener.accept(new BlockPosition(xx, yy, zz), data);
                 }
 
-                if (markers != null && markers.containsKey(g)) {
-                    placer.getEngine().getMantle().getMantle().set(xx, yy, zz, new MatterMarker(markers.get(g)));
+                if (markers != null) {
+                    String marker = markers.get(variant.getOrigin(index));
+                    if (marker != null) {
+                        placer.getEngine().getMantle().getMantle().set(xx, yy, zz, new MatterMarker(marker));
+                    }
                 }
 
-                boolean wouldReplace = B.isSolid(placer.get(xx, yy, zz)) && B.isVineBlock(data);
+                boolean wouldReplace = vine && B.isSolid(placer.get(xx, yy, zz));
                 boolean place = !data.getMaterial().equals(Material.AIR) && !data.getMaterial().equals(Material.CAVE_AIR) && !wouldReplace;
 
                 if (data instanceof IrisCustomData || place) {
@@ -1050,65 +1220,61 @@ public class IrisObject extends IrisRegistrant {
         readLock.unlock();
 
         if (stilting) {
-            readLock.lock();
             IrisStiltSettings settings = config.getStiltSettings();
-            for (BlockVector g : blocks.keys()) {
+            for (int index = 0; index < variant.getSize(); index++) {
                 BlockData d;
+                boolean shared = false;
 
                 if (settings == null || settings.getPalette() == null) {
-                    try {
-                        d = blocks.get(g);
-                    } catch (Throwable e) {
-                        Iris.reportError(e);
-                        Iris.warn("Failed to read block node " + g.getBlockX() + "," + g.getBlockY() + "," + g.getBlockZ() + " in object " + getLoadKey() + " (stilt cme)");
-                        d = AIR;
-                    }
-
-                    if (d == null) {
-                        Iris.warn("Failed to read block node " + g.getBlockX() + "," + g.getBlockY() + "," + g.getBlockZ() + " in object " + getLoadKey() + " (stilt null)");
-                        d = AIR;
-                    }
+                    d = variant.getRotated(index);
+                    shared = true;
                 } else
-                    d = config.getStiltSettings().getPalette().get(rng, x, y, z, rdata);
-
+                    d = config.getRotation().rotate(config.getStiltSettings().getPalette().get(rng, x, y, z, rdata), spinx, spiny, spinz);
 
-                BlockVector i = g.clone();
-                i = config.getRotation().rotate(i.clone(), spinx, spiny, spinz).clone();
-                i = config.getTranslate().translate(i.clone(), config.getRotation(), spinx, spiny, spinz).clone();
-                d = config.getRotation().rotate(d, spinx, spiny, spinz);
-
-                if (i.getBlockY() != lowest)
+                if (variant.getBlockY(index) != lowest)
                     continue;
 
+                int ix = variant.getX(index);
+                int iy = variant.getY(index);
+                int iz = variant.getZ(index);
+
                 for (IrisObjectReplace j : config.getEdit()) {
                     if (rng.chance(j.getChance())) {
                         for (BlockData k : j.getFind(rdata)) {
                             if (j.isExact() ? k.matches(d) : k.getMaterial().equals(d.getMaterial())) {
-                                BlockData newData = j.getReplace(rng, i.getX() + x, i.getY() + y, i.getZ() + z, rdata).clone();
+                                BlockData newData = j.getReplace(rng, ix + x, iy + y, iz + z, rdata).clone();
 
                                 if (newData.getMaterial() == d.getMaterial()) {
                                     d = d.merge(newData);
                                 } else {
                                     d = newData;
                                 }
+                                shared = false;
                             }
                         }
                     }
                 }
 
-                if (d == null || B.isAir(d))
+                int flags = d == null ? 0 : shared ? variant.getFlags(index) : BlockStates.flags(BlockStates.id(d));
+                boolean vine = (flags & BlockStates.VINE) != 0;
+
+                if (d == null || (flags & BlockStates.AIR) != 0)
                     continue;
 
-                xx = x + (int) Math.round(i.getX());
-                zz = z + (int) Math.round(i.getZ());
+                xx = x + ix;
+                zz = z + iz;
 
                 if (warped) {
-                    xx += config.warp(rng, i.getX() + x, i.getY() + y, i.getZ() + z, getLoader());
-                    zz += config.warp(rng, i.getZ() + z, i.getY() + y, i.getX() + x, getLoader());
+                    xx += config.warp(rng, ix + x, iy + y, iz + z, getLoader());
+                    zz += config.warp(rng, iz + z, iy + y, ix + x, getLoader());
                 }
 
                 int highest = placer.getHighest(xx, zz, getLoader(), true);
 
+                if (shared && (vine || d instanceof Waterlogged)) {
+                    d = d.clone();
+                }
+
                 if ((config.isWaterloggable() || config.isUnderwater()) && highest <= placer.getFluidHeight() && d instanceof Waterlogged)
                     ((Waterlogged) d).setWaterlogged(true);
 
@@ -1122,7 +1288,7 @@ public class IrisObject extends IrisRegistrant {
                         lowerBound -= Math.min(config.getStiltSettings().getYMax() - (lowest + y - highest), 0);
                 }
                 for (int j = lowest + y; j > lowerBound; j--) {
-                    if (B.isVineBlock(d)) {
+                    if (vine) {
                         MultipleFacing f = (MultipleFacing) d;
                         for (BlockFace face : f.getAllowedFaces()) {
                             BlockData facingBlock = placer.get(xx + face.getModX(), j + face.getModY(), zz + face.getModZ());
@@ -1136,7 +1302,6 @@ public class IrisObject extends IrisRegistrant {
 
             }
 
-            readLock.unlock();
         }
 
         if (heightmap != null) {
@@ -1167,32 +1332,33 @@ public class IrisObject extends IrisRegistrant {
         writeLock.lock();
         VectorMap<BlockData> d = new VectorMap<>();
 
-        for (var entry : blocks) {
+        for (var entry : getBlocks()) {
             d.put(r.rotate(entry.getKey(), spinx, spiny, spinz), r.rotate(entry.getValue(), spinx, spiny, spinz));
         }
 
         VectorMap<TileData> dx = new VectorMap<>();
 
-        for (var entry : states) {
+        for (var entry : getStates()) {
             dx.put(r.rotate(entry.getKey(), spinx, spiny, spinz), entry.getValue());
         }
 
         blocks = d;
         states = dx;
+        revision++;
         shrinkwrap();
         writeLock.unlock();
     }
 
     public void place(Location at) {
         readLock.lock();
-        for (var entry : blocks) {
+        for (var entry : getBlocks()) {
             var i = entry.getKey();
             Block b = at.clone().add(0, getCenter().getY(), 0).add(i).getBlock();
             b.setBlockData(Objects.requireNonNull(entry.getValue()), false);
 
-            if (states.containsKey(i)) {
-                Iris.info(Objects.requireNonNull(states.get(i)).toString());
-                Objects.requireNonNull(states.get(i)).toBukkitTry(b);
+            if (getStates().containsKey(i)) {
+                Iris.info(Objects.requireNonNull(getStates().get(i)).toString());
+                Objects.requireNonNull(getStates().get(i)).toBukkitTry(b);
             }
         }
         readLock.unlock();
@@ -1200,13 +1366,13 @@ public class IrisObject extends IrisRegistrant {
 
     public void placeCenterY(Location at) {
         readLock.lock();
-        for (var entry : blocks) {
+        for (var entry : getBlocks()) {
             var i = entry.getKey();
             Block b = at.clone().add(getCenter().getX(), getCenter().getY(), getCenter().getZ()).add(i).getBlock();
             b.setBlockData(Objects.requireNonNull(entry.getValue()), false);
 
-            if (states.containsKey(i)) {
-                Objects.requireNonNull(states.get(i)).toBukkitTry(b);
+            if (getStates().containsKey(i)) {
+                Objects.requireNonNull(getStates().get(i)).toBukkitTry(b);
             }
         }
         readLock.unlock();
@@ -1214,7 +1380,7 @@ public class IrisObject extends IrisRegistrant {
 
     public void unplaceCenterY(Location at) {
         readLock.lock();
-        for (BlockVector i : blocks.keys()) {
+        for (BlockVector i : getBlocks().keys()) {
             at.clone().add(getCenter().getX(), getCenter().getY(), getCenter().getZ()).add(i).getBlock().setBlockData(AIR, false);
         }
         readLock.unlock();
@@ -1245,7 +1411,7 @@ public class IrisObject extends IrisRegistrant {
         IrisObject oo = new IrisObject((int) Math.ceil((w * scale) + (scale * 2)), (int) Math.ceil((h * scale) + (scale * 2)), (int) Math.ceil((d * scale) + (scale * 2)));
 
         readLock.lock();
-        for (var entry : blocks) {
+        for (var entry : getBlocks()) {
             BlockData bd = entry.getValue();
             placeBlock.put(entry.getKey().clone().add(HALF).subtract(center)
                     .multiply(scale).add(sm1).toBlockVector(), bd);
@@ -1276,7 +1442,7 @@ public class IrisObject extends IrisRegistrant {
 
     public void trilinear(int rad) {
         writeLock.lock();
-        VectorMap<BlockData> v = blocks;
+        VectorMap<BlockData> v = getBlocks();
         VectorMap<BlockData> b = new VectorMap<>();
         BlockVector min = getAABB().minbv();
         BlockVector max = getAABB().maxbv();
@@ -1302,12 +1468,13 @@ public class IrisObject extends IrisRegistrant {
         }
 
         blocks = b;
+        revision++;
         writeLock.unlock();
     }
 
     public void tricubic(int rad) {
         writeLock.lock();
-        VectorMap<BlockData> v = blocks;
+        VectorMap<BlockData> v = getBlocks();
         VectorMap<BlockData> b = new VectorMap<>();
         BlockVector min = getAABB().minbv();
         BlockVector max = getAABB().maxbv();
@@ -1333,6 +1500,7 @@ public class IrisObject extends IrisRegistrant {
         }
 
         blocks = b;
+        revision++;
         writeLock.unlock();
     }
 
@@ -1342,7 +1510,7 @@ public class IrisObject extends IrisRegistrant {
 
     public void trihermite(int rad, double tension, double bias) {
         writeLock.lock();
-        VectorMap<BlockData> v = blocks;
+        VectorMap<BlockData> v = getBlocks();
         VectorMap<BlockData> b = new VectorMap<>();
         BlockVector min = getAABB().minbv();
         BlockVector max = getAABB().maxbv();
@@ -1368,13 +1536,14 @@ public class IrisObject extends IrisRegistrant {
         }
 
         blocks = b;
+        revision++;
         writeLock.unlock();
     }
 
     private BlockData nearestBlockData(int x, int y, int z) {
         BlockVector vv = new BlockVector(x, y, z);
         readLock.lock();
-        BlockData r = blocks.get(vv);
+        BlockData r = getBlocks().get(vv);
 
         if (r != null && !r.getMaterial().isAir()) {
             return r;
@@ -1382,7 +1551,7 @@ public class IrisObject extends IrisRegistrant {
 
         double d = Double.MAX_VALUE;
 
-        for (var entry : blocks) {
+        for (var entry : getBlocks()) {
             BlockData dat = entry.getValue();
 
             if (dat.getMaterial().isAir()) {
@@ -1402,7 +1571,7 @@ public class IrisObject extends IrisRegistrant {
     }
 
     public int volume() {
-        return blocks.size();
+        return getBlocks().size();
     }
 
     @Override
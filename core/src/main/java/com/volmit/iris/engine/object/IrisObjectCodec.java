@@ -0,0 +1,368 @@
+/*
+ * Iris is a World Generator for Minecraft Bukkit Servers
+ * Copyright (c) 2022 Arcane Arts (Volmit Software)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.volmit.iris.engine.object;
+
+import com.volmit.iris.util.collection.KList;
+import com.volmit.iris.util.data.B;
+import com.volmit.iris.util.data.Varint;
+import com.volmit.iris.util.data.VectorMap;
+import com.volmit.iris.util.math.Vector3i;
+import it.unimi.dsi.fastutil.Arrays;
+import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
+import net.jpountz.lz4.LZ4Compressor;
+import net.jpountz.lz4.LZ4Factory;
+import net.jpountz.lz4.LZ4FastDecompressor;
+import org.bukkit.block.data.BlockData;
+import org.bukkit.util.BlockVector;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Reads and writes the version 3 object format
+ * <p>
+ * INT width, INT height, INT depth (same as every older format)
+ * UTF "Iris V3 IOB;"
+ * INT block count, INT state count
+ * 6 * INT min and max corner of the blocks
+ * BYTE layout (0 = sparse, 1 = dense)
+ * INT raw body length, INT compressed body length
+ * ??? LZ4 compressed body
+ * <p>
+ * The body holds the palette, the positions of all blocks sorted by their index in the box
+ * between the corners (delta varints when sparse, a bitset over the box when dense), the bit
+ * packed palette index of every block in the same order and finally all tile states.
+ * Everything up to the body is fixed size so the header can be read without decompressing anything.
+ */
+final class IrisObjectCodec {
+    static final String V2 = "Iris V2 IOB;";
+    static final String V3 = "Iris V3 IOB;";
+    static final int HEADER_SIZE = 41;
+    private static final LZ4Compressor COMPRESSOR = LZ4Factory.fastestInstance().highCompressor();
+    private static final LZ4FastDecompressor DECOMPRESSOR = LZ4Factory.fastestInstance().fastDecompressor();
+
+    private IrisObjectCodec() {
+    }
+
+    /**
+     * Read the header which follows the format string
+     *
+     * @param w      the width
+     * @param h      the height
+     * @param d      the depth
+     * @param buffer the buffer positioned after the format string
+     * @return the header, the buffer is positioned at the start of the compressed body
+     */
+    static Header readHeader(int w, int h, int d, ByteBuffer buffer) {
+        return new Header(w, h, d, buffer.getInt(), buffer.getInt(),
+                buffer.getInt(), buffer.getInt(), buffer.getInt(),
+                buffer.getInt(), buffer.getInt(), buffer.getInt(),
+                buffer.get() == 1, buffer.getInt(), buffer.getInt(), buffer.position());
+    }
+
+    /**
+     * Read the format string at the current position of a buffer without moving past it if it does not match
+     *
+     * @param buffer the buffer
+     * @param format the expected format string
+     * @return true if the format matched and was consumed
+     */
+    static boolean readFormat(ByteBuffer buffer, String format) {
+        byte[] expected = format.getBytes(StandardCharsets.UTF_8);
+        int p = buffer.position();
+
+        if (buffer.remaining() < expected.length + 2 || (buffer.getShort(p) & 0xFFFF) != expected.length) {
+            return false;
+        }
+
+        for (int i = 0; i < expected.length; i++) {
+            if (buffer.get(p + 2 + i) != expected[i]) {
+                return false;
+            }
+        }
+
+        buffer.position(p + 2 + expected.length);
+        return true;
+    }
+
+    /**
+     * Decompress and decode the body of an object
+     *
+     * @param header the header
+     * @param buffer the buffer holding the compressed body
+     * @param offset the position of the compressed body in the buffer
+     * @param blocks the blocks to fill
+     * @param states the states to fill
+     */
+    static void readBody(Header header, ByteBuffer buffer, int offset, VectorMap<BlockData> blocks, VectorMap<TileData> states) throws IOException {
+        if ((long) offset + header.compressedLength() > buffer.limit()) {
+            throw new EOFException("Object body is truncated");
+        }
+
+        byte[] raw = new byte[header.rawLength()];
+        DECOMPRESSOR.decompress(buffer, offset, ByteBuffer.wrap(raw), 0, raw.length);
+        DataInputStream din = new DataInputStream(new ByteArrayInputStream(raw));
+
+        BlockData[] palette = new BlockData[Varint.readUnsignedVarInt(din)];
+        for (int i = 0; i < palette.length; i++) {
+            palette[i] = B.get(din.readUTF());
+        }
+
+        int count = header.blocks();
+        long sx = header.maxX() - header.minX() + 1L;
+        long sz = header.maxZ() - header.minZ() + 1L;
+        long[] positions = new long[count];
+
+        if (header.dense()) {
+            long volume = sx * sz * (header.maxY() - header.minY() + 1L);
+            long[] words = readLongs(din, (int) ((volume + 63) >>> 6));
+            int k = 0;
+
+            for (int i = 0; i < words.length && k < count; i++) {
+                long word = words[i];
+
+                while (word != 0 && k < count) {
+                    positions[k++] = ((long) i << 6) + Long.numberOfTrailingZeros(word);
+                    word &= word - 1;
+                }
+            }
+        } else {
+            long p = -1;
+
+            for (int i = 0; i < count; i++) {
+                p += Varint.readUnsignedVarLong(din) + 1;
+                positions[i] = p;
+            }
+        }
+
+        int bits = bits(palette.length);
+        long[] ids = readLongs(din, words(count, bits));
+        long mask = (1L << bits) - 1;
+
+        for (int i = 0; i < count; i++) {
+            long p = positions[i];
+            int x = (int) (p % sx);
+            p /= sx;
+            int z = (int) (p % sz);
+            int y = (int) (p / sz);
+            blocks.put(new Vector3i(x + header.minX(), y + header.minY(), z + header.minZ()), palette[(int) unpack(ids, i, bits, mask)]);
+        }
+
+        for (int i = 0; i < header.states(); i++) {
+            Vector3i v = new Vector3i(Varint.readSignedVarInt(din), Varint.readSignedVarInt(din), Varint.readSignedVarInt(din));
+            states.put(v, TileData.read(din));
+        }
+    }
+
+    /**
+     * Encode an object
+     *
+     * @param dos      the output
+     * @param w        the width
+     * @param h        the height
+     * @param d        the depth
+     * @param blocks   the blocks
+     * @param states   the states
+     * @param progress called once for every block and state written
+     */
+    static void write(DataOutputStream dos, int w, int h, int d, VectorMap<BlockData> blocks, VectorMap<TileData> states, Runnable progress) throws IOException {
+        int minX = Integer.MAX_VALUE, minY = Integer.MAX_VALUE, minZ = Integer.MAX_VALUE;
+        int maxX = Integer.MIN_VALUE, maxY = Integer.MIN_VALUE, maxZ = Integer.MIN_VALUE;
+        KList<BlockVector> keys = new KList<>();
+        KList<BlockData> values = new KList<>();
+
+        for (var entry : blocks) {
+            BlockVector i = entry.getKey();
+            minX = Math.min(minX, i.getBlockX());
+            minY = Math.min(minY, i.getBlockY());
+            minZ = Math.min(minZ, i.getBlockZ());
+            maxX = Math.max(maxX, i.getBlockX());
+            maxY = Math.max(maxY, i.getBlockY());
+            maxZ = Math.max(maxZ, i.getBlockZ());
+            keys.add(i);
+            values.add(entry.getValue());
+        }
+
+        int count = keys.size();
+        if (count == 0) {
+            minX = minY = minZ = maxX = maxY = maxZ = 0;
+        }
+
+        long sx = maxX - minX + 1L;
+        long sz = maxZ - minZ + 1L;
+        long volume = sx * sz * (maxY - minY + 1L);
+        long[] positions = new long[count];
+        int[] ids = new int[count];
+        Object2IntOpenHashMap<BlockData> index = new Object2IntOpenHashMap<>();
+        index.defaultReturnValue(-1);
+        KList<String> palette = new KList<>();
+
+        for (int i = 0; i < count; i++) {
+            BlockVector v = keys.get(i);
+            positions[i] = ((v.getBlockY() - minY) * sz + (v.getBlockZ() - minZ)) * sx + (v.getBlockX() - minX);
+            BlockData b = values.get(i);
+            int id = index.getInt(b);
+
+            if (id == -1) {
+                id = palette.size();
+                index.put(b, id);
+                palette.add(b.getAsString());
+            }
+
+            ids[i] = id;
+        }
+
+        Arrays.quickSort(0, count, (a, b) -> Long.compare(positions[a], positions[b]), (a, b) -> {
+            long p = positions[a];
+            positions[a] = positions[b];
+            positions[b] = p;
+            int id = ids[a];
+            ids[a] = ids[b];
+            ids[b] = id;
+        });
+
+        // A bitset over the box is smaller than position deltas once roughly one in twelve cells is filled
+        boolean dense = count > 0 && volume <= count * 12L && volume <= Integer.MAX_VALUE * 64L;
+        ByteArrayOutputStream boas = new ByteArrayOutputStream();
+        DataOutputStream body = new DataOutputStream(boas);
+        Varint.writeUnsignedVarInt(palette.size(), body);
+
+        for (String i : palette) {
+            body.writeUTF(i);
+        }
+
+        if (dense) {
+            long[] words = new long[(int) ((volume + 63) >>> 6)];
+
+            for (long p : positions) {
+                words[(int) (p >>> 6)] |= 1L << p;
+            }
+
+            writeLongs(body, words);
+        } else {
+            long previous = -1;
+
+            for (long p : positions) {
+                Varint.writeUnsignedVarLong(p - previous - 1, body);
+                previous = p;
+            }
+        }
+
+        int bits = bits(palette.size());
+        long[] packed = new long[words(count, bits)];
+
+        for (int i = 0; i < count; i++) {
+            pack(packed, i, bits, ids[i]);
+            progress.run();
+        }
+
+        writeLongs(body, packed);
+
+        int stateCount = 0;
+        for (var entry : states) {
+            BlockVector i = entry.getKey();
+            Varint.writeSignedVarInt(i.getBlockX(), body);
+            Varint.writeSignedVarInt(i.getBlockY(), body);
+            Varint.writeSignedVarInt(i.getBlockZ(), body);
+            entry.getValue().toBinary(body);
+            stateCount++;
+            progress.run();
+        }
+
+        body.flush();
+        byte[] raw = boas.toByteArray();
+        byte[] compressed = COMPRESSOR.compress(raw);
+
+        dos.writeInt(w);
+        dos.writeInt(h);
+        dos.writeInt(d);
+        dos.writeUTF(V3);
+        dos.writeInt(count);
+        dos.writeInt(stateCount);
+        dos.writeInt(minX);
+        dos.writeInt(minY);
+        dos.writeInt(minZ);
+        dos.writeInt(maxX);
+        dos.writeInt(maxY);
+        dos.writeInt(maxZ);
+        dos.writeByte(dense ? 1 : 0);
+        dos.writeInt(raw.length);
+        dos.writeInt(compressed.length);
+        dos.write(compressed);
+        dos.flush();
+    }
+
+    private static int bits(int paletteSize) {
+        return Math.max(1, 32 - Integer.numberOfLeadingZeros(paletteSize - 1));
+    }
+
+    private static int words(int count, int bits) {
+        return (int) (((long) count * bits + 63) >>> 6);
+    }
+
+    private static void pack(long[] words, int index, int bits, long value) {
+        long bit = (long) index * bits;
+        int word = (int) (bit >>> 6);
+        int offset = (int) (bit & 63);
+        words[word] |= value << offset;
+
+        if (offset + bits > 64) {
+            words[word + 1] |= value >>> (64 - offset);
+        }
+    }
+
+    private static long unpack(long[] words, int index, int bits, long mask) {
+        long bit = (long) index * bits;
+        int word = (int) (bit >>> 6);
+        int offset = (int) (bit & 63);
+        long value = words[word] >>> offset;
+
+        if (offset + bits > 64) {
+            value |= words[word + 1] << (64 - offset);
+        }
+
+        return value & mask;
+    }
+
+    private static long[] readLongs(DataInputStream din, int length) throws IOException {
+        long[] words = new long[length];
+        for (int i = 0; i < length; i++) {
+            words[i] = din.readLong();
+        }
+
+        return words;
+    }
+
+    private static void writeLongs(DataOutputStream dos, long[] words) throws IOException {
+        for (long i : words) {
+            dos.writeLong(i);
+        }
+    }
+
+    /**
+     * The fixed size part of a version 3 object
+     *
+     * @param offset the position of the compressed body in the file
+     */
+    record Header(int w, int h, int d, int blocks, int states,
+                  int minX, int minY, int minZ, int maxX, int maxY, int maxZ,
+                  boolean dense, int rawLength, int compressedLength, int offset) {
+    }
+}
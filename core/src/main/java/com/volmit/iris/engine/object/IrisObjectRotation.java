@@ -228,6 +228,10 @@ public class IrisObjectRotation {
 
     }
 
+    /**
+     * Rotate block data. The given data is never changed, it may be an interned instance shared by
+     * every user of the same block string, so a rotated copy is returned instead
+     */
     public BlockData rotate(BlockData dd, int spinxx, int spinyy, int spinzz) {
         BlockData d = dd;
         try {
@@ -239,6 +243,8 @@ public class IrisObjectRotation {
                 return d;
             }
 
+            d = dd.clone();
+
             if (d instanceof Directional g) {
                 BlockFace f = g.getFacing();
                 BlockVector bv = new BlockVector(f.getModX(), f.getModY(), f.getModZ());
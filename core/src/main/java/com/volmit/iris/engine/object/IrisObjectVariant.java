@@ -0,0 +1,333 @@
+/*
+ * Iris is a World Generator for Minecraft Bukkit Servers
+ * Copyright (c) 2022 Arcane Arts (Volmit Software)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.volmit.iris.engine.object;
+
+import com.volmit.iris.Iris;
+import com.volmit.iris.core.IrisSettings;
+import com.volmit.iris.core.service.PreservationSVC;
+import com.volmit.iris.util.collection.KList;
+import com.volmit.iris.util.collection.KMap;
+import com.volmit.iris.util.data.B;
+import com.volmit.iris.util.data.BlockStates;
+import com.volmit.iris.util.data.KCache;
+import com.volmit.iris.util.data.VectorMap;
+import lombok.Getter;
+import org.bukkit.block.data.BlockData;
+import org.bukkit.util.BlockVector;
+
+/**
+ * An object compiled for one rotation and translation. Every block is stored as
+ * its already rotated and translated position in primitive arrays plus an index
+ * into a palette of the source and pre-rotated block data, so placing the object
+ * is a plain loop without rotating or allocating anything per block.
+ * <p>
+ * Variants of loaded objects are kept in a cache bounded by their total block count and keyed by the object,
+ * the parts of the rotation which actually change the result and the translation.
+ */
+public class IrisObjectVariant {
+    private static final KCache<Key, IrisObjectVariant> cache = new KCache<>(Key::compile, IrisSettings.get().getPerformance().getObjectVariantCacheBlocks(), (k, v) -> Math.max(1, v.size));
+
+    static {
+        Iris.service(PreservationSVC.class).registerCache(cache);
+    }
+
+    private final VectorMap<BlockData> blocks;
+    private final int revision;
+    @Getter
+    private final int size;
+    private final int[] origin;
+    private final int[] position;
+    private final int[] blockY;
+    private final short[] ids;
+    private final BlockData[] source;
+    private final BlockData[] rotated;
+    private final int[] states;
+    private final TileData[] tiles;
+    @Getter
+    private final int lowest;
+
+    private IrisObjectVariant(Key key) {
+        IrisObject object = key.object;
+        object.readLock.lock();
+
+        try {
+            blocks = object.getBlocks();
+            revision = object.getRevision();
+            VectorMap<TileData> states = object.getStates();
+            int capacity = blocks.size();
+            origin = new int[capacity * 3];
+            position = new int[capacity * 3];
+            blockY = new int[capacity];
+            ids = new short[capacity];
+            tiles = states.isEmpty() ? null : new TileData[capacity];
+            KMap<BlockData, Short> index = new KMap<>();
+            KList<BlockData> palette = new KList<>();
+            int low = Integer.MAX_VALUE;
+            int k = 0;
+
+            for (var entry : blocks) {
+                if (k >= capacity) {
+                    break;
+                }
+
+                BlockVector g = entry.getKey();
+                BlockData d = entry.getValue();
+
+                if (d == null) {
+                    Iris.warn("Failed to read block node " + g.getBlockX() + "," + g.getBlockY() + "," + g.getBlockZ() + " in object " + object.getLoadKey() + " (null)");
+                    d = IrisObject.AIR;
+                }
+
+                BlockVector i = key.rotation.rotate(g.clone(), key.spinx, key.spiny, key.spinz).clone();
+                i = key.translate.translate(i.clone(), key.rotation, key.spinx, key.spiny, key.spinz).clone();
+                int o = k * 3;
+                origin[o] = g.getBlockX();
+                origin[o + 1] = g.getBlockY();
+                origin[o + 2] = g.getBlockZ();
+                position[o] = (int) Math.round(i.getX());
+                position[o + 1] = (int) Math.round(i.getY());
+                position[o + 2] = (int) Math.round(i.getZ());
+                blockY[k] = i.getBlockY();
+
+                if (blockY[k] < low && !B.isAir(d)) {
+                    low = blockY[k];
+                }
+
+                Short id = index.get(d);
+                if (id == null) {
+                    if (palette.size() > Short.MAX_VALUE) {
+                        throw new IllegalStateException("Object " + object.getLoadKey() + " has more than " + (Short.MAX_VALUE + 1) + " unique block states");
+                    }
+
+                    id = (short) palette.size();
+                    index.put(d, id);
+                    palette.add(d);
+                }
+
+                ids[k] = id;
+
+                if (tiles != null) {
+                    tiles[k] = states.get(g);
+                }
+
+                k++;
+            }
+
+            size = k;
+            lowest = low;
+            source = palette.toArray(new BlockData[0]);
+            rotated = new BlockData[source.length];
+            states = new int[source.length];
+            for (int i = 0; i < source.length; i++) {
+                rotated[i] = key.rotation.rotate(source[i].clone(), key.spinx, key.spiny, key.spinz);
+                states[i] = rotated[i] == null ? BlockStates.UNKNOWN : BlockStates.id(rotated[i]);
+            }
+        } finally {
+            object.readLock.unlock();
+        }
+    }
+
+    /**
+     * Get the compiled variant of an object for the rotation and translation of a placement
+     *
+     * @param object the object
+     * @param config the placement
+     * @param spinx  the x spin
+     * @param spiny  the y spin
+     * @param spinz  the z spin
+     * @return the variant
+     */
+    public static IrisObjectVariant of(IrisObject object, IrisObjectPlacement config, int spinx, int spiny, int spinz) {
+        Key key = new Key(object, config.getRotation(), config.getTranslate(), spinx, spiny, spinz);
+
+        // Objects which were not loaded from a pack are mostly built for a single placement
+        if (object.getLoadKey() == null) {
+            return new IrisObjectVariant(key);
+        }
+
+        IrisObjectVariant variant = cache.get(key);
+        if (variant.blocks != object.getBlocks() || variant.revision != object.getRevision()) {
+            cache.invalidate(key);
+            variant = cache.get(key);
+        }
+
+        return variant;
+    }
+
+    /**
+     * The rotated and translated x of the block at the given index
+     */
+    public int getX(int index) {
+        return position[index * 3];
+    }
+
+    /**
+     * The rotated and translated y of the block at the given index (rounded)
+     */
+    public int getY(int index) {
+        return position[index * 3 + 1];
+    }
+
+    /**
+     * The rotated and translated z of the block at the given index
+     */
+    public int getZ(int index) {
+        return position[index * 3 + 2];
+    }
+
+    /**
+     * The rotated and translated y of the block at the given index (floored)
+     */
+    public int getBlockY(int index) {
+        return blockY[index];
+    }
+
+    /**
+     * Create the original (unrotated) position of the block at the given index
+     */
+    public BlockVector getOrigin(int index) {
+        int o = index * 3;
+        return new BlockVector(origin[o], origin[o + 1], origin[o + 2]);
+    }
+
+    /**
+     * The unrotated block data at the given index. This instance is shared, clone it before modifying it
+     */
+    public BlockData getSource(int index) {
+        return source[ids[index]];
+    }
+
+    /**
+     * The rotated block data at the given index. This instance is shared, clone it before modifying it
+     */
+    public BlockData getRotated(int index) {
+        return rotated[ids[index]];
+    }
+
+    /**
+     * The {@link BlockStates} flags of the rotated block data at the given index
+     */
+    public int getFlags(int index) {
+        int state = states[ids[index]];
+        return state == BlockStates.UNKNOWN ? 0 : BlockStates.flags(state);
+    }
+
+    public TileData getTile(int index) {
+        return tiles == null ? null : tiles[index];
+    }
+
+    private static final class Key {
+        private final IrisObject object;
+        private final IrisObjectRotation rotation;
+        private final IrisObjectTranslate translate;
+        private final int spinx;
+        private final int spiny;
+        private final int spinz;
+        private final int modes;
+        private final double x;
+        private final double xq;
+        private final double y;
+        private final double yq;
+        private final double z;
+        private final double zq;
+        private final int tx;
+        private final int ty;
+        private final int tz;
+        private final int hash;
+
+        private Key(IrisObject object, IrisObjectRotation rotation, IrisObjectTranslate translate, int spinx, int spiny, int spinz) {
+            this.object = object;
+            this.rotation = rotation;
+            this.translate = translate;
+            this.spinx = spinx;
+            this.spiny = spiny;
+            this.spinz = spinz;
+            int qx = quantize(spinx);
+            int qy = quantize(spiny);
+            int qz = quantize(spinz);
+            modes = mode(rotation.getXAxis(), rotation.canRotateX())
+                    | mode(rotation.getYAxis(), rotation.canRotateY()) << 2
+                    | mode(rotation.getZAxis(), rotation.canRotateZ()) << 4;
+            x = angle(rotation, rotation.getXAxis(), spinx);
+            xq = rotation.getRotation(qx, rotation.getXAxis());
+            y = angle(rotation, rotation.getYAxis(), spiny);
+            yq = rotation.getRotation(qy, rotation.getYAxis());
+            z = angle(rotation, rotation.getZAxis(), spinz);
+            zq = rotation.getRotation(qz, rotation.getZAxis());
+            tx = translate.getX();
+            ty = translate.getY();
+            tz = translate.getZ();
+
+            int h = System.identityHashCode(object);
+            h = 31 * h + modes;
+            h = 31 * h + Double.hashCode(x);
+            h = 31 * h + Double.hashCode(xq);
+            h = 31 * h + Double.hashCode(y);
+            h = 31 * h + Double.hashCode(yq);
+            h = 31 * h + Double.hashCode(z);
+            h = 31 * h + Double.hashCode(zq);
+            h = 31 * h + tx;
+            h = 31 * h + ty;
+            h = 31 * h + tz;
+            hash = h;
+        }
+
+        /**
+         * Block data is rotated by right angles only, see {@link IrisObjectRotation#rotate(BlockData, int, int, int)}
+         */
+        private static int quantize(int spin) {
+            return (int) (90D * (Math.ceil(Math.abs((spin % 360D) / 90D))));
+        }
+
+        private static int mode(IrisAxisRotationClamp axis, boolean enabled) {
+            if (!enabled) {
+                return 0;
+            }
+
+            return axis.isLocked() ? 1 : 2;
+        }
+
+        /**
+         * Locked axes are rotated by their fixed angle, all others by the clamped radians of the spin
+         */
+        private static double angle(IrisObjectRotation rotation, IrisAxisRotationClamp axis, int spin) {
+            return axis.isLocked() ? axis.getMax() : rotation.getRotation(spin, axis);
+        }
+
+        private IrisObjectVariant compile() {
+            return new IrisObjectVariant(this);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key k)) return false;
+            return object == k.object && modes == k.modes
+                    && Double.compare(x, k.x) == 0 && Double.compare(xq, k.xq) == 0
+                    && Double.compare(y, k.y) == 0 && Double.compare(yq, k.yq) == 0
+                    && Double.compare(z, k.z) == 0 && Double.compare(zq, k.zq) == 0
+                    && tx == k.tx && ty == k.ty && tz == k.tz;
+        }
+    }
+}
@@ -57,6 +57,10 @@ public class IrisOreGenerator {
             return null;
         }
 
+        return generateInRange(x, y, z, rng, data);
+    }
+
+    BlockData generateInRange(int x, int y, int z, RNG rng, IrisData data) {
         CNG chance = chanceCache.aquire(() -> chanceStyle.create(rng, data));
 
         if (chance.noise(x, y, z) > threshold) {
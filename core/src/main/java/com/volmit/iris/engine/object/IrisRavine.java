@@ -22,11 +22,11 @@ import com.volmit.iris.core.loader.IrisData;
 import com.volmit.iris.core.loader.IrisRegistrant;
 import com.volmit.iris.engine.framework.Engine;
 import com.volmit.iris.engine.mantle.MantleWriter;
+import com.volmit.iris.engine.mantle.VoxelMask;
 import com.volmit.iris.engine.object.annotations.Desc;
 import com.volmit.iris.engine.object.annotations.MaxNumber;
 import com.volmit.iris.engine.object.annotations.MinNumber;
 import com.volmit.iris.engine.object.annotations.RegistryListResource;
-import com.volmit.iris.util.collection.KList;
 import com.volmit.iris.util.json.JSONObject;
 import com.volmit.iris.util.math.RNG;
 import com.volmit.iris.util.matter.MatterCavern;
@@ -97,16 +97,16 @@ public class IrisRavine extends IrisRegistrant {
     }
 
     public void generate(MantleWriter writer, RNG rng, RNG base, Engine engine, int x, int y, int z, int recursion, int waterHint) {
-        KList<IrisPosition> pos = getWorm().generate(base.nextParallelRNG(879615), engine.getData(), writer, null, x, y, z, true, 0);
+        WormPath pos = getWorm().generate(base.nextParallelRNG(879615), engine.getData(), writer, null, x, y, z, true, 0);
         CNG dg = depthStyle.getGenerator().create(base.nextParallelRNG(7894156), engine.getData());
         CNG bw = baseWidthStyle.getGenerator().create(base.nextParallelRNG(15315456), engine.getData());
         int highestWater = Math.max(waterHint, -1);
         boolean water = false;
 
         if (highestWater == -1) {
-            for (IrisPosition i : pos) {
+            for (int i = 0; i < pos.size(); i++) {
                 int rsurface = y == -1 ? engine.getComplex().getHeightStream().get(x, z).intValue() : y;
-                int depth = (int) Math.round(dg.fitDouble(depthStyle.getMin(), depthStyle.getMax(), i.getX(), i.getZ()));
+                int depth = (int) Math.round(dg.fitDouble(depthStyle.getMin(), depthStyle.getMax(), pos.getX(i), pos.getZ(i)));
                 int surface = (int) Math.round(rsurface - depth * 0.45);
                 int yy = surface + depth;
                 int th = engine.getHeight(x, z, true);
@@ -128,53 +128,69 @@ public class IrisRavine extends IrisRegistrant {
             return;
         }
 
-        for (IrisPosition p : pos) {
-            int rsurface = y == -1 ? engine.getComplex().getHeightStream().get(x, z).intValue() : y;
-            int depth = (int) Math.round(dg.fitDouble(depthStyle.getMin(), depthStyle.getMax(), p.getX(), p.getZ()));
-            int width = (int) Math.round(bw.fitDouble(baseWidthStyle.getMin(), baseWidthStyle.getMax(), p.getX(), p.getZ()));
-            int surface = (int) Math.round(rsurface - depth * 0.45);
+        // Later ribs overwrite earlier ones, so stamping into one mask removes the voxels from the other
+        try (VoxelMask cave = VoxelMask.acquire(writer); VoxelMask lava = VoxelMask.acquire(writer)) {
+            for (int n = 0; n < pos.size(); n++) {
+                int px = pos.getX(n);
+                int pz = pos.getZ(n);
+                int rsurface = y == -1 ? engine.getComplex().getHeightStream().get(x, z).intValue() : y;
+                int depth = (int) Math.round(dg.fitDouble(depthStyle.getMin(), depthStyle.getMax(), px, pz));
+                int width = (int) Math.round(bw.fitDouble(baseWidthStyle.getMin(), baseWidthStyle.getMax(), px, pz));
+                int surface = (int) Math.round(rsurface - depth * 0.45);
 
-            fork.doCarving(writer, rng, base, engine, p.getX(), rng.i(surface - depth, surface), p.getZ(), recursion, highestWater);
+                fork.doCarving(writer, rng, base, engine, px, rng.i(surface - depth, surface), pz, recursion, highestWater);
 
-            for (int i = surface + depth; i >= surface; i--) {
-                if (i % ribThickness == 0) {
-                    double v = width + ((((surface + depth) - i) * (angle / 360D)));
+                for (int i = surface + depth; i >= surface; i--) {
+                    if (i % ribThickness == 0) {
+                        double v = width + ((((surface + depth) - i) * (angle / 360D)));
 
-                    if (v <= 0.25) {
-                        break;
-                    }
+                        if (v <= 0.25) {
+                            break;
+                        }
 
-                    if (i <= ribThickness + 2) {
-                        break;
-                    }
+                        if (i <= ribThickness + 2) {
+                            break;
+                        }
 
-                    if (lavaLevel >= 0 && i <= lavaLevel + (surface - depthStyle.getMid())) {
-                        writer.setElipsoid(p.getX(), i, p.getZ(), v, ribThickness, v, true, l);
-                    } else {
-                        writer.setElipsoid(p.getX(), i, p.getZ(), v, ribThickness, v, true, c);
+                        if (lavaLevel >= 0 && i <= lavaLevel + (surface - depthStyle.getMid())) {
+                            stamp(lava, cave, px, i, pz, v);
+                        } else {
+                            stamp(cave, lava, px, i, pz, v);
+                        }
                     }
                 }
-            }
 
-            for (int i = surface - depth; i <= surface; i++) {
-                if (i % ribThickness == 0) {
-                    double v = width - ((((surface - depth) - i) * (angle / 360D)));
+                for (int i = surface - depth; i <= surface; i++) {
+                    if (i % ribThickness == 0) {
+                        double v = width - ((((surface - depth) - i) * (angle / 360D)));
 
-                    if (v <= 0.25) {
-                        break;
-                    }
+                        if (v <= 0.25) {
+                            break;
+                        }
 
-                    if (i <= ribThickness + 2) {
-                        break;
-                    }
+                        if (i <= ribThickness + 2) {
+                            break;
+                        }
 
-                    if (lavaLevel >= 0 && i <= lavaLevel + (surface - depthStyle.getMid())) {
-                        writer.setElipsoid(p.getX(), i, p.getZ(), v, ribThickness, v, true, l);
-                    } else {
-                        writer.setElipsoid(p.getX(), i, p.getZ(), v, ribThickness, v, true, c);
+                        if (lavaLevel >= 0 && i <= lavaLevel + (surface - depthStyle.getMid())) {
+                            stamp(lava, cave, px, i, pz, v);
+                        } else {
+                            stamp(cave, lava, px, i, pz, v);
+                        }
                     }
                 }
             }
+
+            cave.apply(writer, c);
+            lava.apply(writer, l);
+        }
+    }
+
+    private void stamp(VoxelMask into, VoxelMask from, int x, int y, int z, double v) {
+        into.stampElipsoid(x, y, z, v, ribThickness, v, true, true);
+
+        if (!from.isEmpty()) {
+            from.stampElipsoid(x, y, z, v, ribThickness, v, true, false);
         }
     }
 
@@ -56,6 +56,7 @@ public class IrisRegion extends IrisRegistrant implements IRare {
     private final transient AtomicCache<KList<IrisObjectPlacement>> carveObjectsCache = new AtomicCache<>();
     private final transient AtomicCache<KList<String>> cacheRidge = new AtomicCache<>();
     private final transient AtomicCache<KList<String>> cacheSpot = new AtomicCache<>();
+    private final transient AtomicCache<OreIndex> oreIndexCache = new AtomicCache<>();
     private final transient AtomicCache<CNG> shoreHeightGenerator = new AtomicCache<>();
     private final transient AtomicCache<KList<IrisBiome>> realLandBiomes = new AtomicCache<>();
     private final transient AtomicCache<KList<IrisBiome>> realLakeBiomes = new AtomicCache<>();
@@ -151,6 +152,10 @@ public class IrisRegion extends IrisRegistrant implements IRare {
     @ArrayType(type = IrisOreGenerator.class, min = 1)
     private KList<IrisOreGenerator> ores = new KList<>();
 
+    public OreIndex getOreIndex() {
+        return oreIndexCache.aquire(() -> new OreIndex(ores));
+    }
+
     public BlockData generateOres(int x, int y, int z, RNG rng, IrisData data, boolean surface) {
         if (ores.isEmpty()) {
             return null;
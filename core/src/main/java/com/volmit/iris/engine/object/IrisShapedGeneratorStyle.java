@@ -59,6 +59,14 @@ public class IrisShapedGeneratorStyle {
         this.generator = new IrisGeneratorStyle(style);
     }
 
+    public double get(RNG rng, IrisData data, double x, double z) {
+        return generator.create(rng, data).fitDouble(min, max, x, z);
+    }
+
+    public double get(RNG rng, IrisData data, double x, double y, double z) {
+        return generator.create(rng, data).fitDouble(min, max, x, y, z);
+    }
+
     public double get(RNG rng, IrisData data, double... dim) {
         return generator.create(rng, data).fitDouble(min, max, dim);
     }
@@ -22,17 +22,15 @@ import com.volmit.iris.core.loader.IrisData;
 import com.volmit.iris.engine.mantle.MantleWriter;
 import com.volmit.iris.engine.object.annotations.Desc;
 import com.volmit.iris.engine.object.annotations.Snippet;
-import com.volmit.iris.util.collection.KList;
-import com.volmit.iris.util.collection.KSet;
+import com.volmit.iris.util.math.BlockPosition;
 import com.volmit.iris.util.math.RNG;
 import com.volmit.iris.util.noise.CNG;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import lombok.experimental.Accessors;
 
-import java.util.function.Consumer;
-
 @Snippet("worm")
 @Accessors(chain = true)
 @NoArgsConstructor
@@ -62,52 +60,58 @@ public class IrisWorm {
     private IrisStyledRange girth = new IrisStyledRange().setMin(3).setMax(5)
             .setStyle(new IrisGeneratorStyle(NoiseStyle.PERLIN));
 
-    public KList<IrisPosition> generate(RNG rng, IrisData data, MantleWriter writer, IrisRange verticalRange, int x, int y, int z, boolean breakSurface, double distance) {
+    public WormPath generate(RNG rng, IrisData data, MantleWriter writer, IrisRange verticalRange, int x, int y, int z, boolean breakSurface, double distance) {
         int itr = maxIterations;
-        double jx, jy, jz;
         double cx = x;
         double cy = y;
         double cz = z;
-        IrisPosition start = new IrisPosition(x, y, z);
-        KList<IrisPosition> pos = new KList<>();
-        KSet<IrisPosition> check = allowLoops ? null : new KSet<>();
+        long maxDistanceSquared = (long) maxDistance * maxDistance;
+        WormPath pos = new WormPath(Math.min(maxIterations, 64));
+        LongOpenHashSet check = allowLoops ? null : new LongOpenHashSet(Math.min(maxIterations, 64));
         CNG gx = xStyle.getGenerator().create(rng.nextParallelRNG(14567), data);
         CNG gy = yStyle.getGenerator().create(rng.nextParallelRNG(64789), data);
         CNG gz = zStyle.getGenerator().create(rng.nextParallelRNG(34790), data);
 
         while (itr-- > 0) {
-            IrisPosition current = new IrisPosition(Math.round(cx), Math.round(cy), Math.round(cz));
-            pos.add(current);
+            int px = (int) Math.round(cx);
+            int py = (int) Math.round(cy);
+            int pz = (int) Math.round(cz);
+            pos.add(px, py, pz);
 
             if (check != null) {
-                check.add(current);
+                check.add(BlockPosition.toLong(px, py, pz));
             }
 
-            jx = gx.fitDouble(xStyle.getMin(), xStyle.getMax(), cx, cy, cz);
-            jy = gy.fitDouble(yStyle.getMin(), yStyle.getMax(), cx, cy, cz);
-            jz = gz.fitDouble(zStyle.getMin(), zStyle.getMax(), cx, cy, cz);
+            double jx = gx.fitDouble(xStyle.getMin(), xStyle.getMax(), cx, cy, cz);
+            double jy = gy.fitDouble(yStyle.getMin(), yStyle.getMax(), cx, cy, cz);
+            double jz = gz.fitDouble(zStyle.getMin(), zStyle.getMax(), cx, cy, cz);
             cx += jx;
             cy += jy;
             cz += jz;
-            IrisPosition next = new IrisPosition(Math.round(cx), Math.round(cy), Math.round(cz));
+            int nx = (int) Math.round(cx);
+            int ny = (int) Math.round(cy);
+            int nz = (int) Math.round(cz);
 
-            if (!breakSurface && writer.getEngineMantle().getHighest(next.getX(), next.getZ(), true) <= next.getY() + distance) {
+            if (!breakSurface && writer.getTrueHeight(nx, nz) <= ny + distance) {
                 break;
             }
 
-            if (verticalRange != null && !verticalRange.contains(next.getY())) {
+            if (verticalRange != null && !verticalRange.contains(ny)) {
                 break;
             }
 
-            if (!writer.isWithin((int) Math.round(cx), verticalRange != null ? (int) Math.round(cy) : 5, (int) Math.round(cz))) {
+            if (!writer.isWithin(nx, verticalRange != null ? ny : 5, nz)) {
                 break;
             }
 
-            if (next.isLongerThan(start, maxDistance)) {
+            long dx = x - nx;
+            long dy = y - ny;
+            long dz = z - nz;
+            if (dx * dx + dy * dy + dz * dz > maxDistanceSquared) {
                 break;
             }
 
-            if (check != null && check.contains(next)) {
+            if (check != null && check.contains(BlockPosition.toLong(nx, ny, nz))) {
                 break;
             }
         }
@@ -0,0 +1,98 @@
+/*
+ * Iris is a World Generator for Minecraft Bukkit Servers
+ * Copyright (c) 2022 Arcane Arts (Volmit Software)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.volmit.iris.engine.object;
+
+import com.volmit.iris.core.loader.IrisData;
+import com.volmit.iris.util.collection.KList;
+import com.volmit.iris.util.math.RNG;
+import org.bukkit.block.data.BlockData;
+
+import java.util.Arrays;
+
+/**
+ * Vertical index of the ore generators of a biome, region or dimension.
+ * For every y it holds the generators (in their original order) whose range
+ * contains that y, split into surface and non-surface ores, so a column only
+ * evaluates the generators which can possibly place something.
+ */
+public class OreIndex {
+    private static final IrisOreGenerator[] NONE = new IrisOreGenerator[0];
+
+    private final IrisOreGenerator[][] surface;
+    private final IrisOreGenerator[][] underground;
+
+    public OreIndex(KList<IrisOreGenerator> ores) {
+        int top = -1;
+        for (IrisOreGenerator i : ores) {
+            if (!i.getPalette().getPalette().isEmpty()) {
+                top = Math.max(top, (int) Math.min(Math.floor(i.getRange().getMax()), 4095));
+            }
+        }
+
+        surface = new IrisOreGenerator[top + 1][];
+        underground = new IrisOreGenerator[top + 1][];
+        for (int y = 0; y <= top; y++) {
+            surface[y] = candidates(ores, y, true, y > 0 ? surface[y - 1] : NONE);
+            underground[y] = candidates(ores, y, false, y > 0 ? underground[y - 1] : NONE);
+        }
+    }
+
+    private static IrisOreGenerator[] candidates(KList<IrisOreGenerator> ores, int y, boolean surface, IrisOreGenerator[] previous) {
+        KList<IrisOreGenerator> c = new KList<>();
+        for (IrisOreGenerator i : ores) {
+            if (i.isGenerateSurface() == surface && !i.getPalette().getPalette().isEmpty() && i.getRange().contains(y)) {
+                c.add(i);
+            }
+        }
+
+        IrisOreGenerator[] a = c.isEmpty() ? NONE : c.toArray(new IrisOreGenerator[0]);
+        return Arrays.equals(a, previous) ? previous : a;
+    }
+
+    /**
+     * Generate the first ore which applies at the given position
+     *
+     * @param x       the x
+     * @param y       the y relative to the bottom of the world (0+)
+     * @param z       the z
+     * @param rng     the rng
+     * @param data    the data
+     * @param surface if the block is part of the surface layers
+     * @return the ore or null
+     */
+    public BlockData generate(int x, int y, int z, RNG rng, IrisData data, boolean surface) {
+        IrisOreGenerator[][] index = surface ? this.surface : underground;
+        if (y < 0 || y >= index.length) {
+            return null;
+        }
+
+        for (IrisOreGenerator i : index[y]) {
+            BlockData b = i.generateInRange(x, y, z, rng, data);
+            if (b != null) {
+                return b;
+            }
+        }
+
+        return null;
+    }
+
+    public boolean isEmpty() {
+        return surface.length == 0;
+    }
+}
@@ -0,0 +1,92 @@
+/*
+ * Iris is a World Generator for Minecraft Bukkit Servers
+ * Copyright (c) 2022 Arcane Arts (Volmit Software)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.volmit.iris.engine.object;
+
+import com.volmit.iris.util.collection.KList;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The points of a traced path (like a worm) packed as x, y, z triples
+ */
+public class WormPath {
+    private int[] coordinates;
+    private int size;
+
+    public WormPath(int capacity) {
+        coordinates = new int[Math.max(capacity, 1) * 3];
+    }
+
+    /**
+     * Create a path from a list of points
+     *
+     * @param points the points
+     * @return the path
+     */
+    public static WormPath of(List<IrisPosition> points) {
+        WormPath path = new WormPath(points.size());
+        for (IrisPosition i : points) {
+            path.add(i.getX(), i.getY(), i.getZ());
+        }
+
+        return path;
+    }
+
+    public void add(int x, int y, int z) {
+        int o = size * 3;
+        if (o + 3 > coordinates.length) {
+            coordinates = Arrays.copyOf(coordinates, coordinates.length * 2);
+        }
+
+        coordinates[o] = x;
+        coordinates[o + 1] = y;
+        coordinates[o + 2] = z;
+        size++;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public int getX(int index) {
+        return coordinates[index * 3];
+    }
+
+    public int getY(int index) {
+        return coordinates[index * 3 + 1];
+    }
+
+    public int getZ(int index) {
+        return coordinates[index * 3 + 2];
+    }
+
+    public KList<IrisPosition> toList() {
+        KList<IrisPosition> points = new KList<>(size);
+        for (int i = 0; i < size; i++) {
+            points.add(new IrisPosition(getX(i), getY(i), getZ(i)));
+        }
+
+        return points;
+    }
+}
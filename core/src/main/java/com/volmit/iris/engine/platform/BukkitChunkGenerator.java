@@ -22,6 +22,7 @@ import com.volmit.iris.Iris;
 import com.volmit.iris.core.IrisSettings;
 import com.volmit.iris.core.IrisWorlds;
 import com.volmit.iris.core.loader.IrisData;
+import com.volmit.iris.core.loader.PackIndex;
 import com.volmit.iris.core.nms.INMS;
 import com.volmit.iris.core.service.StudioSVC;
 import com.volmit.iris.engine.IrisEngine;
@@ -102,7 +103,13 @@ public class BukkitChunkGenerator extends ChunkGenerator implements PlatformChun
         this.studio = studio;
         this.dataLocation = dataLocation;
         this.dimensionKey = dimensionKey;
-        this.folder = new ReactiveFolder(dataLocation, (_a, _b, _c) -> hotload());
+        this.folder = new ReactiveFolder(dataLocation, (created, changed, deleted) -> {
+            PackIndex index = IrisData.getLoaded(dataLocation).map(IrisData::getIndex).orElse(null);
+
+            if (index == null || index.invalidate(new KList<File>().add(created).add(changed).add(deleted))) {
+                hotload();
+            }
+        });
         Bukkit.getServer().getPluginManager().registerEvents(this, Iris.instance);
     }
 
@@ -0,0 +1,56 @@
+package com.volmit.iris.util.cache;
+
+import com.googlecode.concurrentlinkedhashmap.ConcurrentLinkedHashMap;
+import com.volmit.iris.engine.data.cache.Cache;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Arrays;
+
+/**
+ * Primitive variant of {@link WorldCache2D}. Every chunk is a flat double[256] page
+ * where NaN marks columns that have not been resolved yet.
+ */
+public class DoubleWorldCache2D {
+    private static final VarHandle AA = MethodHandles.arrayElementVarHandle(double[].class);
+
+    private final ConcurrentLinkedHashMap<Long, double[]> chunks;
+    private final Resolver resolver;
+
+    public DoubleWorldCache2D(Resolver resolver, int size) {
+        this.resolver = resolver;
+        chunks = new ConcurrentLinkedHashMap.Builder<Long, double[]>()
+                .initialCapacity(size)
+                .maximumWeightedCapacity(size)
+                .concurrencyLevel(Math.max(32, Runtime.getRuntime().availableProcessors() * 4))
+                .build();
+    }
+
+    public double get(int x, int z) {
+        double[] chunk = chunks.computeIfAbsent(Cache.key(x >> 4, z >> 4), $ -> {
+            double[] page = new double[256];
+            Arrays.fill(page, Double.NaN);
+            return page;
+        });
+        int key = ((z & 15) * 16) + (x & 15);
+        double v = (double) AA.getAcquire(chunk, key);
+        if (Double.isNaN(v)) {
+            v = resolver.resolve(x, z);
+            AA.setRelease(chunk, key, v);
+        }
+        return v;
+    }
+
+    public long getSize() {
+        return chunks.size() * 256L;
+    }
+
+    public long getMaxSize() {
+        return chunks.capacity() * 256L;
+    }
+
+    @FunctionalInterface
+    public interface Resolver {
+        double resolve(int x, int z);
+    }
+}
@@ -0,0 +1,57 @@
+package com.volmit.iris.util.cache;
+
+import com.googlecode.concurrentlinkedhashmap.ConcurrentLinkedHashMap;
+import com.volmit.iris.engine.data.cache.Cache;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Arrays;
+
+/**
+ * Primitive variant of {@link WorldCache2D}. Every chunk is a flat int[256] page
+ * where {@link #EMPTY} marks columns that have not been resolved yet.
+ */
+public class IntWorldCache2D {
+    public static final int EMPTY = Integer.MIN_VALUE;
+    private static final VarHandle AA = MethodHandles.arrayElementVarHandle(int[].class);
+
+    private final ConcurrentLinkedHashMap<Long, int[]> chunks;
+    private final Resolver resolver;
+
+    public IntWorldCache2D(Resolver resolver, int size) {
+        this.resolver = resolver;
+        chunks = new ConcurrentLinkedHashMap.Builder<Long, int[]>()
+                .initialCapacity(size)
+                .maximumWeightedCapacity(size)
+                .concurrencyLevel(Math.max(32, Runtime.getRuntime().availableProcessors() * 4))
+                .build();
+    }
+
+    public int get(int x, int z) {
+        int[] chunk = chunks.computeIfAbsent(Cache.key(x >> 4, z >> 4), $ -> {
+            int[] page = new int[256];
+            Arrays.fill(page, EMPTY);
+            return page;
+        });
+        int key = ((z & 15) * 16) + (x & 15);
+        int v = (int) AA.getAcquire(chunk, key);
+        if (v == EMPTY) {
+            v = resolver.resolve(x, z);
+            AA.setRelease(chunk, key, v);
+        }
+        return v;
+    }
+
+    public long getSize() {
+        return chunks.size() * 256L;
+    }
+
+    public long getMaxSize() {
+        return chunks.capacity() * 256L;
+    }
+
+    @FunctionalInterface
+    public interface Resolver {
+        int resolve(int x, int z);
+    }
+}
@@ -427,6 +427,12 @@ public class B {
                 return custom.get(bd);
             }
 
+            BlockData cached = BlockStates.getParsed(bd);
+            if (cached != null) {
+                return cached;
+            }
+
+            String key = bd;
             if (bd.startsWith("minecraft:cauldron[level=")) {
                 bd = bd.replaceAll("\\Q:cauldron[\\E", ":water_cauldron[");
             }
@@ -444,7 +450,12 @@ public class B {
                 return AIR;
             }
 
-            return bdx;
+            // Blocks of other plugins are left to their data provider
+            if (!key.startsWith("minecraft:") && key.contains(":")) {
+                return bdx;
+            }
+
+            return BlockStates.putParsed(key, bdx);
         } catch (Throwable e) {
             Iris.reportError(e);
 
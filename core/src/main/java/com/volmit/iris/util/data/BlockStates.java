@@ -0,0 +1,190 @@
+/*
+ * Iris is a World Generator for Minecraft Bukkit Servers
+ * Copyright (c) 2022 Arcane Arts (Volmit Software)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.volmit.iris.util.data;
+
+import com.volmit.iris.util.collection.KMap;
+import org.bukkit.block.data.BlockData;
+
+import java.util.Arrays;
+
+/**
+ * A global registry of every block state seen by Iris.
+ * <p>
+ * Each distinct state is interned once and gets a dense int id which stays valid until the server stops.
+ * Ids can be stored in place of block data references and their flags are looked up in a flat table.
+ * Parsed block strings are cached against the id of their state, so a string is only parsed once.
+ * <p>
+ * Interned states are shared, clone them before changing them.
+ */
+public class BlockStates {
+    public static final int UNKNOWN = -1;
+    public static final int AIR = 1;
+    public static final int FLUID = 1 << 1;
+    public static final int SOLID = 1 << 2;
+    public static final int FOLIAGE = 1 << 3;
+    public static final int DECORANT = 1 << 4;
+    public static final int VINE = 1 << 5;
+    private static final KMap<BlockData, Integer> ids = new KMap<>();
+    private static final KMap<String, Integer> parsed = new KMap<>();
+    private static volatile BlockData[] states = new BlockData[1024];
+    private static volatile byte[] flags = new byte[1024];
+    private static int size = 0;
+
+    /**
+     * Get the id of a block state, interning it if it was not seen yet
+     *
+     * @param data the block data
+     * @return the id
+     */
+    public static int id(BlockData data) {
+        Integer id = ids.get(data);
+        return id != null ? id : register(data);
+    }
+
+    /**
+     * Get the interned instance of a block state
+     *
+     * @param data the block data
+     * @return the shared instance equal to the given data
+     */
+    public static BlockData intern(BlockData data) {
+        return data == null ? null : get(id(data));
+    }
+
+    /**
+     * Get a block state by id
+     *
+     * @param id the id
+     * @return the block data
+     */
+    public static BlockData get(int id) {
+        return states[id];
+    }
+
+    /**
+     * Get the flags of a block state by id
+     *
+     * @param id the id
+     * @return the flag bits
+     */
+    public static int flags(int id) {
+        return flags[id];
+    }
+
+    public static boolean isAir(int id) {
+        return (flags[id] & AIR) != 0;
+    }
+
+    public static boolean isFluid(int id) {
+        return (flags[id] & FLUID) != 0;
+    }
+
+    public static boolean isSolid(int id) {
+        return (flags[id] & SOLID) != 0;
+    }
+
+    public static boolean isFoliage(int id) {
+        return (flags[id] & FOLIAGE) != 0;
+    }
+
+    public static boolean isDecorant(int id) {
+        return (flags[id] & DECORANT) != 0;
+    }
+
+    public static boolean isVine(int id) {
+        return (flags[id] & VINE) != 0;
+    }
+
+    /**
+     * Get the amount of states interned so far
+     *
+     * @return the amount of ids
+     */
+    public static int size() {
+        return size;
+    }
+
+    /**
+     * Look up a block string which was parsed before
+     *
+     * @param key the normalized block string
+     * @return the interned block data or null if the string was not parsed yet
+     */
+    public static BlockData getParsed(String key) {
+        Integer id = parsed.get(key);
+        return id == null ? null : states[id];
+    }
+
+    /**
+     * Remember the result of parsing a block string
+     *
+     * @param key  the normalized block string
+     * @param data the parsed block data or null if it could not be parsed, in which case nothing is cached
+     * @return the interned block data
+     */
+    public static BlockData putParsed(String key, BlockData data) {
+        if (data == null) {
+            return null;
+        }
+
+        int id = id(data);
+        parsed.put(key, id);
+        return states[id];
+    }
+
+    /**
+     * Forget all parsed block strings, interned states and their ids are kept
+     */
+    public static void clearParsed() {
+        parsed.clear();
+    }
+
+    private static synchronized int register(BlockData data) {
+        Integer id = ids.get(data);
+
+        if (id != null) {
+            return id;
+        }
+
+        // Keep a private copy, callers are free to modify the instance they passed in afterwards
+        BlockData copy = data.clone();
+        int i = size;
+        if (i == states.length) {
+            flags = Arrays.copyOf(flags, i * 2);
+            states = Arrays.copyOf(states, i * 2);
+        }
+
+        flags[i] = computeFlags(copy);
+        states[i] = copy;
+        size = i + 1;
+        ids.put(copy, i);
+        return i;
+    }
+
+    private static byte computeFlags(BlockData data) {
+        int f = 0;
+        f |= B.isAir(data) ? AIR : 0;
+        f |= B.isFluid(data) ? FLUID : 0;
+        f |= B.isSolid(data) ? SOLID : 0;
+        f |= B.isFoliage(data) ? FOLIAGE : 0;
+        f |= B.isDecorant(data) ? DECORANT : 0;
+        f |= B.isVineBlock(data) ? VINE : 0;
+        return (byte) f;
+    }
+}
@@ -22,6 +22,7 @@ import com.github.benmanes.caffeine.cache.CacheLoader;
 import com.github.benmanes.caffeine.cache.Caffeine;
 import com.github.benmanes.caffeine.cache.LoadingCache;
 import com.github.benmanes.caffeine.cache.Scheduler;
+import com.github.benmanes.caffeine.cache.Weigher;
 import com.volmit.iris.engine.framework.MeteredCache;
 import com.volmit.iris.util.math.RollingSequence;
 
@@ -34,6 +35,7 @@ public class KCache<K, V> implements MeteredCache {
     private final long max;
     private final LoadingCache<K, V> cache;
     private final boolean fastDump;
+    private final Weigher<K, V> weigher;
     private final RollingSequence msu = new RollingSequence(100);
     private CacheLoader<K, V> loader;
 
@@ -44,11 +46,37 @@ public class KCache<K, V> implements MeteredCache {
     public KCache(CacheLoader<K, V> loader, long max, boolean fastDump) {
         this.max = max;
         this.fastDump = fastDump;
+        this.weigher = null;
+        this.loader = loader;
+        this.cache = create(loader);
+    }
+
+    /**
+     * Create a cache bounded by the total weight of its values instead of their count
+     *
+     * @param loader  the loader
+     * @param max     the maximum total weight
+     * @param weigher the weight of a value
+     */
+    public KCache(CacheLoader<K, V> loader, long max, Weigher<K, V> weigher) {
+        this.max = max;
+        this.fastDump = false;
+        this.weigher = weigher;
         this.loader = loader;
         this.cache = create(loader);
     }
 
     private LoadingCache<K, V> create(CacheLoader<K, V> loader) {
+        if (weigher != null) {
+            return Caffeine
+                    .newBuilder()
+                    .maximumWeight(max)
+                    .weigher(weigher)
+                    .scheduler(Scheduler.systemScheduler())
+                    .executor(EXECUTOR)
+                    .build((k) -> loader == null ? null : loader.load(k));
+        }
+
         return Caffeine
                 .newBuilder()
                 .maximumSize(max)
@@ -77,6 +105,10 @@ public class KCache<K, V> implements MeteredCache {
 
     @Override
     public long getSize() {
+        if (weigher != null) {
+            return cache.policy().eviction().map(e -> e.weightedSize().orElse(0)).orElse(0L);
+        }
+
         return cache.estimatedSize();
     }
 
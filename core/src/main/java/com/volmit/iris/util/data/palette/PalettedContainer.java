@@ -18,11 +18,10 @@
 
 package com.volmit.iris.util.data.palette;
 
-import com.volmit.iris.Iris;
-import com.volmit.iris.util.math.M;
 import it.unimi.dsi.fastutil.ints.Int2IntOpenHashMap;
 
 import java.util.List;
+import java.util.function.Function;
 
 public class PalettedContainer<T> implements PaletteResize<T> {
     public static final int GLOBAL_PALETTE_BITS = 9;
@@ -91,11 +90,6 @@ public class PalettedContainer<T> implements PaletteResize<T> {
 
     private void set(int var0, T var1) {
         int var2 = this.palette.idFor(var1);
-
-        if (M.r(0.003)) {
-            Iris.info("ID for " + var1 + " is " + var2 + " Palette: " + palette.getSize());
-        }
-
         this.storage.set(var0, var2);
     }
 
@@ -148,9 +142,41 @@ public class PalettedContainer<T> implements PaletteResize<T> {
         return var9.getRaw();
     }
 
+    /**
+     * Visit every non null entry in index order (y << 8 | z << 4 | x). Every palette
+     * entry is mapped only once, so the consumer receives converted values without
+     * converting each block on its own
+     *
+     * @param mapper   the conversion of palette entries
+     * @param consumer the consumer of the index and converted value
+     */
+    @SuppressWarnings("unchecked")
+    public <R> void transfer(Function<T, R> mapper, EntryConsumer<R> consumer) {
+        Object[] mapped = new Object[1 << this.bits];
+        for (int i = 0; i < SIZE; i++) {
+            int id = this.storage.get(i);
+            Object r = mapped[id];
+            if (r == null) {
+                T t = this.palette.valueFor(id);
+                if (t == null) {
+                    continue;
+                }
+
+                r = mapped[id] = mapper.apply(t);
+            }
+
+            consumer.accept(i, (R) r);
+        }
+    }
+
     public void count(CountConsumer<T> var0) {
         Int2IntOpenHashMap int2IntOpenHashMap = new Int2IntOpenHashMap();
         this.storage.getAll(var1 -> int2IntOpenHashMap.put(var1, int2IntOpenHashMap.get(var1) + 1));
         int2IntOpenHashMap.int2IntEntrySet().forEach(var1 -> var0.accept(this.palette.valueFor(var1.getIntKey()), var1.getIntValue()));
     }
-}
\ No newline at end of file
+
+    @FunctionalInterface
+    public interface EntryConsumer<R> {
+        void accept(int index, R value);
+    }
+}
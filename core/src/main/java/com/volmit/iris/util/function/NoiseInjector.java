@@ -18,7 +18,43 @@
 
 package com.volmit.iris.util.function;
 
+import java.util.function.DoubleBinaryOperator;
+
 @FunctionalInterface
 public interface NoiseInjector {
+    /**
+     * Create an injector with a fixed weight which combines noise without allocating
+     *
+     * @param combiner the function combining the source noise with the child noise
+     * @param weight   the weight the child adds to the result
+     * @return the injector
+     */
+    static NoiseInjector of(DoubleBinaryOperator combiner, double weight) {
+        return new NoiseInjector() {
+            @Override
+            public double[] combine(double src, double value) {
+                return new double[]{combiner.applyAsDouble(src, value), weight};
+            }
+
+            @Override
+            public double value(double src, double value) {
+                return combiner.applyAsDouble(src, value);
+            }
+
+            @Override
+            public double weight(double src, double value) {
+                return weight;
+            }
+        };
+    }
+
     double[] combine(double src, double value);
+
+    default double value(double src, double value) {
+        return combine(src, value)[0];
+    }
+
+    default double weight(double src, double value) {
+        return combine(src, value)[1];
+    }
 }
@@ -62,6 +62,15 @@ public class DataBits {
     private final int divideAdd;
     private final int divideShift;
 
+    /**
+     * Approximate the retained heap size of this data
+     *
+     * @return the size in bytes
+     */
+    public long getMemorySize() {
+        return 64L + data.length() * 8L;
+    }
+
     public DataBits(int bits, int length) {
         this(bits, length, (AtomicLongArray) null);
     }
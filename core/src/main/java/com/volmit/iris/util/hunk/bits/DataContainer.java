@@ -187,6 +187,15 @@ public class DataContainer<T> {
         return data.getSize();
     }
 
+    /**
+     * Approximate the retained heap size of this container
+     *
+     * @return the size in bytes
+     */
+    public long getMemorySize() {
+        return 96L + data.getMemorySize() + palette.size() * 16L;
+    }
+
     private void trim() {
         var ints = new Int2IntRBTreeMap();
         for (int i = 0; i < length; i++) {
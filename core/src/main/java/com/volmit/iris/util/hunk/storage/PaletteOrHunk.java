@@ -63,6 +63,19 @@ public abstract class PaletteOrHunk<T> extends StorageHunk<T> implements Hunk<T>
         return hunk.getEntryCount();
     }
 
+    /**
+     * Approximate the retained heap size of this hunk
+     *
+     * @return the size in bytes
+     */
+    public long getMemorySize() {
+        if (isPalette()) {
+            return 64L + palette().getMemorySize();
+        }
+
+        return 64L + getEntryCount() * 64L;
+    }
+
     public boolean isMapped() {
         return hunk.isMapped();
     }
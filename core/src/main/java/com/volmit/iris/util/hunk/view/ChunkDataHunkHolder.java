@@ -18,19 +18,31 @@
 
 package com.volmit.iris.util.hunk.view;
 
-import com.volmit.iris.util.hunk.storage.AtomicHunk;
+import com.volmit.iris.core.nms.INMS;
+import com.volmit.iris.engine.data.chunk.TerrainChunk;
+import com.volmit.iris.util.data.palette.PalettedContainer;
+import com.volmit.iris.util.hunk.Hunk;
 import org.bukkit.Material;
 import org.bukkit.block.data.BlockData;
 import org.bukkit.generator.ChunkGenerator.ChunkData;
 
-@SuppressWarnings("ClassCanBeRecord")
-public class ChunkDataHunkHolder extends AtomicHunk<BlockData> {
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Stages generated blocks in one palette per 16x16x16 section, which are created
+ * on the first write into them. Once the chunk is generated every section is copied
+ * into the chunk data in one go if the nms binding supports it.
+ */
+public class ChunkDataHunkHolder implements Hunk<BlockData> {
     private static final BlockData AIR = Material.AIR.createBlockData();
     private final ChunkData chunk;
+    private final int height;
+    private final AtomicReferenceArray<PalettedContainer<BlockData>> sections;
 
     public ChunkDataHunkHolder(ChunkData chunk) {
-        super(16, chunk.getMaxHeight() - chunk.getMinHeight(), 16);
         this.chunk = chunk;
+        this.height = chunk.getMaxHeight() - chunk.getMinHeight();
+        this.sections = new AtomicReferenceArray<>((height + 15) >> 4);
     }
 
     @Override
@@ -45,26 +57,64 @@ public class ChunkDataHunkHolder extends AtomicHunk<BlockData> {
 
     @Override
     public int getHeight() {
-        return chunk.getMaxHeight() - chunk.getMinHeight();
+        return height;
+    }
+
+    @Override
+    public boolean isAtomic() {
+        return true;
+    }
+
+    @Override
+    public void setRaw(int x, int y, int z, BlockData t) {
+        PalettedContainer<BlockData> section = sections.get(y >> 4);
+
+        if (section == null) {
+            if (t == null) {
+                return;
+            }
+
+            PalettedContainer<BlockData> created = new PalettedContainer<>();
+            section = sections.compareAndExchange(y >> 4, null, created);
+            if (section == null) {
+                section = created;
+            }
+        }
+
+        synchronized (section) {
+            section.set(x, y & 15, z, t);
+        }
     }
 
     @Override
     public BlockData getRaw(int x, int y, int z) {
-        BlockData b = super.getRaw(x, y, z);
+        PalettedContainer<BlockData> section = sections.get(y >> 4);
+
+        if (section == null) {
+            return AIR;
+        }
+
+        BlockData b;
+        synchronized (section) {
+            b = section.get(x, y & 15, z);
+        }
 
         return b != null ? b : AIR;
     }
 
     public void apply() {
-        for (int i = 0; i < getHeight(); i++) {
-            for (int j = 0; j < getWidth(); j++) {
-                for (int k = 0; k < getDepth(); k++) {
-                    BlockData b = super.getRaw(j, i, k);
-
-                    if (b != null) {
-                        chunk.setBlock(j, i + chunk.getMinHeight(), k, b);
-                    }
-                }
+        ChunkData raw = chunk instanceof TerrainChunk t ? t.getRaw() : chunk;
+
+        for (int i = 0; i < sections.length(); i++) {
+            PalettedContainer<BlockData> section = sections.get(i);
+
+            if (section == null) {
+                continue;
+            }
+
+            int y = chunk.getMinHeight() + (i << 4);
+            if (!INMS.get().setSection(raw, y, section)) {
+                section.transfer(b -> b, (index, b) -> chunk.setBlock(index & 15, y + (index >> 8), (index >> 4) & 15, b));
             }
         }
     }
@@ -26,6 +26,7 @@ import com.volmit.iris.engine.data.cache.Cache;
 import com.volmit.iris.engine.framework.Engine;
 import com.volmit.iris.engine.mantle.EngineMantle;
 import com.volmit.iris.engine.mantle.MantleWriter;
+import com.volmit.iris.util.collection.KList;
 import com.volmit.iris.util.collection.KMap;
 import com.volmit.iris.util.collection.KSet;
 import com.volmit.iris.util.documentation.BlockCoordinates;
@@ -33,6 +34,7 @@ import com.volmit.iris.util.documentation.ChunkCoordinates;
 import com.volmit.iris.util.documentation.RegionCoordinates;
 import com.volmit.iris.util.format.C;
 import com.volmit.iris.util.format.Form;
+import com.volmit.iris.util.function.Consumer2;
 import com.volmit.iris.util.function.Consumer3;
 import com.volmit.iris.util.function.Consumer4;
 import com.volmit.iris.util.io.IO;
@@ -44,6 +46,7 @@ import com.volmit.iris.util.matter.MatterSlice;
 import com.volmit.iris.util.parallel.BurstExecutor;
 import com.volmit.iris.util.parallel.HyperLock;
 import com.volmit.iris.util.parallel.MultiBurst;
+import com.volmit.iris.util.scheduling.PrecisionStopwatch;
 import lombok.Getter;
 import org.bukkit.Chunk;
 
@@ -52,6 +55,8 @@ import java.util.concurrent.*;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.function.Supplier;
 
@@ -76,6 +81,14 @@ public class Mantle {
     private final IOWorker worker;
     private final AtomicDouble adjustedIdleDuration;
     private final KSet<Long> toUnload;
+    private final KSet<Long> toEvict;
+    private final ReentrantLock checkpoint;
+    private final CopyOnWriteArrayList<Consumer<Long>> unloadListeners;
+    private final CopyOnWriteArrayList<Consumer2<Integer, Integer>> deleteListeners;
+    @Getter
+    private volatile double lastCheckpointDuration = -1;
+    @Getter
+    private volatile int lastCheckpointChunks;
 
     /**
      * Create a new mantle
@@ -96,6 +109,10 @@ public class Mantle {
         ioBurst = MultiBurst.ioBurst;
         adjustedIdleDuration = new AtomicDouble(0);
         toUnload = new KSet<>();
+        toEvict = new KSet<>();
+        checkpoint = new ReentrantLock();
+        unloadListeners = new CopyOnWriteArrayList<>();
+        deleteListeners = new CopyOnWriteArrayList<>();
         worker = new IOWorker(dataFolder, worldHeight);
         Iris.debug("Opened The Mantle " + C.DARK_AQUA + dataFolder.getAbsolutePath());
     }
@@ -113,24 +130,41 @@ public class Mantle {
     }
 
     /**
-     * Get the file for the given region
+     * Get the file for the given region. If the region has not been migrated
+     * to the sector based format yet, the legacy file will be returned when converting
      *
      * @param folder the data folder
      * @param key    the region key
      * @return the file
      */
     public static File fileForRegion(File folder, Long key, boolean convert) {
-        File f = oldFileForRegion(folder, key);
-        File fv = new File(folder, "pv." + key + ".ttp.lz4b");
-        if (f.exists() && !fv.exists() && convert)
-            return f;
+        if (convert) {
+            File fv = legacyFileForRegion(folder, key);
+            if (fv.exists())
+                return fv;
+
+            File f = oldFileForRegion(folder, key);
+            if (f.exists())
+                return f;
+        }
 
-        if (!fv.getParentFile().exists()) {
-            fv.getParentFile().mkdirs();
+        File fs = new File(folder, "ps." + key + ".ttp");
+        if (!fs.getParentFile().exists()) {
+            fs.getParentFile().mkdirs();
         }
-        return fv;
+        return fs;
     }
 
+    /**
+     * Get the legacy versioned file for the given region
+     *
+     * @param folder the data folder
+     * @param key    the region key
+     * @return the file
+     */
+    public static File legacyFileForRegion(File folder, Long key) {
+        return new File(folder, "pv." + key + ".ttp.lz4b");
+    }
 
     /**
      * Get the old file for the given region
@@ -280,8 +314,31 @@ public class Mantle {
         get(x >> 5, z >> 5).getOrCreate(x & 31, z & 31).flag(flag, flagged);
     }
 
+    @ChunkCoordinates
     public void deleteChunk(int x, int z) {
         get(x >> 5, z >> 5).delete(x & 31, z & 31);
+
+        for (Consumer2<Integer, Integer> i : deleteListeners) {
+            i.accept(x, z);
+        }
+    }
+
+    /**
+     * Get notified after a tectonic plate was unloaded, for caches of data read from it
+     *
+     * @param listener called with the region key of the plate
+     */
+    public void onUnload(Consumer<Long> listener) {
+        unloadListeners.add(listener);
+    }
+
+    /**
+     * Get notified after the data of a chunk was deleted, for caches of data read from it
+     *
+     * @param listener called with the chunk x and z
+     */
+    public void onDelete(Consumer2<Integer, Integer> listener) {
+        deleteListeners.add(listener);
     }
 
     /**
@@ -312,7 +369,10 @@ public class Mantle {
             return;
         }*/
 
-        get(x >> 5, z >> 5).getOrCreate(x & 31, z & 31).iterate(type, iterator);
+        MantleChunk chunk = get(x >> 5, z >> 5).get(x & 31, z & 31);
+        if (chunk != null) {
+            chunk.iterate(type, iterator);
+        }
     }
 
     /**
@@ -329,7 +389,8 @@ public class Mantle {
             return false;
         }
 
-        return get(x >> 5, z >> 5).getOrCreate(x & 31, z & 31).isFlagged(flag);
+        MantleChunk chunk = get(x >> 5, z >> 5).get(x & 31, z & 31);
+        return chunk != null && chunk.isFlagged(flag);
     }
 
     /**
@@ -356,11 +417,16 @@ public class Mantle {
             return;
         }
 
-        Matter matter = get((x >> 4) >> 5, (z >> 4) >> 5)
-                .getOrCreate((x >> 4) & 31, (z >> 4) & 31)
-                .getOrCreate(y >> 4);
-        matter.slice(matter.getClass(t))
-                .set(x & 15, y & 15, z & 15, t);
+        // Hold the chunk so a checkpoint never serializes it halfway through the change
+        MantleChunk chunk = get((x >> 4) >> 5, (z >> 4) >> 5)
+                .getOrCreate((x >> 4) & 31, (z >> 4) & 31).use();
+        try {
+            Matter matter = chunk.getOrCreate(y >> 4);
+            matter.slice(matter.getClass(t))
+                    .set(x & 15, y & 15, z & 15, t);
+        } finally {
+            chunk.release();
+        }
     }
 
     @BlockCoordinates
@@ -373,11 +439,15 @@ public class Mantle {
             return;
         }
 
-        Matter matter = get((x >> 4) >> 5, (z >> 4) >> 5)
-                .getOrCreate((x >> 4) & 31, (z >> 4) & 31)
-                .getOrCreate(y >> 4);
-        matter.slice(t)
-                .set(x & 15, y & 15, z & 15, null);
+        MantleChunk chunk = get((x >> 4) >> 5, (z >> 4) >> 5)
+                .getOrCreate((x >> 4) & 31, (z >> 4) & 31).use();
+        try {
+            Matter matter = chunk.getOrCreate(y >> 4);
+            matter.slice(t)
+                    .set(x & 15, y & 15, z & 15, null);
+        } finally {
+            chunk.release();
+        }
     }
 
     /**
@@ -395,7 +465,6 @@ public class Mantle {
      * @param <T> the type assumed from the provided class
      * @return the returned result (or null) if it doesnt exist
      */
-    @SuppressWarnings("unchecked")
     @BlockCoordinates
     public <T> T get(int x, int y, int z, Class<T> t) {
         if (closed.get()) {
@@ -410,10 +479,18 @@ public class Mantle {
             return null;
         }
 
-        return (T) get((x >> 4) >> 5, (z >> 4) >> 5)
-                .getOrCreate((x >> 4) & 31, (z >> 4) & 31)
-                .getOrCreate(y >> 4).slice(t)
-                .get(x & 15, y & 15, z & 15);
+        MantleChunk chunk = get((x >> 4) >> 5, (z >> 4) >> 5)
+                .get((x >> 4) & 31, (z >> 4) & 31);
+        return chunk == null ? null : chunk.get(x & 15, y, z & 15, t);
+    }
+
+    /**
+     * How often a thread had to wait for the lock of a Tectonic Plate
+     *
+     * @return the contention count
+     */
+    public long getLockContention() {
+        return hyperLock.getContention();
     }
 
     /**
@@ -443,12 +520,12 @@ public class Mantle {
         }
 
         hyperLock.disable();
+        checkpoint.lock();
         BurstExecutor b = ioBurst.burst(toUnload.size());
         loadedRegions.forEach((i, plate) -> b.queue(() -> {
             try {
                 plate.close();
-                worker.write(fileForRegion(dataFolder, i, false).getName(), plate);
-                oldFileForRegion(dataFolder, i).delete();
+                write(i, plate, false);
             } catch (Throwable e) {
                 Iris.error("Failed to write Tectonic Plate " + C.DARK_GREEN + Cache.keyX(i) + " " + Cache.keyZ(i));
                 Iris.reportError(e);
@@ -466,6 +543,8 @@ public class Mantle {
             worker.close();
         } catch (Throwable e) {
             Iris.reportError(e);
+        } finally {
+            checkpoint.unlock();
         }
 
         IO.delete(new File(dataFolder, ".tmp"));
@@ -474,20 +553,16 @@ public class Mantle {
 
     /**
      * Save & unload regions that have not been used for more than the
-     * specified amount of milliseconds
+     * specified amount of milliseconds. Memory pressure is handled separately
+     * by evicting the coldest plates through {@link #evict(long)}
      *
-     * @param baseIdleDuration the duration
+     * @param idleDuration the duration
      */
-    public synchronized void trim(long baseIdleDuration, int tectonicLimit) {
+    public synchronized void trim(long idleDuration) {
         if (closed.get()) {
             throw new RuntimeException("The Mantle is closed");
         }
 
-        double idleDuration = baseIdleDuration;
-        if (loadedRegions.size() > tectonicLimit) {
-            // todo update this correctly and maybe do something when its above a 100%
-            idleDuration = Math.max(idleDuration - (1000 * (((loadedRegions.size() - tectonicLimit) / (double) tectonicLimit) * 100) * 0.4), 4000);
-        }
         adjustedIdleDuration.set(idleDuration);
 
         ioTrim.acquireUninterruptibly(LOCK_SIZE);
@@ -534,7 +609,7 @@ public class Mantle {
                     }
 
                     var used = lastUse.getOrDefault(id, 0L);
-                    if (!toUnload.contains(id) || used >= unloadTime) {
+                    if (!toUnload.contains(id) || (used >= unloadTime && !toEvict.contains(id))) {
                         return;
                     }
 
@@ -546,12 +621,15 @@ public class Mantle {
 
                     try {
                         m.close();
-                        worker.write(fileForRegion(dataFolder, id, false).getName(), m);
-                        oldFileForRegion(dataFolder, id).delete();
+                        write(id, m, false);
                         loadedRegions.remove(id, m);
                         lastUse.remove(id);
                         toUnload.remove(id);
+                        toEvict.remove(id);
                         i.incrementAndGet();
+                        for (Consumer<Long> listener : unloadListeners) {
+                            listener.accept(id);
+                        }
                         Iris.debug("Unloaded Tectonic Plate " + C.DARK_GREEN + Cache.keyX(id) + " " + Cache.keyZ(id));
                     } catch (IOException | InterruptedException e) {
                         Iris.reportError(e);
@@ -722,13 +800,111 @@ public class Mantle {
         }));
     }
 
+    /**
+     * Write the changed chunks of a plate to its file. Legacy files the plate was migrated from
+     * are only removed after a full write. Snapshots may skip chunks, so legacy plates are not snapshot at all.
+     *
+     * @param key      the region key
+     * @param plate    the plate to write
+     * @param snapshot if the plate stays loaded after writing
+     * @throws IOException shit happens
+     */
+    private int write(Long key, TectonicPlate plate, boolean snapshot) throws IOException {
+        if (snapshot) {
+            return plate.isLegacy() ? 0 : worker.write(fileForRegion(dataFolder, key, false).getName(), plate, true);
+        }
+
+        int written = worker.write(fileForRegion(dataFolder, key, false).getName(), plate, false);
+        worker.delete(legacyFileForRegion(dataFolder, key).getName());
+        worker.delete(oldFileForRegion(dataFolder, key).getName());
+        return written;
+    }
+
     private void use(Long key) {
         lastUse.put(key, M.ms());
         toUnload.remove(key);
+        toEvict.remove(key);
+    }
+
+    /**
+     * Queue a loaded plate for unloading regardless of its idle time.
+     * The plate is kept if it is used again before the next unload
+     *
+     * @param key the region key
+     */
+    public void evict(long key) {
+        if (closed.get() || !loadedRegions.containsKey(key)) {
+            return;
+        }
+
+        toEvict.add(key);
+        toUnload.add(key);
+    }
+
+    /**
+     * Collect the approximate heap usage of all loaded plates
+     *
+     * @return the usage of every loaded plate
+     */
+    public KList<PlateUsage> getPlateUsage() {
+        KList<PlateUsage> usage = new KList<>(loadedRegions.size());
+        loadedRegions.forEach((key, plate) -> {
+            if (plate.isClosed()) return;
+            usage.add(new PlateUsage(this, key, lastUse.getOrDefault(key, 0L), plate.getMemorySize(), toEvict.contains(key)));
+        });
+        return usage;
+    }
+
+    /**
+     * The approximate heap usage of a loaded plate
+     *
+     * @param mantle   the mantle owning the plate
+     * @param key      the region key
+     * @param lastUse  the last time the plate was used
+     * @param size     the approximate size in bytes
+     * @param evicting if the plate is already queued for eviction
+     */
+    public record PlateUsage(Mantle mantle, long key, long lastUse, long size, boolean evicting) {
     }
 
+    /**
+     * Checkpoint all loaded plates with unsaved changes without unloading them.
+     * Chunks that are in use while the checkpoint runs are skipped and written on the
+     * next checkpoint or unload, so generation can continue while this is running.
+     */
     public void saveAll() {
+        if (closed.get() || !checkpoint.tryLock()) {
+            return;
+        }
+
+        try {
+            PrecisionStopwatch p = PrecisionStopwatch.start();
+            AtomicInteger chunks = new AtomicInteger();
+            BurstExecutor b = ioBurst.burst(loadedRegions.size());
+            loadedRegions.forEach((i, plate) -> {
+                if (plate.isClosed() || !plate.isDirty()) return;
+                b.queue(() -> {
+                    try {
+                        chunks.addAndGet(write(i, plate, true));
+                    } catch (Throwable e) {
+                        Iris.error("Failed to checkpoint Tectonic Plate " + C.DARK_GREEN + Cache.keyX(i) + " " + Cache.keyZ(i));
+                        Iris.reportError(e);
+                        e.printStackTrace();
+                    }
+                });
+            });
+            b.complete();
 
+            lastCheckpointDuration = p.getMilliseconds();
+            lastCheckpointChunks = chunks.get();
+            Iris.debug("Checkpointed " + chunks.get() + " chunks of The Mantle " + C.DARK_AQUA + dataFolder.getAbsolutePath() + C.RED + " in " + Form.duration(lastCheckpointDuration, 2));
+        } catch (Throwable e) {
+            Iris.error("Failed to checkpoint The Mantle " + C.DARK_AQUA + dataFolder.getAbsolutePath());
+            Iris.reportError(e);
+            e.printStackTrace();
+        } finally {
+            checkpoint.unlock();
+        }
     }
 
     public MantleChunk getChunk(Chunk e) {
@@ -740,7 +916,12 @@ public class Mantle {
             return;
         }
 
-        getChunk(x, z).deleteSlices(c);
+        MantleChunk chunk = getChunk(x, z).use();
+        try {
+            chunk.deleteSlices(c);
+        } finally {
+            chunk.release();
+        }
     }
 
     public int getLoadedRegionCount() {
@@ -27,6 +27,7 @@ import com.volmit.iris.util.io.CountingDataInputStream;
 import com.volmit.iris.util.matter.IrisMatter;
 import com.volmit.iris.util.matter.Matter;
 import com.volmit.iris.util.matter.MatterSlice;
+import com.volmit.iris.util.matter.SliceTypes;
 import lombok.Getter;
 import lombok.SneakyThrows;
 import org.jetbrains.annotations.Nullable;
@@ -50,6 +51,8 @@ public class MantleChunk extends FlaggedChunk {
     private final AtomicReferenceArray<Matter> sections;
     private final Semaphore ref = new Semaphore(Integer.MAX_VALUE, true);
     private final AtomicBoolean closed = new AtomicBoolean(false);
+    private final AtomicBoolean dirty = new AtomicBoolean(true);
+    private volatile long memorySize = -1;
 
     /**
      * Create a mantle chunk
@@ -75,9 +78,10 @@ public class MantleChunk extends FlaggedChunk {
         this(sectionHeight, din.readByte(), din.readByte());
         int s = din.readByte();
         readFlags(version, din);
+        SliceTypes.Table types = version >= 2 ? SliceTypes.Table.read(din) : null;
 
         for (int i = 0; i < s; i++) {
-            Iris.addPanic("read.section", "Section[" + i + "]");
+            Iris.addPanic("read.section", "Section[%d]", i);
             long size = din.readInt();
             if (size == 0) continue;
             long start = din.count();
@@ -87,12 +91,12 @@ public class MantleChunk extends FlaggedChunk {
             }
 
             try {
-                sections.set(i, Matter.readDin(din));
+                sections.set(i, Matter.readDin(din, types));
             } catch (IOException e) {
                 long end = start + size;
                 Iris.error("Failed to read chunk section, skipping it.");
-                Iris.addPanic("read.byte.range", start + " " + end);
-                Iris.addPanic("read.byte.current", din.count() + "");
+                Iris.addPanic("read.byte.range", "%d %d", start, end);
+                Iris.addPanic("read.byte.current", "%d", din.count());
                 Iris.reportError(e);
                 e.printStackTrace();
                 Iris.panic();
@@ -104,6 +108,7 @@ public class MantleChunk extends FlaggedChunk {
                 throw new IOException("Chunk section read size mismatch!");
             }
         }
+        dirty.set(false);
     }
 
     @SneakyThrows
@@ -131,6 +136,41 @@ public class MantleChunk extends FlaggedChunk {
         ref.release();
     }
 
+    /**
+     * Check if this chunk was modified since it was last read or written
+     *
+     * @return true if it has to be written again
+     */
+    public boolean isDirty() {
+        return dirty.get();
+    }
+
+    @Override
+    public void markDirty() {
+        dirty.set(true);
+        if (memorySize != -1) memorySize = -1;
+    }
+
+    /**
+     * Approximate the retained heap size of this chunk.
+     * The size is cached until the chunk is modified again
+     *
+     * @return the size in bytes
+     */
+    public long getMemorySize() {
+        long size = memorySize;
+        if (size != -1) return size;
+
+        size = 256L + sections.length() * 8L;
+        for (int i = 0; i < sections.length(); i++) {
+            Matter matter = sections.get(i);
+            if (matter != null) size += matter.getMemorySize();
+        }
+
+        memorySize = size;
+        return size;
+    }
+
     public void copyFrom(MantleChunk chunk) {
         use();
         super.copyFrom(chunk, () -> {
@@ -167,9 +207,10 @@ public class MantleChunk extends FlaggedChunk {
     @ChunkRelativeBlockCoordinates
     @SuppressWarnings("unchecked")
     public <T> T get(int x, int y, int z, Class<T> type) {
-        return (T) getOrCreate(y >> 4)
-                .slice(type)
-                .get(x & 15, y & 15, z & 15);
+        Matter matter = get(y >> 4);
+        if (matter == null) return null;
+        MatterSlice<T> slice = matter.getSlice(type);
+        return slice == null ? null : slice.get(x & 15, y & 15, z & 15);
     }
 
     /**
@@ -188,17 +229,23 @@ public class MantleChunk extends FlaggedChunk {
      */
     @ChunkCoordinates
     public void delete(int section) {
-        sections.set(section, null);
+        if (sections.getAndSet(section, null) != null) {
+            markDirty();
+        }
     }
 
     /**
-     * Get or create a new matter section at the given section
+     * Get or create a new matter section at the given section.
+     * This marks the chunk as dirty since the returned matter may be modified,
+     * callers which do not hold {@link #use()} have to mark it again after modifying it.
+     * Use {@link #get(int)} to only read
      *
      * @param section the section (0 - (worldHeight >> 4))
      * @return the matter
      */
     @ChunkCoordinates
     public Matter getOrCreate(int section) {
+        markDirty();
         final Matter matter = get(section);
         if (matter != null) return matter;
 
@@ -215,11 +262,45 @@ public class MantleChunk extends FlaggedChunk {
      */
     public void write(DataOutputStream dos) throws IOException {
         close();
+        dirty.set(false);
+        writeData(dos);
+    }
+
+    /**
+     * Write this chunk to a data stream without closing it.
+     * Chunks that are currently in use are skipped and stay dirty
+     *
+     * @param dos the stream
+     * @return true if the chunk was written
+     * @throws IOException shit happens
+     */
+    public boolean snapshot(DataOutputStream dos) throws IOException {
+        if (!ref.tryAcquire(Integer.MAX_VALUE)) {
+            return false;
+        }
+
+        try {
+            dirty.set(false);
+            writeData(dos);
+            return true;
+        } catch (IOException | RuntimeException e) {
+            markDirty();
+            throw e;
+        } finally {
+            ref.release(Integer.MAX_VALUE);
+        }
+    }
+
+    private void writeData(DataOutputStream dos) throws IOException {
         dos.writeByte(x);
         dos.writeByte(z);
         dos.writeByte(sections.length());
         writeFlags(dos);
 
+        // The type table is only complete once every section was written, so the sections are buffered
+        SliceTypes.Table types = new SliceTypes.Table();
+        var body = new ByteArrayOutputStream(8192);
+        var data = new DataOutputStream(body);
         var bytes = new ByteArrayOutputStream(8192);
         var sub = new DataOutputStream(bytes);
         for (int i = 0; i < sections.length(); i++) {
@@ -228,16 +309,19 @@ public class MantleChunk extends FlaggedChunk {
             if (exists(i)) {
                 try {
                     Matter matter = get(i);
-                    matter.writeDos(sub);
-                    dos.writeInt(bytes.size());
-                    bytes.writeTo(dos);
+                    matter.writeDos(sub, types);
+                    data.writeInt(bytes.size());
+                    bytes.writeTo(data);
                 } finally {
                     bytes.reset();
                 }
             } else {
-                dos.writeInt(0);
+                data.writeInt(0);
             }
         }
+
+        types.write(dos);
+        body.writeTo(dos);
     }
 
     private void trimSlice(int i) {
@@ -277,6 +361,7 @@ public class MantleChunk extends FlaggedChunk {
             Matter m = sections.get(i);
             if (m != null && m.hasSlice(c)) {
                 m.deleteSlice(c);
+                markDirty();
             }
         }
     }
@@ -24,9 +24,11 @@ import com.volmit.iris.engine.data.cache.Cache;
 import com.volmit.iris.util.data.Varint;
 import com.volmit.iris.util.documentation.ChunkCoordinates;
 import com.volmit.iris.util.io.CountingDataInputStream;
+import com.volmit.iris.util.mantle.io.PlateFile;
 import lombok.Getter;
 
 import java.io.*;
+import java.nio.ByteBuffer;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicReferenceArray;
 
@@ -37,11 +39,13 @@ import java.util.concurrent.atomic.AtomicReferenceArray;
 public class TectonicPlate {
     private static final ThreadLocal<Boolean> errors = ThreadLocal.withInitial(() -> false);
     public static final int MISSING = -1;
-    public static final int CURRENT = 1;
+    public static final int CURRENT = 2;
 
     private final int sectionHeight;
     private final AtomicReferenceArray<MantleChunk> chunks;
+    private final AtomicReferenceArray<ByteBuffer> blobs;
     private final AtomicBoolean closed;
+    private final AtomicBoolean dirty;
 
     @Getter
     private final int x;
@@ -49,6 +53,10 @@ public class TectonicPlate {
     @Getter
     private final int z;
 
+    @Getter
+    private boolean legacy;
+    private int blobVersion = MISSING;
+
     /**
      * Create a new tectonic plate
      *
@@ -57,7 +65,9 @@ public class TectonicPlate {
     public TectonicPlate(int worldHeight, int x, int z) {
         this.sectionHeight = worldHeight >> 4;
         this.chunks = new AtomicReferenceArray<>(1024);
+        this.blobs = new AtomicReferenceArray<>(1024);
         this.closed = new AtomicBoolean(false);
+        this.dirty = new AtomicBoolean(false);
         this.x = x;
         this.z = z;
     }
@@ -73,6 +83,7 @@ public class TectonicPlate {
         this(worldHeight, din.readInt(), din.readInt());
         if (!din.markSupported())
             throw new IOException("Mark not supported!");
+        legacy = true;
 
         int v = versioned ? Varint.readUnsignedVarInt(din) : MISSING;
         for (int i = 0; i < chunks.length(); i++) {
@@ -81,14 +92,14 @@ public class TectonicPlate {
             long start = din.count();
 
             try {
-                Iris.addPanic("read-chunk", "Chunk[" + i + "]");
+                Iris.addPanic("read-chunk", "Chunk[%d]", i);
                 chunks.set(i, new MantleChunk(v, sectionHeight, din));
                 EnginePanic.saveLast();
             } catch (Throwable e) {
                 long end = start + size;
                 Iris.error("Failed to read chunk, creating a new chunk instead.");
-                Iris.addPanic("read.byte.range", start + " " + end);
-                Iris.addPanic("read.byte.current", din.count() + "");
+                Iris.addPanic("read.byte.range", "%d %d", start, end);
+                Iris.addPanic("read.byte.current", "%d", din.count());
                 Iris.reportError(e);
                 e.printStackTrace();
                 Iris.panic();
@@ -99,6 +110,55 @@ public class TectonicPlate {
         }
     }
 
+    /**
+     * Load a tectonic plate from a sector based plate file
+     *
+     * @param worldHeight the height of the world
+     * @param file        the plate file
+     * @throws IOException shit happens yo
+     */
+    public TectonicPlate(int worldHeight, PlateFile file) throws IOException {
+        this(worldHeight, file, false);
+    }
+
+    /**
+     * Load a tectonic plate from a sector based plate file. Lazy plates only map the file
+     * and keep every chunk as a compressed slice of the mapping until it is first accessed
+     *
+     * @param worldHeight the height of the world
+     * @param file        the plate file
+     * @param lazy        if chunks should be decompressed on first access
+     * @throws IOException shit happens yo
+     */
+    public TectonicPlate(int worldHeight, PlateFile file, boolean lazy) throws IOException {
+        this(worldHeight, file.getX(), file.getZ());
+        int v = file.getVersion();
+        ByteBuffer mapped = lazy ? file.map() : null;
+        if (mapped != null) {
+            blobVersion = v;
+            for (int i = 0; i < blobs.length(); i++) {
+                blobs.set(i, file.slice(mapped, i));
+            }
+            return;
+        }
+
+        for (int i = 0; i < chunks.length(); i++) {
+            if (!file.has(i)) continue;
+
+            try {
+                Iris.addPanic("read-chunk", "Chunk[%d]", i);
+                chunks.set(i, new MantleChunk(v, sectionHeight, CountingDataInputStream.wrap(new ByteArrayInputStream(file.read(i)))));
+                EnginePanic.saveLast();
+            } catch (Throwable e) {
+                Iris.error("Failed to read chunk, creating a new chunk instead.");
+                Iris.reportError(e);
+                e.printStackTrace();
+                Iris.panic();
+                TectonicPlate.addError();
+            }
+        }
+    }
+
     public boolean inUse() {
         for (int i = 0; i < chunks.length(); i++) {
             MantleChunk chunk = chunks.get(i);
@@ -122,6 +182,38 @@ public class TectonicPlate {
         return closed.get();
     }
 
+    /**
+     * Approximate the retained heap size of this plate and all of its chunks
+     *
+     * @return the size in bytes
+     */
+    public long getMemorySize() {
+        long size = 128L + chunks.length() * 16L;
+        for (int i = 0; i < chunks.length(); i++) {
+            MantleChunk chunk = chunks.get(i);
+            if (chunk != null) size += chunk.getMemorySize();
+            else if (blobs.get(i) != null) size += 64;
+        }
+        return size;
+    }
+
+    /**
+     * Check if this plate has changes that are not written to its file yet
+     *
+     * @return true if it has to be written again
+     */
+    public boolean isDirty() {
+        if (legacy || dirty.get())
+            return true;
+
+        for (int i = 0; i < chunks.length(); i++) {
+            MantleChunk chunk = chunks.get(i);
+            if (chunk != null && chunk.isDirty())
+                return true;
+        }
+        return false;
+    }
+
     /**
      * Check if a chunk exists in this plate or not (same as get(x, z) != null)
      *
@@ -143,7 +235,9 @@ public class TectonicPlate {
      */
     @ChunkCoordinates
     public MantleChunk get(int x, int z) {
-        return chunks.get(index(x, z));
+        final int index = index(x, z);
+        final MantleChunk chunk = chunks.get(index);
+        return chunk != null ? chunk : inflate(index);
     }
 
     /**
@@ -152,7 +246,9 @@ public class TectonicPlate {
     public void clear() {
         for (int i = 0; i < chunks.length(); i++) {
             chunks.set(i, null);
+            blobs.set(i, null);
         }
+        dirty.set(true);
     }
 
     /**
@@ -163,7 +259,11 @@ public class TectonicPlate {
      */
     @ChunkCoordinates
     public void delete(int x, int z) {
-        chunks.set(index(x, z), null);
+        final int index = index(x, z);
+        final boolean stored = blobs.getAndSet(index, null) != null;
+        if (chunks.getAndSet(index, null) != null || stored) {
+            dirty.set(true);
+        }
     }
 
     /**
@@ -179,11 +279,47 @@ public class TectonicPlate {
         final MantleChunk chunk = chunks.get(index);
         if (chunk != null) return chunk;
 
+        final MantleChunk stored = inflate(index);
+        if (stored != null) return stored;
+
         final MantleChunk instance = new MantleChunk(sectionHeight, x & 31, z & 31);
         final MantleChunk value = chunks.compareAndExchange(index, null, instance);
         return value == null ? instance : value;
     }
 
+    /**
+     * Decompress and parse a chunk which is still stored as a mapped blob
+     *
+     * @param index the chunk index (0-1023)
+     * @return the chunk or null if there is no blob for it
+     */
+    private MantleChunk inflate(int index) {
+        final ByteBuffer blob = blobs.get(index);
+        if (blob == null) return null;
+
+        synchronized (blob) {
+            final MantleChunk chunk = chunks.get(index);
+            if (chunk != null || blobs.get(index) != blob)
+                return chunk;
+
+            MantleChunk value = null;
+            try {
+                Iris.addPanic("read-chunk", "Chunk[%d]", index);
+                value = new MantleChunk(blobVersion, sectionHeight, CountingDataInputStream.wrap(new ByteArrayInputStream(PlateFile.decompress(blob))));
+                chunks.set(index, value);
+                EnginePanic.saveLast();
+            } catch (Throwable e) {
+                Iris.error("Failed to read chunk " + index + " of Tectonic Plate " + x + " " + z + ", creating a new chunk instead.");
+                Iris.reportError(e);
+                e.printStackTrace();
+                dirty.set(true);
+            }
+
+            blobs.set(index, null);
+            return value;
+        }
+    }
+
     @ChunkCoordinates
     private int index(int x, int z) {
         return Cache.to1D(x, z, 0, 32, 32);
@@ -219,6 +355,71 @@ public class TectonicPlate {
         }
     }
 
+    /**
+     * Write all changed chunks of this tectonic plate into a plate file.
+     * Snapshots leave the plate open and skip chunks which are currently in use.
+     *
+     * @param file     the plate file
+     * @param snapshot if this is a snapshot of a plate which stays loaded
+     * @return the amount of chunks written
+     * @throws IOException shit happens
+     */
+    public int write(PlateFile file, boolean snapshot) throws IOException {
+        // A snapshot may skip chunks in use, which would leave them in an older format than the file header
+        if (snapshot && file.getVersion() != MISSING && file.getVersion() != CURRENT) {
+            return 0;
+        }
+
+        int written = 0;
+        dirty.set(false);
+        var bytes = new ByteArrayOutputStream(8192);
+        var sub = new DataOutputStream(bytes);
+        try {
+            for (int i = 0; i < chunks.length(); i++) {
+                MantleChunk chunk = chunks.get(i);
+                if (chunk == null && blobs.get(i) != null) {
+                    if (file.has(i) && file.getVersion() == CURRENT && blobVersion == CURRENT)
+                        continue;
+                    chunk = inflate(i);
+                }
+
+                if (chunk == null) {
+                    file.delete(i);
+                    continue;
+                }
+
+                if (!chunk.isDirty() && file.has(i) && file.getVersion() == CURRENT) {
+                    continue;
+                }
+
+                try {
+                    if (snapshot) {
+                        if (!chunk.snapshot(sub)) continue;
+                    } else {
+                        chunk.write(sub);
+                    }
+
+                    file.write(i, bytes.toByteArray(), bytes.size());
+                    written++;
+                } finally {
+                    bytes.reset();
+                }
+            }
+
+            file.commit(x, z, CURRENT);
+        } catch (IOException | RuntimeException e) {
+            dirty.set(true);
+            for (int i = 0; i < chunks.length(); i++) {
+                MantleChunk chunk = chunks.get(i);
+                if (chunk != null) chunk.markDirty();
+            }
+            throw e;
+        }
+
+        legacy = false;
+        return written;
+    }
+
     public static void addError() {
         errors.set(true);
     }
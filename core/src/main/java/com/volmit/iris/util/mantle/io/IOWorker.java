@@ -27,7 +27,6 @@ import com.volmit.iris.util.mantle.TectonicPlate;
 import com.volmit.iris.util.scheduling.PrecisionStopwatch;
 import it.unimi.dsi.fastutil.objects.Object2ObjectLinkedOpenHashMap;
 import net.jpountz.lz4.LZ4BlockInputStream;
-import net.jpountz.lz4.LZ4BlockOutputStream;
 
 import java.io.*;
 import java.nio.channels.FileChannel;
@@ -36,22 +35,50 @@ import java.util.Objects;
 import java.util.Set;
 
 public class IOWorker {
-    private static final Set<OpenOption> OPTIONS = Set.of(StandardOpenOption.READ, StandardOpenOption.WRITE, StandardOpenOption.CREATE, StandardOpenOption.SYNC);
+    private static final Set<OpenOption> OPTIONS = Set.of(StandardOpenOption.READ, StandardOpenOption.WRITE, StandardOpenOption.CREATE);
     private static final int MAX_CACHE_SIZE = 128;
 
     private final Path root;
-    private final File tmp;
     private final int worldHeight;
 
     private final Object2ObjectLinkedOpenHashMap<String, Holder> cache = new Object2ObjectLinkedOpenHashMap<>();
 
     public IOWorker(File root, int worldHeight) {
         this.root = root.toPath();
-        this.tmp = new File(root, ".tmp");
         this.worldHeight = worldHeight;
     }
 
+    /**
+     * Check if the given file name uses the old stream based plate format
+     *
+     * @param name the file name
+     * @return true if the plate has to be migrated on the next write
+     */
+    public static boolean isLegacy(String name) {
+        return name.endsWith(".lz4b");
+    }
+
     public TectonicPlate read(final String name) throws IOException {
+        if (isLegacy(name)) {
+            return readLegacy(name);
+        }
+
+        PrecisionStopwatch p = PrecisionStopwatch.start();
+        try (var channel = getChannel(name)) {
+            try {
+                return new TectonicPlate(worldHeight, channel.plate(), IrisSettings.get().getPerformance().isMapTectonicPlates());
+            } finally {
+                if (TectonicPlate.hasError() && IrisSettings.get().getGeneral().isDumpMantleOnError()) {
+                    File dump = Iris.instance.getDataFolder("dump", name + ".bin");
+                    Files.copy(channel.read(), dump.toPath(), StandardCopyOption.REPLACE_EXISTING);
+                } else {
+                    Iris.debug("Read Tectonic Plate " + C.DARK_GREEN + name + C.RED + " in " + Form.duration(p.getMilliseconds(), 2));
+                }
+            }
+        }
+    }
+
+    private TectonicPlate readLegacy(final String name) throws IOException {
         PrecisionStopwatch p = PrecisionStopwatch.start();
         try (var channel = getChannel(name)) {
             var raw = channel.read();
@@ -64,31 +91,59 @@ public class IOWorker {
                     File dump = Iris.instance.getDataFolder("dump", name + ".bin");
                     Files.copy(new LZ4BlockInputStream(channel.read()), dump.toPath(), StandardCopyOption.REPLACE_EXISTING);
                 } else {
-                    Iris.debug("Read Tectonic Plate " + C.DARK_GREEN + name + C.RED + " in " + Form.duration(p.getMilliseconds(), 2));
+                    Iris.debug("Read legacy Tectonic Plate " + C.DARK_GREEN + name + C.RED + " in " + Form.duration(p.getMilliseconds(), 2));
                 }
             }
         }
     }
 
-    public void write(final String name, final TectonicPlate plate) throws IOException {
+    public int write(final String name, final TectonicPlate plate) throws IOException {
+        return write(name, plate, false);
+    }
+
+    /**
+     * Write the changed chunks of a plate, the file is synced before this returns
+     *
+     * @param name     the file name
+     * @param plate    the plate
+     * @param snapshot if the plate stays loaded after writing
+     * @return the amount of chunks written
+     * @throws IOException shit happens
+     */
+    public int write(final String name, final TectonicPlate plate, boolean snapshot) throws IOException {
+        if (isLegacy(name)) {
+            throw new IOException("Cannot write Tectonic Plate " + name + " in the legacy format!");
+        }
+
         PrecisionStopwatch p = PrecisionStopwatch.start();
+        int written;
         try (var channel = getChannel(name)) {
-            tmp.mkdirs();
-            File file = File.createTempFile("iris", ".bin", tmp);
-            try {
-                try (var tmp = new DataOutputStream(new LZ4BlockOutputStream(new FileOutputStream(file)))) {
-                    plate.write(tmp);
-                }
+            PlateFile file = channel.writablePlate();
+            if (plate.isLegacy()) {
+                file.reset();
+            }
 
-                try (var out = channel.write()) {
-                    Files.copy(file.toPath(), out);
-                    out.flush();
-                }
-            } finally {
-                file.delete();
+            written = plate.write(file, snapshot);
+        }
+        Iris.debug("Saved " + written + " chunks of Tectonic Plate " + C.DARK_GREEN + name + C.RED + " in " + Form.duration(p.getMilliseconds(), 2));
+        return written;
+    }
+
+    /**
+     * Close the channel for the given file (if open) and delete it
+     *
+     * @param name the file name
+     * @throws IOException shit happens
+     */
+    public void delete(final String name) throws IOException {
+        synchronized (cache) {
+            Holder holder = cache.remove(name);
+            if (holder != null) {
+                holder.close();
             }
         }
-        Iris.debug("Saved Tectonic Plate " + C.DARK_GREEN + name + C.RED + " in " + Form.duration(p.getMilliseconds(), 2));
+
+        Files.deleteIfExists(root.resolve(name));
     }
 
     public void close() throws IOException {
@@ -0,0 +1,343 @@
+/*
+ * Iris is a World Generator for Minecraft Bukkit Servers
+ * Copyright (c) 2022 Arcane Arts (Volmit Software)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.volmit.iris.util.mantle.io;
+
+import com.volmit.iris.Iris;
+import lombok.Getter;
+import net.jpountz.lz4.LZ4Compressor;
+import net.jpountz.lz4.LZ4Factory;
+import net.jpountz.lz4.LZ4FastDecompressor;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.BitSet;
+
+/**
+ * Sector based tectonic plate file, laid out like a minecraft region file.
+ * Every chunk is stored as its own compressed blob, so a plate can be saved
+ * by only rewriting the chunks that changed since it was loaded.
+ * <p>
+ * INT magic
+ * INT plate x
+ * INT plate z
+ * INT chunk data version
+ * 1024 * (INT sector offset, INT blob length)
+ * ??? blobs aligned to 4096 byte sectors (INT raw length, LZ4 block)
+ * <p>
+ * Changed chunks are written into free sectors first and only become visible
+ * once {@link #commit(int, int, int)} rewrites the header, so a crash mid write
+ * leaves the previous state of the plate intact.
+ */
+public class PlateFile {
+    public static final int MAGIC = 0x49545053;
+    public static final int SECTOR_SIZE = 4096;
+    public static final int CHUNKS = 1024;
+    private static final int HEADER_SIZE = 16 + CHUNKS * 8;
+    private static final int HEADER_SECTORS = sectors(HEADER_SIZE);
+    private static final LZ4Compressor COMPRESSOR = LZ4Factory.fastestInstance().fastCompressor();
+    private static final LZ4FastDecompressor DECOMPRESSOR = LZ4Factory.fastestInstance().fastDecompressor();
+
+    private final FileChannel channel;
+    private final int[] offsets = new int[CHUNKS];
+    private final int[] lengths = new int[CHUNKS];
+    private final BitSet used = new BitSet();
+    private final BitSet freed = new BitSet();
+    private boolean changed;
+
+    @Getter
+    private int x;
+    @Getter
+    private int z;
+    @Getter
+    private int version = -1;
+
+    private PlateFile(FileChannel channel) {
+        this.channel = channel;
+        used.set(0, HEADER_SECTORS);
+    }
+
+    /**
+     * Open a plate file on the given channel. Empty channels are treated as an empty plate
+     *
+     * @param channel the file channel
+     * @return the plate file
+     * @throws IOException if the header is corrupted
+     */
+    public static PlateFile open(FileChannel channel) throws IOException {
+        PlateFile file = new PlateFile(channel);
+        long size = channel.size();
+        if (size == 0) {
+            return file;
+        }
+
+        if (size < HEADER_SIZE) {
+            throw new IOException("Tectonic Plate header is truncated!");
+        }
+
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        file.readFully(header, 0);
+        header.flip();
+        if (header.getInt() != MAGIC) {
+            throw new IOException("Not a Tectonic Plate file!");
+        }
+
+        file.x = header.getInt();
+        file.z = header.getInt();
+        file.version = header.getInt();
+        for (int i = 0; i < CHUNKS; i++) {
+            int offset = header.getInt();
+            int length = header.getInt();
+            if (offset == 0 || length <= 0) continue;
+
+            int count = sectors(length);
+            if (offset < HEADER_SECTORS || (long) offset * SECTOR_SIZE + length > size) {
+                Iris.warn("Dropping out of bounds chunk " + i + " in Tectonic Plate " + file.x + " " + file.z);
+                continue;
+            }
+
+            file.offsets[i] = offset;
+            file.lengths[i] = length;
+            file.used.set(offset, offset + count);
+        }
+
+        return file;
+    }
+
+    /**
+     * Open a plate file on the given channel for writing. Empty channels and channels with a damaged
+     * header start over as an empty plate, whose header is written before any chunk is
+     *
+     * @param channel the file channel
+     * @return the plate file
+     * @throws IOException shit happens
+     */
+    public static PlateFile create(FileChannel channel) throws IOException {
+        if (channel.size() > 0) {
+            try {
+                return open(channel);
+            } catch (IOException e) {
+                Iris.warn("Overwriting damaged Tectonic Plate: " + e.getMessage());
+            }
+        }
+
+        PlateFile file = new PlateFile(channel);
+        try {
+            channel.truncate(0);
+        } catch (IOException e) {
+            // The old sectors are not referenced by the new header and get overwritten later
+            Iris.debug("Failed to truncate Tectonic Plate: " + e.getMessage());
+        }
+
+        file.writeHeader(0, 0, -1);
+        channel.force(true);
+        return file;
+    }
+
+    /**
+     * Drop every chunk from this file, forcing the next write to store all chunks again
+     */
+    public void reset() {
+        for (int i = 0; i < CHUNKS; i++) {
+            delete(i);
+        }
+    }
+
+    /**
+     * Check if a chunk is stored in this file
+     *
+     * @param index the chunk index (0-1023)
+     * @return true if it exists
+     */
+    public boolean has(int index) {
+        return offsets[index] != 0;
+    }
+
+    /**
+     * Read and decompress the chunk at the given index
+     *
+     * @param index the chunk index (0-1023)
+     * @return the raw chunk data or null if it doesnt exist
+     * @throws IOException shit happens
+     */
+    public byte[] read(int index) throws IOException {
+        if (!has(index)) return null;
+
+        ByteBuffer blob = ByteBuffer.allocate(lengths[index]);
+        readFully(blob, (long) offsets[index] * SECTOR_SIZE);
+        return decompress(blob);
+    }
+
+    /**
+     * Map the whole file read only. Chunks can be sliced out of the mapping
+     * without copying them onto the heap until they are actually needed
+     *
+     * @return the mapped file or null if the file is empty
+     * @throws IOException shit happens
+     */
+    public ByteBuffer map() throws IOException {
+        long size = channel.size();
+        if (size == 0) return null;
+        return channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+    }
+
+    /**
+     * Slice the compressed blob of a chunk out of a mapping created by {@link #map()}
+     *
+     * @param mapped the mapped file
+     * @param index  the chunk index (0-1023)
+     * @return the compressed blob or null if it doesnt exist
+     */
+    public ByteBuffer slice(ByteBuffer mapped, int index) {
+        if (!has(index)) return null;
+        return mapped.slice(offsets[index] * SECTOR_SIZE, lengths[index]);
+    }
+
+    /**
+     * Decompress a chunk blob as returned by {@link #slice(ByteBuffer, int)}
+     *
+     * @param blob the compressed blob
+     * @return the raw chunk data
+     */
+    public static byte[] decompress(ByteBuffer blob) {
+        int length = blob.getInt(0);
+        byte[] raw = new byte[length];
+        DECOMPRESSOR.decompress(blob, 4, ByteBuffer.wrap(raw), 0, length);
+        return raw;
+    }
+
+    /**
+     * Compress and write a chunk into free sectors. The chunk is only visible after the next commit
+     *
+     * @param index  the chunk index (0-1023)
+     * @param raw    the raw chunk data
+     * @param length the length of the raw chunk data
+     * @throws IOException shit happens
+     */
+    public void write(int index, byte[] raw, int length) throws IOException {
+        byte[] blob = new byte[4 + COMPRESSOR.maxCompressedLength(length)];
+        int size = 4 + COMPRESSOR.compress(raw, 0, length, blob, 4, blob.length - 4);
+        ByteBuffer buffer = ByteBuffer.wrap(blob, 0, size);
+        buffer.putInt(0, length);
+
+        int offset = allocate(sectors(size));
+        delete(index);
+        writeFully(buffer, (long) offset * SECTOR_SIZE);
+        offsets[index] = offset;
+        lengths[index] = size;
+        changed = true;
+    }
+
+    /**
+     * Remove a chunk from this file. Its sectors are released after the next commit
+     *
+     * @param index the chunk index (0-1023)
+     */
+    public void delete(int index) {
+        if (!has(index)) return;
+
+        int offset = offsets[index];
+        freed.set(offset, offset + sectors(lengths[index]));
+        offsets[index] = 0;
+        lengths[index] = 0;
+        changed = true;
+    }
+
+    /**
+     * Publish written chunks by rewriting the header. The chunks are synced before
+     * the header is written, so the header never points at sectors which are not on the disk
+     *
+     * @param x       the plate x
+     * @param z       the plate z
+     * @param version the chunk data version
+     * @throws IOException shit happens
+     */
+    public void commit(int x, int z, int version) throws IOException {
+        if (!changed && this.x == x && this.z == z && this.version == version) {
+            return;
+        }
+
+        channel.force(false);
+        writeHeader(x, z, version);
+
+        used.andNot(freed);
+        freed.clear();
+        long end = (long) Math.max(used.length(), HEADER_SECTORS) * SECTOR_SIZE;
+        if (channel.size() > end) {
+            try {
+                channel.truncate(end);
+            } catch (IOException e) {
+                // Some platforms refuse to truncate files which are still mapped, the tail gets reused later anyway
+                Iris.debug("Failed to truncate Tectonic Plate " + x + " " + z + ": " + e.getMessage());
+            }
+        }
+        channel.force(true);
+
+        this.x = x;
+        this.z = z;
+        this.version = version;
+        changed = false;
+    }
+
+    private void writeHeader(int x, int z, int version) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        header.putInt(MAGIC);
+        header.putInt(x);
+        header.putInt(z);
+        header.putInt(version);
+        for (int i = 0; i < CHUNKS; i++) {
+            header.putInt(offsets[i]);
+            header.putInt(lengths[i]);
+        }
+        header.flip();
+        writeFully(header, 0);
+    }
+
+    private int allocate(int count) {
+        int start = HEADER_SECTORS;
+        while (true) {
+            start = used.nextClearBit(start);
+            int end = used.nextSetBit(start);
+            if (end == -1 || end - start >= count) {
+                used.set(start, start + count);
+                return start;
+            }
+            start = end;
+        }
+    }
+
+    private void readFully(ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, position);
+            if (read == -1) throw new EOFException();
+            position += read;
+        }
+    }
+
+    private void writeFully(ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            position += channel.write(buffer, position);
+        }
+    }
+
+    private static int sectors(int bytes) {
+        return (bytes + SECTOR_SIZE - 1) / SECTOR_SIZE;
+    }
+}
@@ -45,6 +45,16 @@ public class SynchronizedChannel implements Closeable {
         return DelegateStream.write(channel);
     }
 
+    public PlateFile plate() throws IOException {
+        if (closed) throw new IOException("Channel is closed!");
+        return PlateFile.open(channel);
+    }
+
+    public PlateFile writablePlate() throws IOException {
+        if (closed) throw new IOException("Channel is closed!");
+        return PlateFile.create(channel);
+    }
+
     @Override
     public void close() throws IOException {
         if (closed) return;
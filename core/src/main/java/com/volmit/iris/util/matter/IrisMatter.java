@@ -25,10 +25,12 @@ import com.volmit.iris.util.json.JSONObject;
 import com.volmit.iris.util.plugin.VolmitSender;
 import lombok.Getter;
 
+import java.lang.reflect.Constructor;
 import java.util.Objects;
 
 public class IrisMatter extends IrisRegistrant implements Matter {
     protected static final KMap<Class<?>, MatterSlice<?>> slicers = buildSlicers();
+    private static final KMap<Class<?>, Constructor<?>> constructors = new KMap<>();
 
     @Getter
     private final MatterHeader header;
@@ -74,6 +76,7 @@ public class IrisMatter extends IrisRegistrant implements Matter {
     }
 
     @Override
+    @SuppressWarnings("unchecked")
     public <T> MatterSlice<T> createSlice(Class<T> type, Matter m) {
         MatterSlice<?> slice = slicers.get(type);
 
@@ -82,7 +85,14 @@ public class IrisMatter extends IrisRegistrant implements Matter {
         }
 
         try {
-            return slice.getClass().getConstructor(int.class, int.class, int.class).newInstance(getWidth(), getHeight(), getDepth());
+            Constructor<?> constructor = constructors.computeIfAbsent(type, $ -> {
+                try {
+                    return slice.getClass().getConstructor(int.class, int.class, int.class);
+                } catch (NoSuchMethodException e) {
+                    throw new IllegalStateException(e);
+                }
+            });
+            return (MatterSlice<T>) constructor.newInstance(getWidth(), getHeight(), getDepth());
         } catch (Throwable e) {
             e.printStackTrace();
         }
@@ -22,7 +22,9 @@ import com.volmit.iris.Iris;
 import com.volmit.iris.engine.object.IrisObject;
 import com.volmit.iris.engine.object.IrisPosition;
 import com.volmit.iris.util.collection.KSet;
+import com.volmit.iris.util.data.Varint;
 import com.volmit.iris.util.hunk.Hunk;
+import com.volmit.iris.util.hunk.storage.PaletteOrHunk;
 import com.volmit.iris.util.io.CountingDataInputStream;
 import com.volmit.iris.util.mantle.TectonicPlate;
 import com.volmit.iris.util.math.BlockPosition;
@@ -46,7 +48,7 @@ import java.util.function.Function;
  * UTF author
  * UVL createdAt
  * UVI version
- * UTF sliceType (canonical class name)
+ * UTF sliceType (canonical class name) or UVI sliceType (id of the chunk table, see SliceTypes)
  * UVI nodeCount (for each slice)
  * UVI position [(z * w * h) + (y * w) + x]
  * ??? nodeData
@@ -112,6 +114,10 @@ public interface Matter {
         return readDin(in, (b) -> new IrisMatter(b.getX(), b.getY(), b.getZ()));
     }
 
+    static Matter readDin(CountingDataInputStream in, SliceTypes.Table types) throws IOException {
+        return readDin(in, (b) -> new IrisMatter(b.getX(), b.getY(), b.getZ()), types);
+    }
+
     /**
      * Reads the input stream into a matter object using a matter factory.
      * Does not close the input stream. Be a man, close it yourself.
@@ -126,16 +132,29 @@ public interface Matter {
     }
 
     static Matter readDin(CountingDataInputStream din, Function<BlockPosition, Matter> matterFactory) throws IOException {
+        return readDin(din, matterFactory, null);
+    }
+
+    /**
+     * Reads matter whose slice types were written as ids of the given table
+     *
+     * @param din           the input
+     * @param matterFactory the matter factory (size) -> new MatterImpl(size);
+     * @param types         the slice types of the chunk or null if the types were written by name
+     * @return the matter object
+     * @throws IOException shit happens yo
+     */
+    static Matter readDin(CountingDataInputStream din, Function<BlockPosition, Matter> matterFactory, SliceTypes.Table types) throws IOException {
         Matter matter = matterFactory.apply(new BlockPosition(
                 din.readInt(),
                 din.readInt(),
                 din.readInt()));
-        Iris.addPanic("read.matter.size", matter.getWidth() + "x" + matter.getHeight() + "x" + matter.getDepth());
+        Iris.addPanic("read.matter.size", "%dx%dx%d", matter.getWidth(), matter.getHeight(), matter.getDepth());
         int sliceCount = din.readByte();
-        Iris.addPanic("read.matter.slicecount", sliceCount + "");
+        Iris.addPanic("read.matter.slicecount", "%d", sliceCount);
 
         matter.getHeader().read(din);
-        Iris.addPanic("read.matter.header", matter.getHeader().toString());
+        Iris.addPanic("read.matter.header", matter.getHeader());
 
         for (int i = 0; i < sliceCount; i++) {
             long size = din.readInt();
@@ -143,12 +162,23 @@ public interface Matter {
             long start = din.count();
             long end = start + size;
 
-            Iris.addPanic("read.matter.slice", i + "");
+            Iris.addPanic("read.matter.slice", "%d", i);
             try {
-                String cn = din.readUTF();
-                Iris.addPanic("read.matter.slice.class", cn);
+                Class<?> type;
+                if (types == null) {
+                    String cn = din.readUTF();
+                    Iris.addPanic("read.matter.slice.class", cn);
+                    type = Class.forName(cn);
+                } else {
+                    int id = Varint.readUnsignedVarInt(din);
+                    type = types.type(id);
+                    Iris.addPanic("read.matter.slice.class", type != null ? type : types.name(id));
+                    if (type == null) {
+                        din.skipTo(end);
+                        continue;
+                    }
+                }
 
-                Class<?> type = Class.forName(cn);
                 MatterSlice<?> slice = matter.createSlice(type, matter);
                 slice.read(din);
                 if (din.count() < end) throw new IOException("Matter slice read size mismatch!");
@@ -156,8 +186,8 @@ public interface Matter {
             } catch (Throwable e) {
                 if (!(e instanceof ClassNotFoundException)) {
                     Iris.error("Failed to read matter slice, skipping it.");
-                    Iris.addPanic("read.byte.range", start + " " + end);
-                    Iris.addPanic("read.byte.current", din.count() + "");
+                    Iris.addPanic("read.byte.range", "%d %d", start, end);
+                    Iris.addPanic("read.byte.current", "%d", din.count());
                     Iris.reportError(e);
                     e.printStackTrace();
                     Iris.panic();
@@ -427,6 +457,17 @@ public interface Matter {
     }
 
     default void writeDos(DataOutputStream dos) throws IOException {
+        writeDos(dos, null);
+    }
+
+    /**
+     * Writes the data with the slice types as ids of the given table
+     *
+     * @param dos   the output stream
+     * @param types the slice types of the chunk or null to write the types by name
+     * @throws IOException shit happens yo
+     */
+    default void writeDos(DataOutputStream dos, SliceTypes.Table types) throws IOException {
         trimSlices();
         dos.writeInt(getWidth());
         dos.writeInt(getHeight());
@@ -438,7 +479,7 @@ public interface Matter {
         var sub = new DataOutputStream(bytes);
         for (Class<?> i : getSliceTypes()) {
             try {
-                getSlice(i).write(sub);
+                getSlice(i).write(sub, types);
                 dos.writeInt(bytes.size());
                 bytes.writeTo(dos);
             } finally {
@@ -447,6 +488,21 @@ public interface Matter {
         }
     }
 
+    /**
+     * Approximate the retained heap size of this matter and all of its slices
+     *
+     * @return the size in bytes
+     */
+    default long getMemorySize() {
+        long size = 128;
+
+        for (MatterSlice<?> i : getSliceMap().values()) {
+            size += i instanceof PaletteOrHunk<?> h ? h.getMemorySize() : 64L + i.getEntryCount() * 64L;
+        }
+
+        return size;
+    }
+
     default int getTotalCount() {
         int m = 0;
 
@@ -158,7 +158,22 @@ public interface MatterSlice<T> extends Hunk<T>, PaletteType<T>, Writable<T> {
     }
 
     default void write(DataOutputStream dos) throws IOException {
-        dos.writeUTF(getType().getCanonicalName());
+        write(dos, null);
+    }
+
+    /**
+     * Write this slice, the type is written as an id of the given table or by name if there is none
+     *
+     * @param dos   the output
+     * @param types the slice types of the chunk or null
+     * @throws IOException shit happens
+     */
+    default void write(DataOutputStream dos, SliceTypes.Table types) throws IOException {
+        if (types == null) {
+            dos.writeUTF(getType().getCanonicalName());
+        } else {
+            Varint.writeUnsignedVarInt(types.id(getType()), dos);
+        }
 
         if ((this instanceof PaletteOrHunk f && f.isPalette())) {
             f.palette().writeDos(dos);
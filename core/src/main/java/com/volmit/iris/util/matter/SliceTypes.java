@@ -0,0 +1,199 @@
+/*
+ * Iris is a World Generator for Minecraft Bukkit Servers
+ * Copyright (c) 2022 Arcane Arts (Volmit Software)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.volmit.iris.util.matter;
+
+import com.volmit.iris.core.link.Identifier;
+import com.volmit.iris.engine.object.IrisSpawner;
+import com.volmit.iris.util.collection.KList;
+import com.volmit.iris.util.collection.KMap;
+import com.volmit.iris.util.data.Varint;
+import com.volmit.iris.util.matter.slices.container.JigsawPieceContainer;
+import com.volmit.iris.util.matter.slices.container.JigsawStructureContainer;
+import com.volmit.iris.util.matter.slices.container.JigsawStructuresContainer;
+import com.volmit.iris.util.nbt.tag.CompoundTag;
+import it.unimi.dsi.fastutil.objects.Object2IntMap;
+import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
+import org.bukkit.block.data.BlockData;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Optional;
+
+/**
+ * Stable numeric ids for the slice types written into mantle chunks.
+ * <p>
+ * The ids are part of the tectonic plate format: types are only ever appended to the
+ * list and an id is never reused. Types without an id (slices registered later or by
+ * other plugins) are written by name into a string table in front of the chunk instead.
+ */
+public final class SliceTypes {
+    private static final int TABLE = 128;
+    private static final Class<?>[] TYPES = {
+            null,
+            BlockData.class,
+            MatterCavern.class,
+            MatterMarker.class,
+            MatterUpdate.class,
+            MatterEntityGroup.class,
+            MatterBiomeInject.class,
+            TileWrapper.class,
+            CompoundTag.class,
+            IrisSpawner.class,
+            Identifier.class,
+            JigsawPieceContainer.class,
+            JigsawStructureContainer.class,
+            JigsawStructuresContainer.class,
+            MatterStructurePOI.class,
+            Boolean.class,
+            Integer.class,
+            Long.class,
+            String.class
+    };
+    private static final Object2IntMap<Class<?>> IDS = new Object2IntOpenHashMap<>();
+    private static final KMap<String, Optional<Class<?>>> NAMES = new KMap<>();
+
+    static {
+        IDS.defaultReturnValue(-1);
+        for (int i = 1; i < TYPES.length; i++) {
+            IDS.put(TYPES[i], i);
+        }
+    }
+
+    private SliceTypes() {
+    }
+
+    /**
+     * Resolve a type written by name, the result is cached so every name is only looked up once
+     *
+     * @param name the canonical class name
+     * @return the type or null if there is no such class
+     */
+    public static Class<?> forName(String name) {
+        return NAMES.computeIfAbsent(name, k -> {
+            try {
+                return Optional.of(Class.forName(k));
+            } catch (ClassNotFoundException e) {
+                return Optional.empty();
+            }
+        }).orElse(null);
+    }
+
+    /**
+     * The types used by the slices of one chunk. Built while the chunk is written and
+     * written in front of it, read back in front of the chunk before its sections.
+     */
+    public static class Table {
+        private final KList<String> names;
+        private final Object2IntMap<String> index;
+        private Class<?>[] types;
+
+        public Table() {
+            names = new KList<>();
+            index = new Object2IntOpenHashMap<>();
+            index.defaultReturnValue(-1);
+        }
+
+        /**
+         * Read a table written by {@link #write(DataOutput)}
+         *
+         * @param din the input
+         * @return the table
+         * @throws IOException shit happens
+         */
+        public static Table read(DataInput din) throws IOException {
+            Table table = new Table();
+            int size = Varint.readUnsignedVarInt(din);
+            table.types = new Class<?>[size];
+
+            for (int i = 0; i < size; i++) {
+                String name = din.readUTF();
+                table.names.add(name);
+                table.types[i] = forName(name);
+            }
+
+            return table;
+        }
+
+        /**
+         * Get the id to write for a type, types without a stable id are added to this table
+         *
+         * @param type the slice type
+         * @return the id
+         */
+        public int id(Class<?> type) {
+            int id = IDS.getInt(type);
+
+            if (id != -1) {
+                return id;
+            }
+
+            String name = type.getCanonicalName();
+            int i = index.getInt(name);
+
+            if (i == -1) {
+                i = names.size();
+                names.add(name);
+                index.put(name, i);
+            }
+
+            return TABLE + i;
+        }
+
+        /**
+         * Get the type of an id which was read
+         *
+         * @param id the id
+         * @return the type or null if it is unknown or its class no longer exists
+         */
+        public Class<?> type(int id) {
+            if (id < TABLE) {
+                return id > 0 && id < TYPES.length ? TYPES[id] : null;
+            }
+
+            int i = id - TABLE;
+            return types != null && i < types.length ? types[i] : null;
+        }
+
+        /**
+         * Describe an id for error reporting
+         *
+         * @param id the id
+         * @return the class name behind the id
+         */
+        public String name(int id) {
+            Class<?> type = type(id);
+
+            if (type != null) {
+                return type.getCanonicalName();
+            }
+
+            int i = id - TABLE;
+            return i >= 0 && i < names.size() ? names.get(i) : "#" + id;
+        }
+
+        public void write(DataOutput dos) throws IOException {
+            Varint.writeUnsignedVarInt(names.size(), dos);
+
+            for (String i : names) {
+                dos.writeUTF(i);
+            }
+        }
+    }
+}
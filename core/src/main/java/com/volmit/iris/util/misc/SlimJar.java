@@ -16,6 +16,7 @@ import static com.volmit.iris.Iris.instance;
 public class SlimJar {
     private static final boolean DEBUG = Boolean.getBoolean("iris.debug-slimjar");
     private static final boolean DISABLE_REMAPPER = Boolean.getBoolean("iris.disable-remapper");
+    private static final boolean PROVIDED = Boolean.getBoolean("iris.provided-libraries");
 
     private static final ReentrantLock lock = new ReentrantLock();
     private static final AtomicBoolean loaded = new AtomicBoolean();
@@ -26,6 +27,11 @@ public class SlimJar {
 
         try {
             if (loaded.getAndSet(true)) return;
+            if (PROVIDED) {
+                // The libraries are already on the classpath, e.g. when running the benchmarks
+                return;
+            }
+
             final var downloadPath = instance.getDataFolder("cache", "libraries").toPath();
             final var logger = instance.getLogger();
 
@@ -41,16 +41,16 @@ import java.util.List;
 
 @Data
 public class CNG {
-    public static final NoiseInjector ADD = (s, v) -> new double[]{s + v, 1};
-    public static final NoiseInjector SRC_SUBTRACT = (s, v) -> new double[]{s - v < 0 ? 0 : s - v, -1};
-    public static final NoiseInjector DST_SUBTRACT = (s, v) -> new double[]{v - s < 0 ? 0 : s - v, -1};
-    public static final NoiseInjector MULTIPLY = (s, v) -> new double[]{s * v, 0};
-    public static final NoiseInjector MAX = (s, v) -> new double[]{Math.max(s, v), 0};
-    public static final NoiseInjector MIN = (s, v) -> new double[]{Math.min(s, v), 0};
-    public static final NoiseInjector SRC_MOD = (s, v) -> new double[]{s % v, 0};
-    public static final NoiseInjector SRC_POW = (s, v) -> new double[]{Math.pow(s, v), 0};
-    public static final NoiseInjector DST_MOD = (s, v) -> new double[]{v % s, 0};
-    public static final NoiseInjector DST_POW = (s, v) -> new double[]{Math.pow(v, s), 0};
+    public static final NoiseInjector ADD = NoiseInjector.of((s, v) -> s + v, 1);
+    public static final NoiseInjector SRC_SUBTRACT = NoiseInjector.of((s, v) -> s - v < 0 ? 0 : s - v, -1);
+    public static final NoiseInjector DST_SUBTRACT = NoiseInjector.of((s, v) -> v - s < 0 ? 0 : s - v, -1);
+    public static final NoiseInjector MULTIPLY = NoiseInjector.of((s, v) -> s * v, 0);
+    public static final NoiseInjector MAX = NoiseInjector.of(Math::max, 0);
+    public static final NoiseInjector MIN = NoiseInjector.of(Math::min, 0);
+    public static final NoiseInjector SRC_MOD = NoiseInjector.of((s, v) -> s % v, 0);
+    public static final NoiseInjector SRC_POW = NoiseInjector.of(Math::pow, 0);
+    public static final NoiseInjector DST_MOD = NoiseInjector.of((s, v) -> v % s, 0);
+    public static final NoiseInjector DST_POW = NoiseInjector.of((s, v) -> Math.pow(v, s), 0);
     public static long hits = 0;
     public static long creates = 0;
     private final double opacity;
@@ -415,6 +415,22 @@ public class CNG {
         return v.get(0);
     }
 
+    public int fit(int min, int max, double x, double z) {
+        if (min == max) {
+            return min;
+        }
+
+        return (int) Math.round(IrisInterpolation.lerp(min, max, noise2(x, z)));
+    }
+
+    public int fit(int min, int max, double x, double y, double z) {
+        if (min == max) {
+            return min;
+        }
+
+        return (int) Math.round(IrisInterpolation.lerp(min, max, noise3(x, y, z)));
+    }
+
     public int fit(int min, int max, double... dim) {
         if (min == max) {
             return min;
@@ -425,6 +441,22 @@ public class CNG {
         return (int) Math.round(IrisInterpolation.lerp(min, max, noise));
     }
 
+    public int fit(double min, double max, double x, double z) {
+        if (min == max) {
+            return (int) Math.round(min);
+        }
+
+        return (int) Math.round(IrisInterpolation.lerp(min, max, noise2(x, z)));
+    }
+
+    public int fit(double min, double max, double x, double y, double z) {
+        if (min == max) {
+            return (int) Math.round(min);
+        }
+
+        return (int) Math.round(IrisInterpolation.lerp(min, max, noise3(x, y, z)));
+    }
+
     public int fit(double min, double max, double... dim) {
         if (min == max) {
             return (int) Math.round(min);
@@ -435,6 +467,22 @@ public class CNG {
         return (int) Math.round(IrisInterpolation.lerp(min, max, noise));
     }
 
+    public double fitDouble(double min, double max, double x, double z) {
+        if (min == max) {
+            return min;
+        }
+
+        return IrisInterpolation.lerp(min, max, noise2(x, z));
+    }
+
+    public double fitDouble(double min, double max, double x, double y, double z) {
+        if (min == max) {
+            return min;
+        }
+
+        return IrisInterpolation.lerp(min, max, noise3(x, y, z));
+    }
+
     public double fitDouble(double min, double max, double... dim) {
         if (min == max) {
             return min;
@@ -445,6 +493,57 @@ public class CNG {
         return IrisInterpolation.lerp(min, max, noise);
     }
 
+    private double getNoise1(double x) {
+        double scale = noscale ? 1 : this.bakedScale * this.scale;
+
+        if (fracture == null || noscale) {
+            return generator.noise(x * scale, 0D, 0D) * opacity;
+        }
+
+        if (fracture.isTrueFracturing()) {
+            double fx = x + ((fracture.noise1(x) - 0.5) * fscale);
+            return generator.noise(fx * scale, 0D, 0D) * opacity;
+        }
+
+        double f = fracture.noise1(x) * fscale;
+        return generator.noise((x + f) * scale, 0D, 0D) * opacity;
+    }
+
+    private double getNoise2(double x, double y) {
+        double scale = noscale ? 1 : this.bakedScale * this.scale;
+
+        if (fracture == null || noscale) {
+            return generator.noise(x * scale, y * scale, 0D) * opacity;
+        }
+
+        if (fracture.isTrueFracturing()) {
+            double fx = x + ((fracture.noise2(x, y) - 0.5) * fscale);
+            double fy = y + ((fracture.noise2(y, x) - 0.5) * fscale);
+            return generator.noise(fx * scale, fy * scale, 0D) * opacity;
+        }
+
+        double f = fracture.noise2(x, y) * fscale;
+        return generator.noise((x + f) * scale, (y - f) * scale, 0D) * opacity;
+    }
+
+    private double getNoise3(double x, double y, double z) {
+        double scale = noscale ? 1 : this.bakedScale * this.scale;
+
+        if (fracture == null || noscale) {
+            return generator.noise(x * scale, y * scale, z * scale) * opacity;
+        }
+
+        if (fracture.isTrueFracturing()) {
+            double fx = x + ((fracture.noise3(x, y, z) - 0.5) * fscale);
+            double fy = y + ((fracture.noise2(y, x) - 0.5) * fscale);
+            double fz = z + ((fracture.noise3(z, x, y) - 0.5) * fscale);
+            return generator.noise(fx * scale, fy * scale, fz * scale) * opacity;
+        }
+
+        double f = fracture.noise3(x, y, z) * fscale;
+        return generator.noise((x + f) * scale, (y - f) * scale, (z - f) * scale) * opacity;
+    }
+
     private double getNoise(double... dim) {
         double scale = noscale ? 1 : this.bakedScale * this.scale;
 
@@ -481,32 +580,124 @@ public class CNG {
         return noise(dim);
     }
 
+    public double noiseSym(double x, double z) {
+        return (noise2(x, z) * 2) - 1;
+    }
+
+    public double noiseSym(double x, double y, double z) {
+        return (noise3(x, y, z) * 2) - 1;
+    }
+
     public double noiseSym(double... dim) {
         return (noise(dim) * 2) - 1;
     }
 
     public double noise(double... dim) {
-        if (cache != null && dim.length == 2) {
-            return cache.get((int) dim[0], (int) dim[1]);
+        switch (dim.length) {
+            case 1:
+                return noise1(dim[0]);
+            case 2:
+                return noise2(dim[0], dim[1]);
+            case 3:
+                return noise3(dim[0], dim[1], dim[2]);
+        }
+
+        double n = power(getNoise(dim));
+        hits += oct;
+        if (children == null) {
+            return (n - down + up) * patch;
+        }
+
+        double m = 1;
+        for (CNG i : children) {
+            double v = i.noise(dim);
+            m += injector.weight(n, v);
+            n = injector.value(n, v);
+        }
+
+        return ((n / m) - down + up) * patch;
+    }
+
+    public double noise(double x) {
+        return noise1(x);
+    }
+
+    public double noise(double x, double z) {
+        return noise2(x, z);
+    }
+
+    public double noise(double x, double y, double z) {
+        return noise3(x, y, z);
+    }
+
+    /**
+     * Fixed arity variant of {@link #noise(double...)} which does not allocate
+     */
+    public double noise1(double x) {
+        double n = power(getNoise1(x));
+        hits += oct;
+        if (children == null) {
+            return (n - down + up) * patch;
         }
 
-        double n = getNoise(dim);
-        n = power != 1D ? (n < 0 ? -Math.pow(Math.abs(n), power) : Math.pow(n, power)) : n;
         double m = 1;
+        for (CNG i : children) {
+            double v = i.noise1(x);
+            m += injector.weight(n, v);
+            n = injector.value(n, v);
+        }
+
+        return ((n / m) - down + up) * patch;
+    }
+
+    /**
+     * Fixed arity variant of {@link #noise(double...)} which does not allocate
+     */
+    public double noise2(double x, double z) {
+        if (cache != null) {
+            return cache.get((int) x, (int) z);
+        }
+
+        double n = power(getNoise2(x, z));
         hits += oct;
         if (children == null) {
             return (n - down + up) * patch;
         }
 
+        double m = 1;
         for (CNG i : children) {
-            double[] r = injector.combine(n, i.noise(dim));
-            n = r[0];
-            m += r[1];
+            double v = i.noise2(x, z);
+            m += injector.weight(n, v);
+            n = injector.value(n, v);
         }
 
         return ((n / m) - down + up) * patch;
     }
 
+    /**
+     * Fixed arity variant of {@link #noise(double...)} which does not allocate
+     */
+    public double noise3(double x, double y, double z) {
+        double n = power(getNoise3(x, y, z));
+        hits += oct;
+        if (children == null) {
+            return (n - down + up) * patch;
+        }
+
+        double m = 1;
+        for (CNG i : children) {
+            double v = i.noise3(x, y, z);
+            m += injector.weight(n, v);
+            n = injector.value(n, v);
+        }
+
+        return ((n / m) - down + up) * patch;
+    }
+
+    private double power(double n) {
+        return power != 1D ? (n < 0 ? -Math.pow(Math.abs(n), power) : Math.pow(n, power)) : n;
+    }
+
     public CNG pow(double power) {
         this.power = power;
         return this;
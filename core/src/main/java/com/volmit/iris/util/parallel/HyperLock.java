@@ -18,7 +18,6 @@
 
 package com.volmit.iris.util.parallel;
 
-import com.googlecode.concurrentlinkedhashmap.ConcurrentLinkedHashMap;
 import com.volmit.iris.Iris;
 import com.volmit.iris.engine.data.cache.Cache;
 import com.volmit.iris.util.function.NastyRunnable;
@@ -27,34 +26,38 @@ import com.volmit.iris.util.io.IORunnable;
 
 import java.io.IOException;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
 import java.util.function.Supplier;
 
+/**
+ * A fixed table of lock stripes for x/z keys. Every key always maps to the same
+ * stripe, so two threads can never hold different locks for the same key, and
+ * locking never allocates. Keys which share a stripe simply share the lock.
+ */
 public class HyperLock {
-    private final ConcurrentLinkedHashMap<Long, ReentrantLock> locks;
-    private boolean enabled = true;
-    private boolean fair = false;
+    private final Lock[] locks;
+    private final int mask;
+    private final LongAdder contention = new LongAdder();
+    private volatile boolean enabled = true;
 
     public HyperLock() {
         this(1024, false);
     }
 
-    public HyperLock(int capacity) {
-        this(capacity, false);
+    public HyperLock(int stripes) {
+        this(stripes, false);
     }
 
-    public HyperLock(int capacity, boolean fair) {
-        this.fair = fair;
-        locks = new ConcurrentLinkedHashMap.Builder<Long, ReentrantLock>()
-                .initialCapacity(capacity)
-                .maximumWeightedCapacity(capacity)
-                .listener((k, v) -> {
-                    if (v.isLocked() || v.isHeldByCurrentThread()) {
-                        Iris.warn("InfiniLock Eviction of " + k + " still has locks on it!");
-                    }
-                })
-                .concurrencyLevel(32)
-                .build();
+    public HyperLock(int stripes, boolean fair) {
+        int size = stripes <= 1 ? 1 : Integer.highestOneBit(stripes - 1) << 1;
+        mask = size - 1;
+        locks = new Lock[size];
+
+        for (int i = 0; i < size; i++) {
+            locks[i] = new ReentrantLock(fair);
+        }
     }
 
     public void with(int x, int z, Runnable r) {
@@ -67,12 +70,17 @@ public class HyperLock {
     }
 
     public void withLong(long k, Runnable r) {
-        int x = Cache.keyX(k), z = Cache.keyZ(k);
-        lock(x, z);
+        Lock lock = locks[stripe(k)];
+        if (!enabled) {
+            r.run();
+            return;
+        }
+
+        acquire(lock);
         try {
             r.run();
         } finally {
-            unlock(x, z);
+            lock.unlock();
         }
     }
 
@@ -140,8 +148,23 @@ public class HyperLock {
         return false;
     }
 
-    private ReentrantLock getLock(int x, int z) {
-        return locks.computeIfAbsent(Cache.key(x, z), k -> new ReentrantLock(fair));
+    private Lock getLock(int x, int z) {
+        return locks[stripe(Cache.key(x, z))];
+    }
+
+    /**
+     * Spread the packed key over the stripes, neighbouring keys land on different stripes
+     */
+    private int stripe(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32)) & mask;
+    }
+
+    private void acquire(Lock lock) {
+        if (!lock.tryLock()) {
+            contention.increment();
+            lock.lock();
+        }
     }
 
     public void lock(int x, int z) {
@@ -149,7 +172,7 @@ public class HyperLock {
             return;
         }
 
-        getLock(x, z).lock();
+        acquire(getLock(x, z));
     }
 
     public void unlock(int x, int z) {
@@ -160,8 +183,19 @@ public class HyperLock {
         getLock(x, z).unlock();
     }
 
+    /**
+     * The number of times a lock was already held when it was requested
+     *
+     * @return the contention count
+     */
+    public long getContention() {
+        return contention.sum();
+    }
+
     public void disable() {
         enabled = false;
-        locks.values().forEach(ReentrantLock::lock);
+        for (Lock lock : locks) {
+            lock.lock();
+        }
     }
 }
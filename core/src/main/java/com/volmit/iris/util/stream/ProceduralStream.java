@@ -279,6 +279,14 @@ public interface ProceduralStream<T> extends ProceduralLayer, Interpolated<T> {
         return new CachedStream2D<T>(name, engine, this, size);
     }
 
+    default DoubleCachedStream2D<T> cache2DDouble(String name, Engine engine, int size) {
+        return new DoubleCachedStream2D<T>(name, engine, this, size);
+    }
+
+    default IntCachedStream2D<T> cache2DInt(String name, Engine engine, int size) {
+        return new IntCachedStream2D<T>(name, engine, this, size);
+    }
+
     default ProceduralStream<T> cache3D(String name, Engine engine, int maxSize) {
         return new CachedStream3D<T>(name, engine, this, maxSize);
     }
@@ -556,6 +564,67 @@ public interface ProceduralStream<T> extends ProceduralLayer, Interpolated<T> {
         return toDouble(get(x, y, z));
     }
 
+    /**
+     * Sample a w * d region of this stream into out, where out[(j * w) + i] is the value at (x + i, z + j).
+     * Streams which can share work between neighbouring columns (interpolators, arithmetic on top of them)
+     * override this to walk their source once per region instead of once per column
+     *
+     * @param x   the min x
+     * @param z   the min z
+     * @param w   the width of the region
+     * @param d   the depth of the region
+     * @param out the output, at least w * d long
+     */
+    default void fillRegion(int x, int z, int w, int d, double[] out) {
+        for (int j = 0; j < d; j++) {
+            for (int i = 0; i < w; i++) {
+                out[(j * w) + i] = getDouble(x + i, z + j);
+            }
+        }
+    }
+
+    /**
+     * Sample a w * d region of this stream into out, where out[(j * w) + i] is the value at (x + i, z + j)
+     *
+     * @param x   the min x
+     * @param z   the min z
+     * @param w   the width of the region
+     * @param d   the depth of the region
+     * @param out the output, at least w * d long
+     */
+    default void fillRegion(int x, int z, int w, int d, T[] out) {
+        for (int j = 0; j < d; j++) {
+            for (int i = 0; i < w; i++) {
+                out[(j * w) + i] = get(x + i, z + j);
+            }
+        }
+    }
+
+    /**
+     * Sample a w * d grid of this stream spaced step blocks apart into out, where out[(j * w) + i] is the
+     * value at (x + (i * step), z + (j * step)). Like {@link #getUncached(double, double)} this reads past
+     * the outer caches, use it for sparse reads which would only evict generation data.
+     *
+     * @param x    the min x
+     * @param z    the min z
+     * @param w    the width of the grid
+     * @param d    the depth of the grid
+     * @param step the blocks between two samples
+     * @param out  the output, at least w * d long
+     */
+    default void fillUncached(int x, int z, int w, int d, int step, T[] out) {
+        if (step == 1) {
+            fillRegion(x, z, w, d, out);
+            return;
+        }
+
+        for (int j = 0; j < d; j++) {
+            for (int i = 0; i < w; i++) {
+                out[(j * w) + i] = getUncached(x + (i * step), z + (j * step));
+            }
+        }
+    }
+
     ProceduralStream<T> getTypedSource();
 
     ProceduralStream<?> getSource();
@@ -578,4 +647,16 @@ public interface ProceduralStream<T> extends ProceduralLayer, Interpolated<T> {
     T get(double x, double z);
 
     T get(double x, double y, double z);
+
+    /**
+     * Sample this stream without filling the cache in front of it. Meant for samples far away from
+     * generation, like map renders, which would only evict the entries generation is about to use.
+     *
+     * @param x the x coordinate
+     * @param z the z coordinate
+     * @return the value
+     */
+    default T getUncached(double x, double z) {
+        return get(x, z);
+    }
 }
@@ -63,4 +63,14 @@ public class FittedStream<T> extends BasicStream<T> implements ProceduralStream<
         return fromDouble(dlerp(getTypedSource().getDouble(x, y, z)));
     }
 
+    @Override
+    public void fillRegion(int x, int z, int w, int d, double[] out) {
+        getTypedSource().fillRegion(x, z, w, d, out);
+        for (int j = 0; j < d; j++) {
+            for (int i = 0; i < w; i++) {
+                int k = (j * w) + i;
+                out[k] = toDouble(fromDouble(dlerp(out[k])));
+            }
+        }
+    }
 }
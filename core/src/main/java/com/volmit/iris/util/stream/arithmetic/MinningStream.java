@@ -59,4 +59,14 @@ public class MinningStream<T> extends BasicStream<T> {
         return fromDouble(Math.min(add.apply(x, y, z), getTypedSource().getDouble(x, y, z)));
     }
 
+    @Override
+    public void fillRegion(int x, int z, int w, int d, double[] out) {
+        getTypedSource().fillRegion(x, z, w, d, out);
+        for (int j = 0; j < d; j++) {
+            for (int i = 0; i < w; i++) {
+                int k = (j * w) + i;
+                out[k] = toDouble(fromDouble(Math.min(add.apply((double) (x + i), 0D, (double) (z + j)), out[k])));
+            }
+        }
+    }
 }
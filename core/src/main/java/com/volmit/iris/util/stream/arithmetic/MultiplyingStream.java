@@ -58,4 +58,15 @@ public class MultiplyingStream<T> extends BasicStream<T> {
     public T get(double x, double y, double z) {
         return fromDouble(getTypedSource().getDouble(x, y, z) * add.apply(x, y, z));
     }
+
+    @Override
+    public void fillRegion(int x, int z, int w, int d, double[] out) {
+        getTypedSource().fillRegion(x, z, w, d, out);
+        for (int j = 0; j < d; j++) {
+            for (int i = 0; i < w; i++) {
+                int k = (j * w) + i;
+                out[k] = toDouble(fromDouble(out[k] * add.apply((double) (x + i), 0D, (double) (z + j))));
+            }
+        }
+    }
 }
@@ -53,4 +53,11 @@ public class RoundingDoubleStream extends BasicStream<Double> {
         return round(stream.getDouble(x, y, z));
     }
 
+    @Override
+    public void fillRegion(int x, int z, int w, int d, double[] out) {
+        stream.fillRegion(x, z, w, d, out);
+        for (int i = 0; i < w * d; i++) {
+            out[i] = round(out[i]);
+        }
+    }
 }
@@ -60,4 +60,17 @@ public class AwareConversionStream2D<T, V> extends BasicStream<V> {
     public V get(double x, double y, double z) {
         return converter.apply(stream.get(x, y, z), x, z);
     }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void fillRegion(int x, int z, int w, int d, V[] out) {
+        T[] in = (T[]) new Object[w * d];
+        stream.fillRegion(x, z, w, d, in);
+        for (int j = 0; j < d; j++) {
+            for (int i = 0; i < w; i++) {
+                int k = (j * w) + i;
+                out[k] = converter.apply(in[k], (double) (x + i), (double) (z + j));
+            }
+        }
+    }
 }
@@ -65,4 +65,14 @@ public class CachedConversionStream<T, V> extends BasicLayer implements Procedur
     public V get(double x, double y, double z) {
         return cache.computeIfAbsent(stream.get(x, y, z), converter);
     }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void fillRegion(int x, int z, int w, int d, V[] out) {
+        T[] in = (T[]) new Object[w * d];
+        stream.fillRegion(x, z, w, d, in);
+        for (int i = 0; i < in.length; i++) {
+            out[i] = cache.computeIfAbsent(in[i], converter);
+        }
+    }
 }
@@ -66,4 +66,14 @@ public class ConversionStream<T, V> extends BasicLayer implements ProceduralStre
     public V get(double x, double y, double z) {
         return converter.apply(stream.get(x, y, z));
     }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void fillRegion(int x, int z, int w, int d, V[] out) {
+        T[] in = (T[]) new Object[w * d];
+        stream.fillRegion(x, z, w, d, in);
+        for (int i = 0; i < in.length; i++) {
+            out[i] = converter.apply(in[i]);
+        }
+    }
 }
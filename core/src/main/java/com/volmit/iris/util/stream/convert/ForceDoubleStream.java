@@ -49,4 +49,8 @@ public class ForceDoubleStream extends BasicStream<Double> {
         return stream.getDouble(x, y, z);
     }
 
+    @Override
+    public void fillRegion(int x, int z, int w, int d, double[] out) {
+        stream.fillRegion(x, z, w, d, out);
+    }
 }
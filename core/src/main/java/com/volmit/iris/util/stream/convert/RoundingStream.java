@@ -52,4 +52,12 @@ public class RoundingStream extends BasicStream<Integer> {
     public Integer get(double x, double y, double z) {
         return round(stream.getDouble(x, y, z));
     }
+
+    @Override
+    public void fillRegion(int x, int z, int w, int d, double[] out) {
+        stream.fillRegion(x, z, w, d, out);
+        for (int i = 0; i < w * d; i++) {
+            out[i] = round(out[i]);
+        }
+    }
 }
@@ -21,6 +21,7 @@ package com.volmit.iris.util.stream.convert;
 import com.volmit.iris.util.stream.BasicStream;
 import com.volmit.iris.util.stream.ProceduralStream;
 
+import java.util.Arrays;
 import java.util.List;
 
 public class SelectionStream<T> extends BasicStream<T> {
@@ -66,4 +67,17 @@ public class SelectionStream<T> extends BasicStream<T> {
         return options[stream.get(x, y, z)];
     }
 
+    @Override
+    public void fillRegion(int x, int z, int w, int d, T[] out) {
+        if (options.length == 0) {
+            Arrays.fill(out, 0, w * d, null);
+            return;
+        }
+
+        double[] in = new double[w * d];
+        stream.fillRegion(x, z, w, d, in);
+        for (int i = 0; i < in.length; i++) {
+            out[i] = options[(int) in[i]];
+        }
+    }
 }
@@ -95,4 +95,46 @@ public class BiHermiteStream<T> extends BasicStream<T> implements Interpolator<T
     public T get(double x, double y, double z) {
         return interpolate(x, z);
     }
+
+    @Override
+    public void fillRegion(int x, int z, int w, int d, double[] out) {
+        InterpolationLattice l = new InterpolationLattice(getTypedSource(), x, z, w, d, rx, ry, 1);
+        for (int j = 0; j < d; j++) {
+            int zz = z + j;
+            int fz = l.cellZ(zz);
+            double pz = IrisInterpolation.rangeScale(0, 1, fz * ry, (fz + 1) * ry, zz);
+            for (int i = 0; i < w; i++) {
+                int xx = x + i;
+                int fx = l.cellX(xx);
+                double px = IrisInterpolation.rangeScale(0, 1, fx * rx, (fx + 1) * rx, xx);
+                out[(j * w) + i] = toDouble(fromDouble(IrisInterpolation.bihermite(
+                        l.get(fx - 1, fz - 1),
+                        l.get(fx - 1, fz),
+                        l.get(fx - 1, fz + 1),
+                        l.get(fx - 1, fz + 2),
+                        l.get(fx, fz - 1),
+                        l.get(fx, fz),
+                        l.get(fx, fz + 1),
+                        l.get(fx, fz + 2),
+                        l.get(fx + 1, fz - 1),
+                        l.get(fx + 1, fz),
+                        l.get(fx + 1, fz + 1),
+                        l.get(fx + 1, fz + 2),
+                        l.get(fx + 2, fz - 1),
+                        l.get(fx + 2, fz),
+                        l.get(fx + 2, fz + 1),
+                        l.get(fx + 2, fz + 2),
+                        px, pz, tension, bias)));
+            }
+        }
+    }
+
+    @Override
+    public void fillRegion(int x, int z, int w, int d, T[] out) {
+        double[] values = new double[w * d];
+        fillRegion(x, z, w, d, values);
+        for (int i = 0; i < values.length; i++) {
+            out[i] = fromDouble(values[i]);
+        }
+    }
 }
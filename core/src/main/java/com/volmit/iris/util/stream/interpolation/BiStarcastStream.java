@@ -18,6 +18,7 @@
 
 package com.volmit.iris.util.stream.interpolation;
 
+import com.volmit.iris.util.collection.KList;
 import com.volmit.iris.util.stream.BasicStream;
 import com.volmit.iris.util.stream.ProceduralStream;
 
@@ -65,4 +66,34 @@ public class BiStarcastStream<T> extends BasicStream<T> implements Interpolator<
     public T get(double x, double y, double z) {
         return interpolate(x, z);
     }
+
+    @Override
+    public void fillRegion(int x, int z, int w, int d, double[] out) {
+        KList<double[]> offsets = new KList<>();
+        double m = (360D / checks);
+        for (int i = 0; i < 360; i += m) {
+            double sin = Math.sin(Math.toRadians(i));
+            double cos = Math.cos(Math.toRadians(i));
+            offsets.add(new double[]{(rad * cos) - (rad * sin), (rad * sin) + (rad * cos)});
+        }
+
+        for (int j = 0; j < d; j++) {
+            for (int i = 0; i < w; i++) {
+                double v = 0;
+                for (double[] o : offsets) {
+                    v += getTypedSource().getDouble(x + i + o[0], z + j + o[1]);
+                }
+                out[(j * w) + i] = toDouble(fromDouble(v / checks));
+            }
+        }
+    }
+
+    @Override
+    public void fillRegion(int x, int z, int w, int d, T[] out) {
+        double[] values = new double[w * d];
+        fillRegion(x, z, w, d, values);
+        for (int i = 0; i < values.length; i++) {
+            out[i] = fromDouble(values[i]);
+        }
+    }
 }
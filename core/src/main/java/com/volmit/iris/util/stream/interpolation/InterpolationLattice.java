@@ -0,0 +1,81 @@
+/*
+ * Iris is a World Generator for Minecraft Bukkit Servers
+ * Copyright (c) 2022 Arcane Arts (Volmit Software)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.volmit.iris.util.stream.interpolation;
+
+import com.volmit.iris.util.stream.ProceduralStream;
+
+/**
+ * The lattice points of a grid interpolator covering a region. Every point is sampled
+ * once per region instead of once for every column that interpolates between it.
+ */
+final class InterpolationLattice {
+    private final int rx;
+    private final int rz;
+    private final int fx;
+    private final int fz;
+    private final int width;
+    private final double[] values;
+
+    /**
+     * Sample the lattice of a region
+     *
+     * @param source the stream to sample
+     * @param x      the min x of the region
+     * @param z      the min z of the region
+     * @param w      the width of the region
+     * @param d      the depth of the region
+     * @param rx     the lattice spacing on x
+     * @param rz     the lattice spacing on z
+     * @param margin the extra lattice points needed before the first cell
+     */
+    InterpolationLattice(ProceduralStream<?> source, int x, int z, int w, int d, int rx, int rz, int margin) {
+        this.rx = rx;
+        this.rz = rz;
+        this.fx = Math.floorDiv(x, rx) - margin;
+        this.fz = Math.floorDiv(z, rz) - margin;
+        this.width = Math.floorDiv(x + w - 1, rx) + margin + 2 - fx;
+        int depth = Math.floorDiv(z + d - 1, rz) + margin + 2 - fz;
+        this.values = new double[width * depth];
+
+        for (int j = 0; j < depth; j++) {
+            for (int i = 0; i < width; i++) {
+                values[(j * width) + i] = source.getDouble((fx + i) * rx, (fz + j) * rz);
+            }
+        }
+    }
+
+    /**
+     * Get a lattice point by its cell coordinates
+     *
+     * @param cx the cell x (block x / rx)
+     * @param cz the cell z (block z / rz)
+     * @return the sampled value
+     */
+    double get(int cx, int cz) {
+        return values[((cz - fz) * width) + cx - fx];
+    }
+
+    int cellX(int x) {
+        return Math.floorDiv(x, rx);
+    }
+
+    int cellZ(int z) {
+        return Math.floorDiv(z, rz);
+    }
+}
@@ -69,4 +69,13 @@ public class CNGStream extends BasicLayer implements ProceduralStream<Double> {
         return cng.noise((x + getOffsetX()) / getZoom(), (y + getOffsetY()) / getZoom(), (z + getOffsetZ()) * getZoom());
     }
 
+    @Override
+    public void fillRegion(int x, int z, int w, int d, double[] out) {
+        for (int j = 0; j < d; j++) {
+            double zz = (z + j + getOffsetZ()) / getZoom();
+            for (int i = 0; i < w; i++) {
+                out[(j * w) + i] = cng.noise((x + i + getOffsetX()) / getZoom(), zz);
+            }
+        }
+    }
 }
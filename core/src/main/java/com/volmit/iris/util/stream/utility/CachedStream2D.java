@@ -57,6 +57,16 @@ public class CachedStream2D<T> extends BasicStream<T> implements ProceduralStrea
         return cache.get((int) x, (int) z);
     }
 
+    @Override
+    public T getUncached(double x, double z) {
+        return stream.getUncached(x, z);
+    }
+
+    @Override
+    public void fillUncached(int x, int z, int w, int d, int step, T[] out) {
+        stream.fillUncached(x, z, w, d, step, out);
+    }
+
     @Override
     public T get(double x, double y, double z) {
         return stream.get(x, y, z);
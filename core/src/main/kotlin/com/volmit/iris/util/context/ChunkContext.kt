@@ -13,7 +13,7 @@ class ChunkContext @JvmOverloads constructor(
     c: IrisComplex,
     cache: Boolean = true,
 ) {
-    val height: ChunkedDataCache<Double> = ChunkedDataCache(c.heightStream, x, z, cache)
+    val height: ChunkedDoubleCache = ChunkedDoubleCache(c.heightStream, x, z, cache)
     val biome: ChunkedDataCache<IrisBiome> = ChunkedDataCache(c.trueBiomeStream, x, z, cache)
     val cave: ChunkedDataCache<IrisBiome> = ChunkedDataCache(c.caveBiomeStream, x, z, cache)
     val rock: ChunkedDataCache<BlockData> = ChunkedDataCache(c.rockStream, x, z, cache)
@@ -23,12 +23,12 @@ class ChunkedDataCache<T> private constructor(
         if (!cache) return
 
         supervisorScope {
-            for (i in 0 until 16) {
-                for (j in 0 until 16) {
-                    launch(context) {
-                        val t = stream.get((x + i).toDouble(), (z + j).toDouble())
-                        data[(j * 16) + i] = t
-                    }
+            for (batch in 0 until 16 step ROWS_PER_TASK) {
+                launch(context) {
+                    @Suppress("UNCHECKED_CAST")
+                    val rows = arrayOfNulls<Any>(16 * ROWS_PER_TASK) as Array<T?>
+                    stream.fillRegion(x, z + batch, 16, ROWS_PER_TASK, rows)
+                    rows.copyInto(data, batch * 16)
                 }
             }
         }
@@ -44,4 +44,13 @@ class ChunkedDataCache<T> private constructor(
         val t = data[(z * 16) + x] as? T
         return t ?: stream.get((this.x + x).toDouble(), (this.z + z).toDouble())
     }
+
+    companion object {
+        /**
+         * Rows of a chunk evaluated by a single fill task. Streams are cheap per column,
+         * so a task per column spends more time scheduling than sampling. The rows are
+         * sampled with [ProceduralStream.fillRegion] so interpolators can share their lattice
+         */
+        const val ROWS_PER_TASK = 4
+    }
 }
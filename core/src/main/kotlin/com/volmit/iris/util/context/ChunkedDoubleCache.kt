@@ -0,0 +1,53 @@
+package com.volmit.iris.util.context
+
+import com.volmit.iris.util.documentation.BlockCoordinates
+import com.volmit.iris.util.stream.ProceduralStream
+import kotlinx.coroutines.Dispatchers
+import kotlinx.coroutines.launch
+import kotlinx.coroutines.supervisorScope
+import kotlin.coroutines.CoroutineContext
+
+/**
+ * Primitive variant of [ChunkedDataCache] for numeric streams, the values are
+ * sampled through [ProceduralStream.getDouble] and stored without boxing them.
+ * Columns which could not be filled are marked with NaN and sampled on access.
+ */
+class ChunkedDoubleCache private constructor(
+    private val x: Int,
+    private val z: Int,
+    private val stream: ProceduralStream<*>,
+    private val cache: Boolean
+) {
+    private val data = DoubleArray(if (cache) 256 else 0) { Double.NaN }
+
+    @JvmOverloads
+    @BlockCoordinates
+    constructor(stream: ProceduralStream<*>, x: Int, z: Int, cache: Boolean = true) : this(x, z, stream, cache)
+
+    suspend fun fill(context: CoroutineContext = Dispatchers.Default) {
+        if (!cache) return
+
+        supervisorScope {
+            for (batch in 0 until 16 step ChunkedDataCache.ROWS_PER_TASK) {
+                launch(context) {
+                    val rows = DoubleArray(16 * ChunkedDataCache.ROWS_PER_TASK)
+                    stream.fillRegion(x, z + batch, 16, ChunkedDataCache.ROWS_PER_TASK, rows)
+                    rows.copyInto(data, batch * 16)
+                }
+            }
+        }
+    }
+
+    @BlockCoordinates
+    fun get(x: Int, z: Int): Double {
+        if (!cache) {
+            return stream.getDouble((this.x + x).toDouble(), (this.z + z).toDouble())
+        }
+
+        val d = data[(z * 16) + x]
+        return if (d.isNaN()) stream.getDouble((this.x + x).toDouble(), (this.z + z).toDouble()) else d
+    }
+
+    @BlockCoordinates
+    fun getInt(x: Int, z: Int): Int = Math.round(get(x, z)).toInt()
+}
@@ -24,6 +24,7 @@ abstract class FlaggedChunk() {
     private val locks = 0.rangeUntil(flags.length()).map { Mutex() }.toTypedArray()
 
     abstract fun isClosed(): Boolean
+    abstract fun markDirty()
 
     protected fun copyFrom(other: FlaggedChunk, action: Runnable) = runBlocking {
         coroutineScope {
@@ -37,6 +38,7 @@ abstract class FlaggedChunk() {
         for (i in 0 until flags.length()) {
             flags[i] = other.flags[i]
         }
+        markDirty()
 
         for (i in 0 until flags.length()) {
             locks[i].unlock()
@@ -46,7 +48,7 @@ abstract class FlaggedChunk() {
     fun isFlagged(flag: MantleFlag) = flags.get(flag.ordinal())
     fun flag(flag: MantleFlag, value: Boolean) {
         if (isClosed()) throw IllegalStateException("Chunk is closed!")
-        flags.set(flag.ordinal(), value)
+        if (flags.getAndSet(flag.ordinal(), value) != value) markDirty()
     }
 
     suspend fun raiseFlagSuspend(flag: MantleFlag, task: suspend () -> Unit) {
@@ -58,12 +60,14 @@ abstract class FlaggedChunk() {
             task()
             if (flags.getAndSet(flag.ordinal(), true))
                 throw IllegalStateException("Flag ${flag.name()} was already set after task ran!")
+            markDirty()
         }
     }
 
     fun raiseFlagUnchecked(flag: MantleFlag, task: Runnable) {
         if (isClosed()) throw IllegalStateException("Chunk is closed!")
         if (flags.compareAndSet(flag.ordinal(), false, true)) {
+            markDirty()
             try {
                 task.run()
             } catch (e: Throwable) {
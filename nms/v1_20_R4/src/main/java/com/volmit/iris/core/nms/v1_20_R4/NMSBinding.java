@@ -23,6 +23,8 @@ import com.volmit.iris.engine.platform.PlatformChunkGenerator;
 import com.volmit.iris.util.agent.Agent;
 import com.volmit.iris.util.collection.KList;
 import com.volmit.iris.util.collection.KMap;
+import com.volmit.iris.util.data.IrisCustomData;
+import com.volmit.iris.util.data.palette.PalettedContainer;
 import com.volmit.iris.util.format.C;
 import com.volmit.iris.util.hunk.Hunk;
 import com.volmit.iris.util.json.JSONObject;
@@ -63,11 +65,13 @@ import net.minecraft.world.level.block.entity.BlockEntity;
 import net.minecraft.world.level.block.state.BlockState;
 import net.minecraft.world.level.block.state.properties.Property;
 import net.minecraft.world.level.chunk.ChunkAccess;
+import net.minecraft.world.level.chunk.LevelChunkSection;
 import net.minecraft.world.level.chunk.LevelChunk;
 import net.minecraft.world.level.chunk.ProtoChunk;
 import net.minecraft.world.level.chunk.status.ChunkStatus;
 import net.minecraft.world.level.dimension.LevelStem;
 import net.minecraft.world.level.levelgen.FlatLevelSource;
+import net.minecraft.world.level.levelgen.Heightmap;
 import net.minecraft.world.level.levelgen.flat.FlatLayerInfo;
 import net.minecraft.world.level.levelgen.flat.FlatLevelGeneratorSettings;
 import net.minecraft.world.level.levelgen.structure.placement.ConcentricRingsStructurePlacement;
@@ -83,6 +87,7 @@ import org.bukkit.craftbukkit.v1_20_R4.CraftWorld;
 import org.bukkit.craftbukkit.v1_20_R4.block.CraftBlockState;
 import org.bukkit.craftbukkit.v1_20_R4.block.CraftBlockStates;
 import org.bukkit.craftbukkit.v1_20_R4.block.data.CraftBlockData;
+import org.bukkit.craftbukkit.v1_20_R4.generator.CraftChunkData;
 import org.bukkit.craftbukkit.v1_20_R4.inventory.CraftItemStack;
 import org.bukkit.craftbukkit.v1_20_R4.util.CraftMagicNumbers;
 import org.bukkit.craftbukkit.v1_20_R4.util.CraftNamespacedKey;
@@ -479,6 +484,32 @@ public class NMSBinding implements INMSBinding {
         }
     }
 
+    @Override
+    public boolean setSection(ChunkGenerator.ChunkData data, int y, PalettedContainer<BlockData> blocks) {
+        if (!(data instanceof CraftChunkData craft)) {
+            return false;
+        }
+
+        ChunkAccess chunk = craft.getHandle();
+        LevelChunkSection section = chunk.getSection(chunk.getSectionIndex(y));
+        Heightmap oceanFloor = chunk.getOrCreateHeightmapUnprimed(Heightmap.Types.OCEAN_FLOOR_WG);
+        Heightmap worldSurface = chunk.getOrCreateHeightmapUnprimed(Heightmap.Types.WORLD_SURFACE_WG);
+        blocks.transfer(b -> ((CraftBlockData) (b instanceof IrisCustomData d ? d.getBase() : b)).getState(), (i, state) -> {
+            int x = i & 15;
+            int z = (i >> 4) & 15;
+
+            if (state.hasBlockEntity()) {
+                craft.setBlock(x, y + (i >> 8), z, CraftBlockData.fromData(state));
+                return;
+            }
+
+            section.setBlockState(x, i >> 8, z, state, false);
+            oceanFloor.update(x, y + (i >> 8), z, state);
+            worldSurface.update(x, y + (i >> 8), z, state);
+        });
+        return true;
+    }
+
     private Field getFieldForBiomeStorage(Object storage) {
         Field f = biomeStorageCache;
 